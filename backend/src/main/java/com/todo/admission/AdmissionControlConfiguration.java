@@ -0,0 +1,21 @@
+package com.todo.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the admission limits; {@code WebConfig} puts the interceptor in front of the
+ * task handlers. Turned off with {@code todo.admission.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.admission.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionControlConfiguration {
+    
+    @Bean
+    public AdmissionControlInterceptor admissionControlInterceptor(AdmissionProperties properties) {
+        return new AdmissionControlInterceptor(properties);
+    }
+}
@@ -0,0 +1,156 @@
+package com.todo.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Admits a request to its handler only while the read or write budget has room, and
+ * turns it away with {@link ConcurrencyLimitExceededException} (a 503 with
+ * {@code Retry-After}) otherwise. Failing fast keeps the requests that do get in from
+ * queueing behind a pool that cannot serve them all before clients time out.
+ *
+ * <p>GET and HEAD are reads; everything else is a write. Streamed responses hold their
+ * slot until they finish but their latency is not sampled, since it is set by how fast
+ * the client reads.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+    
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+    
+    private final GradientLimiter reads;
+    private final GradientLimiter writes;
+    private final Duration retryAfter;
+    
+    public AdmissionControlInterceptor(AdmissionProperties properties) {
+        this.reads = limiter(properties, properties.getRead());
+        this.writes = limiter(properties, properties.getWrite());
+        this.retryAfter = properties.getRetryAfter();
+    }
+    
+    private static GradientLimiter limiter(AdmissionProperties properties, AdmissionProperties.Budget budget) {
+        return new GradientLimiter(budget, properties.getRttTolerance(), properties.getSmoothing(), properties.getLongWindow());
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch finishes a request that was admitted on the first one
+        if (request.getDispatcherType() == DispatcherType.ASYNC || CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        boolean read = isRead(request);
+        GradientLimiter.Permit permit = (read ? reads : writes).tryAcquire();
+        if (permit == null) {
+            throw new ConcurrencyLimitExceededException(
+                    "Too many concurrent " + (read ? "reads" : "writes") + ", please retry", retryAfter);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        GradientLimiter.Permit permit = takePermit(request);
+        if (permit != null) {
+            request.getAsyncContext().addListener(new ReleaseOnComplete(permit));
+        }
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        GradientLimiter.Permit permit = takePermit(request);
+        if (permit == null) {
+            return;
+        }
+        // Pool timeouts and a full write-behind queue both answer 503: the server is out of capacity
+        if (response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            permit.dropped();
+        } else {
+            permit.success();
+        }
+    }
+    
+    private static GradientLimiter.Permit takePermit(HttpServletRequest request) {
+        GradientLimiter.Permit permit = (GradientLimiter.Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit;
+    }
+    
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+    
+    GradientLimiter getReads() {
+        return reads;
+    }
+    
+    GradientLimiter getWrites() {
+        return writes;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "read", reads);
+        bind(registry, "write", writes);
+    }
+    
+    private static void bind(MeterRegistry registry, String budget, GradientLimiter limiter) {
+        Gauge.builder("todo.admission.limit", limiter, GradientLimiter::getLimit)
+                .description("Concurrent requests currently admitted at most")
+                .tag("budget", budget)
+                .register(registry);
+        Gauge.builder("todo.admission.inflight", limiter, GradientLimiter::getInFlight)
+                .description("Admitted requests still being handled")
+                .tag("budget", budget)
+                .register(registry);
+        FunctionCounter.builder("todo.admission.requests", limiter, GradientLimiter::getRejectedCount)
+                .description("Requests turned away or failed for lack of capacity")
+                .tag("budget", budget)
+                .tag("outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("todo.admission.requests", limiter, GradientLimiter::getDroppedCount)
+                .description("Requests turned away or failed for lack of capacity")
+                .tag("budget", budget)
+                .tag("outcome", "dropped")
+                .register(registry);
+    }
+    
+    private static class ReleaseOnComplete implements AsyncListener {
+        
+        private final GradientLimiter.Permit permit;
+        
+        ReleaseOnComplete(GradientLimiter.Permit permit) {
+            this.permit = permit;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.ignore();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.todo.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limits in front of the {@code /api/tasks} handlers. Reads and writes each
+ * get their own budget, so a burst of one cannot starve the other.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.admission")
+public class AdmissionProperties {
+    
+    private boolean enabled = true;
+    
+    /** Sent as {@code Retry-After} on requests turned away because a budget is full. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+    
+    /**
+     * How much slower than its long-term average latency may get before the limit starts
+     * shrinking. 1.5 lets latency grow by half while the limit keeps probing upwards.
+     */
+    private double rttTolerance = 1.5;
+    
+    /** Weight of each new limit estimate; lower values react more slowly but flap less. */
+    private double smoothing = 0.2;
+    
+    /** Roughly how many requests the long-term latency average spans. */
+    private int longWindow = 600;
+    
+    private Budget read = new Budget(20, 4, 200);
+    
+    private Budget write = new Budget(10, 2, 50);
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+    }
+}
@@ -0,0 +1,18 @@
+package com.todo.admission;
+
+import java.time.Duration;
+
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public ConcurrencyLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,150 @@
+package com.todo.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * An adaptive concurrency limit driven by latency. Each completed request is compared
+ * with the long-term average: while the short-term latency stays within
+ * {@code rttTolerance} of it the limit grows by about its square root, and once requests
+ * slow down (they are queueing for a thread or a connection) it shrinks in proportion.
+ * Requests answered with 503 cut the limit straight away.
+ *
+ * <p>Requests only measure capacity when the limit is actually being used, so the limit
+ * does not drift upwards while traffic is light.
+ */
+public class GradientLimiter {
+    
+    /** Short-term latency is averaged over about this many requests. */
+    private static final double SHORT_WINDOW = 10;
+    private static final double DROP_BACKOFF = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double longWindow;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile double limit;
+    
+    // Guarded by this
+    private double shortRtt;
+    private double longRtt;
+    
+    public GradientLimiter(AdmissionProperties.Budget budget, double rttTolerance, double smoothing, int longWindow) {
+        this(budget, rttTolerance, smoothing, longWindow, System::nanoTime);
+    }
+    
+    GradientLimiter(AdmissionProperties.Budget budget, double rttTolerance, double smoothing, int longWindow,
+                    LongSupplier nanoClock) {
+        if (budget.getMinLimit() < 1 || budget.getMaxLimit() < budget.getMinLimit()) {
+            throw new IllegalArgumentException("Concurrency limits need 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = budget.getMinLimit();
+        this.maxLimit = budget.getMaxLimit();
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+        this.nanoClock = nanoClock;
+        this.limit = clamp(budget.getInitialLimit(), minLimit, maxLimit);
+    }
+    
+    /**
+     * Takes a slot, or returns null when the limit is reached. The caller must finish
+     * every permit it gets.
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return new Permit(nanoClock.getAsLong(), current + 1);
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+    
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt += (shortRtt - longRtt) / longWindow;
+        }
+        // After a long overload the average has crept up with the queueing; let it come
+        // back down with latency so the limit can recover
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+        
+        double gradient = clamp(rttTolerance * longRtt / shortRtt, 0.5, 1.0);
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + estimate * smoothing, minLimit, maxLimit);
+    }
+    
+    private synchronized void onDrop() {
+        dropped.incrementAndGet();
+        limit = clamp(limit * DROP_BACKOFF, minLimit, maxLimit);
+    }
+    
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+    
+    /**
+     * One admitted request. Exactly one of the methods should be called when it is done.
+     */
+    public final class Permit {
+        
+        private final long startNanos;
+        private final int inFlightAtStart;
+        
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+        
+        /** The request was served; its latency feeds the limit. */
+        public void success() {
+            inFlight.decrementAndGet();
+            onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+        }
+        
+        /** The request failed for lack of capacity downstream, such as a pool timeout. */
+        public void dropped() {
+            inFlight.decrementAndGet();
+            onDrop();
+        }
+        
+        /** Frees the slot without learning from the request, e.g. a streamed response. */
+        public void ignore() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.todo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Writes {@link LocalDateTime} as epoch milliseconds for the binary formats, where a
+ * single integer is a few bytes instead of a 26 character ISO string. Timestamps are
+ * created with {@link LocalDateTime#now()}, so they are read in the server's zone.
+ */
+final class EpochMillisDateTime {
+    
+    private EpochMillisDateTime() {
+    }
+    
+    static final class Serializer extends StdScalarSerializer<LocalDateTime> {
+        
+        Serializer() {
+            super(LocalDateTime.class);
+        }
+        
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+    
+    static final class Deserializer extends StdScalarDeserializer<LocalDateTime> {
+        
+        Deserializer() {
+            super(LocalDateTime.class);
+        }
+        
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getValueAsLong()), ZoneId.systemDefault());
+        }
+    }
+}
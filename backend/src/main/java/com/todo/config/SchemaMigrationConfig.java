@@ -0,0 +1,31 @@
+package com.todo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the Flyway migrations in {@code db/migration} at startup unless
+ * {@code todo.schema.migrate-on-startup} is false. Hibernate then only validates the
+ * schema. The switch is read at runtime, unlike {@code spring.flyway.enabled}, which
+ * Spring AOT fixes at build time, so an AOT build can still start without a database
+ * for its class-data-sharing training run.
+ */
+@Slf4j
+@Configuration
+public class SchemaMigrationConfig {
+    
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${todo.schema.migrate-on-startup:true}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                log.info("Skipping schema migrations: todo.schema.migrate-on-startup is false");
+            }
+        };
+    }
+}
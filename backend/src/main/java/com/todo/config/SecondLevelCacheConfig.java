@@ -0,0 +1,114 @@
+package com.todo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.todo.model.Task;
+import com.todo.service.ExternalTaskChangesEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.function.Function;
+
+/**
+ * Hibernate second-level cache on a local Caffeine cache, reached through JCache. The
+ * only region, {@link Task#CACHE_REGION}, holds tasks by id, so existence checks and
+ * lookups before a write skip the database. It is created here with its own bounds;
+ * Hibernate is told to fail rather than create an unbounded cache for any region it
+ * finds unconfigured. Query results are not cached by Hibernate: the incomplete pages
+ * are already kept, serialized, by {@link com.todo.service.TaskPageCache}.
+ * Each context gets its own caching provider, so test contexts never share a cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.storage", havingValue = "jpa", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${todo.cache.tasks.max-size:10000}") long taskMaxSize,
+            @Value("${todo.cache.tasks.ttl:PT1H}") Duration taskTtl) {
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        cacheManager.createCache(Task.CACHE_REGION, bounded(taskMaxSize, taskTtl));
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+    
+    @Bean
+    public ExternalChangeEviction externalChangeEviction(EntityManagerFactory entityManagerFactory) {
+        return new ExternalChangeEviction(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+    
+    /**
+     * {@code todo.hibernate.cache.hit.ratio} per region, next to the raw hit and miss
+     * counts Hibernate's own meters export.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> hitRatio(registry, Task.CACHE_REGION, statistics::getDomainDataRegionStatistics);
+    }
+    
+    private static void hitRatio(MeterRegistry registry, String region,
+                                 Function<String, CacheRegionStatistics> regionStatistics) {
+        Gauge.builder("todo.hibernate.cache.hit.ratio", () -> {
+                    CacheRegionStatistics stats = regionStatistics.apply(region);
+                    long requests = stats.getHitCount() + stats.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) stats.getHitCount() / requests;
+                })
+                .description("Share of second-level cache lookups answered without the database")
+                .tag("region", region)
+                .register(registry);
+    }
+    
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+    }
+    
+    /**
+     * Tasks changed by another writer are still cached here as they were, so they are
+     * dropped.
+     */
+    static class ExternalChangeEviction {
+        
+        private final SessionFactory sessionFactory;
+        
+        ExternalChangeEviction(SessionFactory sessionFactory) {
+            this.sessionFactory = sessionFactory;
+        }
+        
+        @EventListener
+        public void onExternalTaskChanges(ExternalTaskChangesEvent event) {
+            sessionFactory.getCache().evictEntityData(Task.class);
+        }
+    }
+}
@@ -1,22 +1,84 @@
 package com.todo.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.todo.admission.AdmissionControlInterceptor;
+import com.todo.metrics.QueryBudgetInterceptor;
+import com.todo.metrics.RequestStatisticsFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    
+    /** Response formats a client has to ask for by name; JSON stays the default. */
+    public static final List<MediaType> BINARY_MEDIA_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    
+    private final ObjectProvider<AdmissionControlInterceptor> admissionControl;
+    private final ObjectProvider<QueryBudgetInterceptor> queryBudget;
+    
+    public WebConfig(ObjectProvider<AdmissionControlInterceptor> admissionControl,
+                     ObjectProvider<QueryBudgetInterceptor> queryBudget) {
+        this.admissionControl = admissionControl;
+        this.queryBudget = queryBudget;
+    }
+    
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER,
+                        RequestStatisticsFilter.STATEMENTS_HEADER, RequestStatisticsFilter.ENTITIES_HEADER)
                 .allowCredentials(true);
     }
+    
+    /**
+     * Admission control covers every task handler except the change-event stream, whose
+     * connections stay open for as long as a client is watching. Query budgets, when
+     * switched on, are checked for every API handler.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        admissionControl.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/tasks/**")
+                .excludePathPatterns("/api/tasks/events"));
+        queryBudget.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+    
+    /**
+     * CBOR and Smile converters configured like the JSON one, except that dates are
+     * written as epoch milliseconds. They replace the defaults Spring would register.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(epochMillisDates(builder).factory(new CBORFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(epochMillisDates(builder).factory(new SmileFactory()).build());
+    }
+    
+    private static Jackson2ObjectMapperBuilder epochMillisDates(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .serializerByType(LocalDateTime.class, new EpochMillisDateTime.Serializer())
+                .deserializerByType(LocalDateTime.class, new EpochMillisDateTime.Deserializer());
+    }
 }
-
-
-
@@ -1,15 +1,36 @@
 package com.todo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.config.WebConfig;
+import com.todo.dto.BatchItemResult;
 import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
+import com.todo.dto.OffsetPage;
 import com.todo.dto.TaskDTO;
+import com.todo.dto.TaskStats;
+import com.todo.dto.WriteOperation;
+import com.todo.metrics.QueryBudget;
 import com.todo.service.TaskService;
+import com.todo.service.TaskWriteBehind;
+import com.todo.service.WriteOperationNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -19,46 +40,245 @@ import java.util.List;
 public class TaskController {
     
     private final TaskService taskService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<TaskWriteBehind> taskWriteBehind;
     
+    /**
+     * With {@code todo.write-behind.enabled} the task is queued instead: the response is
+     * 202 with the pending operation, which can be polled at its {@code Location}.
+     */
+    @QueryBudget(3)
     @PostMapping
-    public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody CreateTaskRequest request) {
+    public ResponseEntity<?> createTask(@Valid @RequestBody CreateTaskRequest request) {
+        TaskWriteBehind writeBehind = taskWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            return accepted(writeBehind.submitCreate(request));
+        }
         TaskDTO createdTask = taskService.createTask(request);
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
     
+    // Up to 1000 tasks: an id block and an insert batch per 50, and an id block is two statements on MySQL
+    @QueryBudget(value = 60, allowRepeats = true)
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createTasks(@RequestBody List<CreateTaskRequest> requests) {
+        List<BatchItemResult> results = taskService.createTasks(requests);
+        return ResponseEntity.ok(results);
+    }
+    
+    /**
+     * JSON clients get the cached, pre-serialized bytes. Clients that ask for CBOR or
+     * Smile by name get the same cached page through the binary converters.
+     */
+    @QueryBudget(1)
     @GetMapping("/recent")
-    public ResponseEntity<List<TaskDTO>> getFirstPageTasks() {
-        List<TaskDTO> tasks = taskService.getFirstPageIncompleteTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getFirstPageTasks(
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        if (acceptsBinary(accept)) {
+            return revalidated(etag).body(taskService.getFirstPageIncompleteTasks());
+        }
+        byte[] tasks = taskService.getFirstPageIncompleteTasksJson();
+        return revalidated(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tasks);
     }
     
+    @QueryBudget(1)
     @GetMapping("/page/{page}")
-    public ResponseEntity<Page<TaskDTO>> getTasksPage(@PathVariable int page) {
-        Page<TaskDTO> taskPage = taskService.getIncompleteTasks(page);
-        return ResponseEntity.ok(taskPage);
+    public ResponseEntity<OffsetPage<TaskDTO>> getTasksPage(@PathVariable int page, WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        OffsetPage<TaskDTO> taskPage = OffsetPage.of(taskService.getIncompleteTasks(page));
+        return revalidated(etag).body(taskPage);
+    }
+    
+    @QueryBudget(1)
+    @GetMapping("/incomplete")
+    public ResponseEntity<CursorPage<TaskDTO>> getIncompleteTasks(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "5") int limit,
+            WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPage<TaskDTO> taskPage = taskService.getIncompleteTasksAfter(after, limit);
+        return revalidated(etag).body(taskPage);
     }
     
+    @QueryBudget(2)
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskDTO>> searchTasks(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<TaskDTO> tasks = taskService.searchTasks(query, limit);
+        return revalidated(etag).body(tasks);
+    }
+    
+    @QueryBudget(2)
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
+    public ResponseEntity<List<TaskDTO>> getAllTasks(WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<TaskDTO> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+        return revalidated(etag).body(tasks);
     }
     
+    /**
+     * Newline-delimited JSON export of every task. Rows are serialized as they come off
+     * the database cursor instead of being collected into a list first.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                taskService.streamAllTasks(task -> {
+                    try {
+                        generator.writeObject(task);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Server-Sent Events stream of committed changes: {@code created}, {@code completed}
+     * and {@code deleted} events whose data is the task. For deleted archived tasks only
+     * {@code id} and {@code completed} are set.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents() {
+        return taskEventBroadcaster.subscribe();
+    }
+    
+    @QueryBudget(0)
     @GetMapping("/count")
-    public ResponseEntity<Long> getIncompleteTaskCount() {
+    public ResponseEntity<Long> getIncompleteTaskCount(WebRequest request) {
+        String etag = changeVersionTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         long count = taskService.getIncompleteTaskCount();
-        return ResponseEntity.ok(count);
+        return revalidated(etag).body(count);
     }
     
+    /**
+     * Per-day created and completed counts for the last {@code days} days (at most the
+     * retention period), the open backlog, and time-to-completion percentiles.
+     */
+    @QueryBudget(0)
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getTaskStats(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(taskService.getTaskStats(days));
+    }
+    
+    // At most two statements per attempt, and a second attempt after losing a race to another change
+    @QueryBudget(4)
     @PutMapping("/{id}/complete")
-    public ResponseEntity<TaskDTO> completeTask(@PathVariable Long id) {
+    public ResponseEntity<?> completeTask(@PathVariable Long id) {
+        TaskWriteBehind writeBehind = taskWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            return accepted(writeBehind.submitComplete(id));
+        }
         TaskDTO updatedTask = taskService.markTaskAsCompleted(id);
         return ResponseEntity.ok(updatedTask);
     }
     
+    @QueryBudget(0)
+    @GetMapping("/operations/{operationId}")
+    public ResponseEntity<WriteOperation> getWriteOperation(@PathVariable String operationId) {
+        TaskWriteBehind writeBehind = taskWriteBehind.getIfAvailable();
+        WriteOperation operation = writeBehind != null ? writeBehind.find(operationId) : null;
+        if (operation == null) {
+            throw new WriteOperationNotFoundException("Write operation not found with id: " + operationId);
+        }
+        return ResponseEntity.ok(operation);
+    }
+    
+    // One lookup, an update batch per 50 of up to 1000 tasks, and the archive check
+    @QueryBudget(22)
+    @PutMapping("/batch/complete")
+    public ResponseEntity<List<BatchItemResult>> completeTasks(@RequestBody List<Long> ids) {
+        List<BatchItemResult> results = taskService.markTasksAsCompleted(ids);
+        return ResponseEntity.ok(results);
+    }
+    
+    @QueryBudget(4)
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteTasks(@RequestBody List<Long> ids) {
+        List<BatchItemResult> results = taskService.deleteTasks(ids);
+        return ResponseEntity.ok(results);
+    }
+    
+    // Like completion, up to two attempts of at most two statements
+    @QueryBudget(4)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
+    
+    /**
+     * The task change version as a weak ETag. It names the data, not the bytes: the
+     * same version is sent as JSON, CBOR or Smile, gzipped or not, and Tomcat only
+     * compresses responses whose ETag is weak.
+     */
+    private String changeVersionTag() {
+        return "W/\"" + taskService.getChangeVersion() + "\"";
+    }
+    
+    /**
+     * 200 response tagged with the task change version. {@code no-cache} lets browsers
+     * keep the body but makes them revalidate with {@code If-None-Match} on every use,
+     * which the GET handlers answer with a 304 before doing any work. The version is the
+     * same in every format, so caches have to keep one entry per {@code Accept} header.
+     */
+    private ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+    
+    private static ResponseEntity<WriteOperation> accepted(WriteOperation operation) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tasks/operations/" + operation.getId()))
+                .body(operation);
+    }
+    
+    private static boolean acceptsBinary(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .filter(type -> !type.isWildcardSubtype())
+                    .anyMatch(type -> WebConfig.BINARY_MEDIA_TYPES.stream().anyMatch(type::isCompatibleWith));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
 }
\ No newline at end of file
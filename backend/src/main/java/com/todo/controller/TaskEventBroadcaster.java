@@ -0,0 +1,191 @@
+package com.todo.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.service.TaskChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed task changes out to every {@code GET /api/tasks/events} subscriber.
+ * Each event is serialized once; publishing only offers it to each subscriber's bounded
+ * queue, and a small sender pool does the actual writes. A subscriber whose queue is
+ * full is too slow to keep up and is disconnected, so it can never hold back the writer
+ * or anyone else. Clients resynchronize by reloading when their EventSource reconnects.
+ */
+@Slf4j
+@Component
+public class TaskEventBroadcaster implements MeterBinder {
+    
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+    
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ExecutorService sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+    
+    @Autowired
+    public TaskEventBroadcaster(ObjectMapper objectMapper,
+                                @Value("${todo.events.buffer-size:256}") int bufferSize,
+                                @Value("${todo.events.timeout:PT30M}") Duration timeout,
+                                @Value("${todo.events.sender-threads:4}") int senderThreads) {
+        this(objectMapper, bufferSize, timeout,
+                Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("task-events-")));
+    }
+    
+    TaskEventBroadcaster(ObjectMapper objectMapper, int bufferSize, Duration timeout, ExecutorService sender) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sender = sender;
+    }
+    
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        // Commits the response headers right away so the client sees the stream open
+        subscriber.enqueue(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+    
+    /**
+     * Runs on the committing thread; never blocks on a subscriber.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> payload = SseEmitter.event()
+                .name(event.getType().name().toLowerCase(Locale.ROOT))
+                .data(toJson(event))
+                .build();
+        subscribers.forEach(subscriber -> subscriber.enqueue(payload));
+    }
+    
+    /**
+     * Keeps idle connections alive through proxies and surfaces dead ones, whose
+     * writes then fail.
+     */
+    @Scheduled(fixedDelayString = "${todo.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.enqueue(HEARTBEAT));
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.events.subscribers", subscribers, Set::size)
+                .description("Open task event streams")
+                .register(registry);
+        FunctionCounter.builder("todo.events.subscribers.dropped", droppedSubscribers, AtomicLong::get)
+                .description("Task event streams closed because the client fell behind")
+                .register(registry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+    
+    private String toJson(TaskChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event.getTask());
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedSubscribers.incrementAndGet();
+            log.debug("Disconnecting task event subscriber that fell {} events behind", bufferSize);
+            subscriber.queue.clear();
+            // complete() waits for any write in progress, so keep it off the publishing thread
+            sender.execute(subscriber.emitter::complete);
+        }
+    }
+    
+    private class Subscriber implements Runnable {
+        
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void enqueue(Set<DataWithMediaType> payload) {
+            if (!queue.offer(payload)) {
+                drop(this);
+                return;
+            }
+            schedule();
+        }
+        
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                sender.execute(this);
+            }
+        }
+        
+        /**
+         * Drains the queue on a sender thread. At most one drain per subscriber runs at
+         * a time, so events reach each client in publish order.
+         */
+        @Override
+        public void run() {
+            try {
+                Set<DataWithMediaType> payload;
+                while ((payload = queue.poll()) != null) {
+                    emitter.send(payload);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away, or the emitter already completed
+                subscribers.remove(this);
+                queue.clear();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() && subscribers.contains(this)) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.todo.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives each client read-your-writes consistency. When a request commits a write, the
+ * response sets a short-lived cookie; while it is present the client's reads go to the
+ * primary, so a replica that has not caught up yet cannot hide the change from it.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    public static final String COOKIE_NAME = "todo-read-primary-until";
+    
+    private final Duration stickyWindow;
+    
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RoutingContext.beginRequest(wroteRecently(request), new StickyCookie(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.endRequest();
+        }
+    }
+    
+    private boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Sets the cookie after the first commit; the response has not been written yet
+     * because the handler is still running.
+     */
+    private class StickyCookie implements Runnable {
+        
+        private final HttpServletResponse response;
+        private boolean set;
+        
+        StickyCookie(HttpServletResponse response) {
+            this.response = response;
+        }
+        
+        @Override
+        public void run() {
+            if (set || response.isCommitted()) {
+                return;
+            }
+            set = true;
+            long until = System.currentTimeMillis() + stickyWindow.toMillis();
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(until))
+                    .path("/api")
+                    .maxAge(stickyWindow)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+}
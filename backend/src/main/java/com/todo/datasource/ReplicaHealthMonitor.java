@@ -0,0 +1,172 @@
+package com.todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the replica connection pools and decides which replicas may take reads. A
+ * replica is healthy when it answers and its replication lag is within
+ * {@code todo.datasource.max-lag}; reads rotate over the healthy ones, and fall back to
+ * the primary when there are none.
+ */
+@Slf4j
+public class ReplicaHealthMonitor implements MeterBinder, DisposableBean {
+    
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<Replica> healthy = List.of();
+    
+    public ReplicaHealthMonitor(ReplicaProperties properties) {
+        this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        this.lagQuery = properties.getLagQuery();
+        this.lagColumn = properties.getLagColumn();
+        List<ReplicaProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            replicas.add(new Replica("replica-" + i, createPool("replica-" + i, configured.get(i))));
+        }
+    }
+    
+    /**
+     * A healthy replica, taking turns between them, or null when reads must go to the
+     * primary.
+     */
+    DataSource nextHealthy() {
+        List<Replica> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size())).dataSource;
+    }
+    
+    /**
+     * Takes a replica out of rotation after a failed connection attempt, until the next
+     * check finds it answering again.
+     */
+    void markDown(DataSource dataSource, SQLException cause) {
+        for (Replica replica : replicas) {
+            if (replica.dataSource == dataSource && replica.healthy) {
+                log.warn("Replica {} failed to hand out a connection, reading from the primary: {}",
+                        replica.name, cause.getMessage());
+                replica.healthy = false;
+                publishHealthy();
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${todo.datasource.check-interval:PT5S}")
+    public void check() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            replica.lagSeconds = measureLag(replica);
+            replica.healthy = replica.lagSeconds <= maxLagSeconds;
+            if (replica.healthy != wasHealthy) {
+                log.info("Replica {} is now {} (lag {}s)", replica.name,
+                        replica.healthy ? "taking reads" : "out of rotation", replica.lagSeconds);
+            }
+        }
+        publishHealthy();
+    }
+    
+    public int getHealthyCount() {
+        return healthy.size();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("todo.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is taking reads")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("todo.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag at the last check; infinite when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+    
+    /**
+     * Seconds behind the primary, or infinity when the replica does not answer or does
+     * not report a lag.
+     */
+    private double measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            if (!StringUtils.hasText(lagQuery)) {
+                return 0;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                double lag = StringUtils.hasText(lagColumn) ? resultSet.getDouble(lagColumn) : resultSet.getDouble(1);
+                return resultSet.wasNull() ? Double.POSITIVE_INFINITY : lag;
+            }
+        } catch (SQLException ex) {
+            log.debug("Replica {} check failed: {}", replica.name, ex.getMessage());
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+    
+    private void publishHealthy() {
+        healthy = replicas.stream().filter(replica -> replica.healthy).collect(Collectors.toUnmodifiableList());
+    }
+    
+    private static HikariDataSource createPool(String name, ReplicaProperties.Replica properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        // A dead replica should cost a read a short wait, not the default 30 seconds
+        dataSource.setConnectionTimeout(Duration.ofSeconds(VALIDATION_TIMEOUT_SECONDS).toMillis());
+        // Start even while the replica is down; the checks bring it into rotation later
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+    
+    private static class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.POSITIVE_INFINITY;
+        
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.todo.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas behind {@code spring.datasource}. Replica routing is only switched on
+ * when at least one replica URL is configured.
+ */
+@Data
+@ConfigurationProperties(prefix = "todo.datasource")
+public class ReplicaProperties {
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    /** Replicas further behind the primary than this stop receiving reads. */
+    private Duration maxLag = Duration.ofSeconds(5);
+    
+    private Duration checkInterval = Duration.ofSeconds(5);
+    
+    /** How long a client keeps reading from the primary after one of its writes. */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    
+    /**
+     * Run on each replica to measure its lag in seconds, read from {@link #lagColumn}
+     * (or the first column when blank). No rows or a NULL value means replication is not
+     * running. Leave blank to only check that the replica answers.
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+    
+    private String lagColumn = "Seconds_Behind_Source";
+    
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,46 @@
+package com.todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured pool with the primary pool plus replicas, routed by
+ * {@link ReplicaRoutingDataSource}. Without {@code todo.datasource.replicas[0].url} none
+ * of this is created and everything uses {@code spring.datasource} as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfiguration {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(ReplicaProperties properties) {
+        return new ReplicaHealthMonitor(properties);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaHealthMonitor replicaHealthMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaHealthMonitor));
+    }
+    
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties properties) {
+        return new ReadYourWritesFilter(properties.getStickyWindow());
+    }
+}
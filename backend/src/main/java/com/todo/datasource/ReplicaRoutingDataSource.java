@@ -0,0 +1,73 @@
+package com.todo.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to a healthy
+ * replica and everything else to the primary. It must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction manager asks for a connection before it marks the transaction read-only,
+ * and the proxy holds that request back until the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    
+    private final DataSource primary;
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+    
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaHealthMonitor replicaHealthMonitor) {
+        this.primary = primary;
+        this.replicaHealthMonitor = replicaHealthMonitor;
+    }
+    
+    /**
+     * A replica that cannot hand out a connection is taken out of rotation and the
+     * read goes to the primary instead of failing.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTarget();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException ex) {
+            replicaHealthMonitor.markDown(target, ex);
+            return primary.getConnection();
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+    
+    private DataSource determineTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(WriteCommitted.INSTANCE);
+            }
+            return primary;
+        }
+        if (RoutingContext.isPrimaryRequired()) {
+            return primary;
+        }
+        DataSource replica = replicaHealthMonitor.nextHealthy();
+        return replica != null ? replica : primary;
+    }
+    
+    private enum WriteCommitted implements TransactionSynchronization {
+        INSTANCE;
+        
+        @Override
+        public void afterCommit() {
+            RoutingContext.writeCommitted();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.todo.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints for {@link ReplicaRoutingDataSource}. Reads go to a replica
+ * unless the current thread must see the primary: inside {@link #onPrimary}, or while
+ * serving a request from a client that wrote a moment ago. Set up for each request by
+ * {@link ReadYourWritesFilter}.
+ */
+public final class RoutingContext {
+    
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    private static final ThreadLocal<Runnable> WRITE_LISTENER = new ThreadLocal<>();
+    
+    private RoutingContext() {
+    }
+    
+    /**
+     * Runs {@code work} with every read on the primary, for reads whose result must not
+     * lag behind writes that already committed, such as filling a shared cache.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+    
+    static void beginRequest(boolean primaryRequired, Runnable writeListener) {
+        if (primaryRequired) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        }
+        WRITE_LISTENER.set(writeListener);
+    }
+    
+    static void endRequest() {
+        PRIMARY_REQUIRED.remove();
+        WRITE_LISTENER.remove();
+    }
+    
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+    
+    /**
+     * Called once a read-write transaction on this thread commits. The rest of the
+     * request reads from the primary, and the client is told to keep doing so.
+     */
+    static void writeCommitted() {
+        Runnable listener = WRITE_LISTENER.get();
+        if (listener != null) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+            listener.run();
+        }
+    }
+}
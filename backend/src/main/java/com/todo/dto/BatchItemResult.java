@@ -0,0 +1,27 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry in a batch request. {@code index} is the entry's position in
+ * the request body; {@code task} is only filled in for created tasks.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    
+    public enum Status { CREATED, COMPLETED, DELETED, NOT_FOUND, INVALID }
+    
+    private int index;
+    
+    private Long id;
+    
+    private Status status;
+    
+    private String message;
+    
+    private TaskDTO task;
+}
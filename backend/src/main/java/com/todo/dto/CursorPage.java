@@ -0,0 +1,21 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is an opaque token
+ * for the following slice, or {@code null} when there is nothing after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> content;
+    
+    private String nextCursor;
+}
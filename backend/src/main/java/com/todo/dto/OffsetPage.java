@@ -0,0 +1,30 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * One numbered page of a listing. Unlike Spring's {@link Page} serialization it carries
+ * no {@code pageable} or {@code sort} metadata: just the content, the number of the
+ * next page ({@code null} on the last one) and the total number of elements.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OffsetPage<T> {
+    
+    private List<T> content;
+    
+    private Integer nextPage;
+    
+    private long totalElements;
+    
+    public static <T> OffsetPage<T> of(Page<T> page) {
+        Integer nextPage = page.hasNext() ? page.getNumber() + 1 : null;
+        return new OffsetPage<>(page.getContent(), nextPage, page.getTotalElements());
+    }
+}
@@ -0,0 +1,45 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard figures: the open backlog, tasks created and completed per day (oldest
+ * first, days without activity included), and how long the tasks completed in that
+ * window took from creation to completion.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStats {
+    
+    private long openTasks;
+    
+    private List<Day> days;
+    
+    private CompletionTimes timeToComplete;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private long created;
+        private long completed;
+    }
+    
+    /** Percentiles in seconds, within 1% of the true value. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompletionTimes {
+        private long count;
+        private double p50Seconds;
+        private double p90Seconds;
+        private double p99Seconds;
+    }
+}
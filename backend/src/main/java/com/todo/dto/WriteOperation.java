@@ -0,0 +1,39 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A create or complete accepted in write-behind mode. It starts {@code PENDING} and
+ * becomes {@code APPLIED}, with {@code task} or {@code taskId} filled in, once the
+ * background writer has committed it; {@code FAILED} carries the reason in
+ * {@code message}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteOperation {
+    
+    public enum Type { CREATE, COMPLETE }
+    
+    public enum Status { PENDING, APPLIED, FAILED }
+    
+    private String id;
+    
+    private Type type;
+    
+    private Status status;
+    
+    private Long taskId;
+    
+    private TaskDTO task;
+    
+    private String message;
+    
+    private LocalDateTime acceptedAt;
+    
+    private LocalDateTime appliedAt;
+}
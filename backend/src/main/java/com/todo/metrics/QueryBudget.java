@@ -0,0 +1,26 @@
+package com.todo.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most JDBC round trips one call of the annotated handler may make. Checked by
+ * {@link QueryBudgetInterceptor} while {@code todo.query-budget.mode} is {@code LOG} or
+ * {@code FAIL}; handlers without one are only checked for repeated statements.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    
+    int value();
+    
+    /**
+     * Skips the repeated-statement check, for handlers that legitimately run one
+     * statement many times, like the id block fetched for every 50 tasks of a batch insert.
+     */
+    boolean allowRepeats() default false;
+}
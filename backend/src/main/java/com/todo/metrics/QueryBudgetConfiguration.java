@@ -0,0 +1,48 @@
+package com.todo.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the {@code dataSource} bean in a datasource-proxy that counts statements into
+ * {@link QueryCount} scopes. The count is always on: {@link RequestStatisticsFilter}
+ * reports it for every request. Only with {@code todo.query-budget.mode} set to
+ * {@code LOG} or {@code FAIL} does every handler also run in a scope that checks its
+ * {@link QueryBudget}.
+ */
+@Configuration
+public class QueryBudgetConfiguration {
+    
+    /**
+     * Only the bean other components inject is wrapped. With read replicas the pools
+     * behind it are beans too, and wrapping them as well would count every statement twice.
+     */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new QueryCountingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    @ConditionalOnExpression("!'${todo.query-budget.mode:OFF}'.equalsIgnoreCase('OFF')")
+    public QueryBudgetInterceptor queryBudgetInterceptor(
+            @Value("${todo.query-budget.mode}") QueryCount.Mode mode,
+            @Value("${todo.query-budget.repeat-threshold:3}") int repeatThreshold) {
+        return new QueryBudgetInterceptor(mode, repeatThreshold);
+    }
+}
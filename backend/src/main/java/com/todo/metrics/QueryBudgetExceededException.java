@@ -0,0 +1,8 @@
+package com.todo.metrics;
+
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
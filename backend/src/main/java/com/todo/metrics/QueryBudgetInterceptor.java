@@ -0,0 +1,59 @@
+package com.todo.metrics;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a {@link QueryCount} scope around each handler, with the budget from its
+ * {@link QueryBudget} annotation. Streamed responses are only counted up to the point
+ * where the handler hands the rest to another thread.
+ */
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final String SCOPE_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".scope";
+    
+    private final QueryCount.Mode mode;
+    private final int repeatThreshold;
+    
+    public QueryBudgetInterceptor(QueryCount.Mode mode, int repeatThreshold) {
+        this.mode = mode;
+        this.repeatThreshold = repeatThreshold;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        QueryBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(QueryBudget.class) : null;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String name = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        request.setAttribute(SCOPE_ATTRIBUTE, QueryCount.start(name,
+                budget != null ? budget.value() : QueryCount.UNLIMITED,
+                budget != null && budget.allowRepeats() ? 0 : repeatThreshold,
+                mode));
+        return true;
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        closeScope(request);
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        closeScope(request);
+    }
+    
+    private static void closeScope(HttpServletRequest request) {
+        QueryCount scope = (QueryCount) request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope != null) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.todo.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC round trips made on the current thread while the scope is open, as seen by the
+ * datasource proxy {@link QueryBudgetConfiguration} puts around the pool. A batch counts
+ * once. Scopes nest and every open scope sees each statement, so a test can measure a
+ * whole request while the request checks its own budget.
+ *
+ * <p>A scope with a budget has a violation when more statements than that run in it.
+ * Independently of the budget, one SQL string running {@code repeatThreshold} times is
+ * reported as a likely N+1 loop. In {@link Mode#LOG} violations are logged when the
+ * scope closes; in {@link Mode#FAIL} the statement that crosses the line throws
+ * {@link QueryBudgetExceededException} instead of running.
+ */
+@Slf4j
+public final class QueryCount implements AutoCloseable {
+    
+    public enum Mode { OFF, LOG, FAIL }
+    
+    public static final int UNLIMITED = -1;
+    
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+    
+    private final String name;
+    private final QueryCount parent;
+    private final int budget;
+    private final int repeatThreshold;
+    private final Mode mode;
+    private final long[] byType = new long[QueryType.values().length];
+    private final Map<String, Integer> executions = new HashMap<>();
+    private final List<String> repeated = new ArrayList<>();
+    private long statements;
+    private boolean closed;
+    
+    private QueryCount(String name, int budget, int repeatThreshold, Mode mode) {
+        this.name = name;
+        this.parent = CURRENT.get();
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+        this.mode = mode;
+    }
+    
+    /**
+     * Counts without enforcing anything.
+     */
+    public static QueryCount start(String name) {
+        return start(name, UNLIMITED, 0, Mode.OFF);
+    }
+    
+    /**
+     * @param budget          most statements allowed, or {@link #UNLIMITED}
+     * @param repeatThreshold runs of one SQL string that count as an N+1 loop, or 0 to not check
+     */
+    public static QueryCount start(String name, int budget, int repeatThreshold, Mode mode) {
+        QueryCount count = new QueryCount(name, budget, repeatThreshold, mode);
+        CURRENT.set(count);
+        return count;
+    }
+    
+    static void executing(String sql, boolean batch) {
+        QueryBudgetExceededException exceeded = null;
+        for (QueryCount count = CURRENT.get(); count != null; count = count.parent) {
+            try {
+                count.record(sql, batch);
+            } catch (QueryBudgetExceededException ex) {
+                // Still count the statement in the enclosing scopes; report the innermost
+                exceeded = exceeded != null ? exceeded : ex;
+            }
+        }
+        if (exceeded != null) {
+            throw exceeded;
+        }
+    }
+    
+    private void record(String sql, boolean batch) {
+        statements++;
+        byType[QueryUtils.getQueryType(sql).ordinal()]++;
+        if (mode == Mode.FAIL && overBudget()) {
+            throw new QueryBudgetExceededException(
+                    name + " went over its budget of " + budget + " statements with: " + sql);
+        }
+        // Batches are the fix for loops, not a loop
+        if (!batch && repeatThreshold > 0 && executions.merge(sql, 1, Integer::sum) == repeatThreshold) {
+            String message = name + " ran one statement " + repeatThreshold + " times, a likely N+1 query: " + sql;
+            if (mode == Mode.FAIL) {
+                throw new QueryBudgetExceededException(message);
+            }
+            repeated.add(message);
+        }
+    }
+    
+    private boolean overBudget() {
+        return budget != UNLIMITED && statements > budget;
+    }
+    
+    public long getStatements() {
+        return statements;
+    }
+    
+    public long getSelects() {
+        return byType[QueryType.SELECT.ordinal()];
+    }
+    
+    public long getInserts() {
+        return byType[QueryType.INSERT.ordinal()];
+    }
+    
+    public long getUpdates() {
+        return byType[QueryType.UPDATE.ordinal()];
+    }
+    
+    public long getDeletes() {
+        return byType[QueryType.DELETE.ordinal()];
+    }
+    
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+        if (mode == Mode.LOG) {
+            if (overBudget()) {
+                log.warn("{} made {} statements, over its budget of {}", name, statements, budget);
+            }
+            repeated.forEach(log::warn);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return name + ": " + statements + " statements";
+    }
+}
@@ -0,0 +1,25 @@
+package com.todo.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds every statement the proxied pool is about to run to the open {@link QueryCount}
+ * scopes. Counting before the statement runs lets a {@code FAIL} budget stop it.
+ */
+class QueryCountingListener implements QueryExecutionListener {
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!queryInfoList.isEmpty()) {
+            QueryCount.executing(queryInfoList.get(0).getQuery(), execInfo.isBatch());
+        }
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.todo.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate statistics that, besides the usual session-factory totals, attribute
+ * entity loads to the request running on the current thread. Statements are counted
+ * below Hibernate, by {@link QueryCount}. Installed through
+ * {@code hibernate.stats.factory}; Hibernate only calls these hooks while
+ * {@code hibernate.generate_statistics} is on.
+ */
+public class RequestAwareStatistics extends StatisticsImpl {
+    
+    public RequestAwareStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+    
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        RequestStatistics.entityLoaded();
+    }
+    
+    public static class Factory implements StatisticsFactory {
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new RequestAwareStatistics(sessionFactory);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.todo.metrics;
+
+/**
+ * Per-thread tally of the entity loads made while serving the current request. Fed by
+ * {@link RequestAwareStatistics}, read and reset by {@link RequestStatisticsFilter}.
+ */
+public final class RequestStatistics {
+    
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+    
+    private long entitiesLoaded;
+    
+    private RequestStatistics() {
+    }
+    
+    static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+    
+    static void end() {
+        CURRENT.remove();
+    }
+    
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+    
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
@@ -0,0 +1,138 @@
+package com.todo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the JDBC statements and entity loads behind each {@code /api} request. The
+ * statements come from a {@link QueryCount} scope around the request, so they are the
+ * same round trips the {@link QueryBudget}s are checked against, a batch counting once.
+ * The totals go out as response headers, stamped just before the body is written, and
+ * are recorded as distribution summaries tagged with the handler's URI pattern.
+ */
+@Component
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+    
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ENTITIES_HEADER = "X-Entities-Loaded";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public RequestStatisticsFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        // Slice tests run without the metrics auto-configuration; fall back to the no-op global registry
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCount queries = QueryCount.start(request.getMethod() + " " + request.getRequestURI());
+        RequestStatistics statistics = RequestStatistics.begin();
+        StatisticsHeaderResponse wrappedResponse = new StatisticsHeaderResponse(response, queries, statistics);
+        try {
+            filterChain.doFilter(request, wrappedResponse);
+        } finally {
+            RequestStatistics.end();
+            queries.close();
+            // Streaming responses keep querying on another thread after this returns,
+            // so there is nothing meaningful to report for them here.
+            if (!request.isAsyncStarted()) {
+                wrappedResponse.stampHeaders();
+                record(request, queries, statistics);
+            }
+        }
+    }
+    
+    private void record(HttpServletRequest request, QueryCount queries, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        
+        DistributionSummary.builder("todo.http.sql.statements")
+                .description("JDBC round trips per request")
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(queries.getStatements());
+        DistributionSummary.builder("todo.http.entities.loaded")
+                .description("Entities loaded into the persistence context per request")
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(statistics.getEntitiesLoaded());
+    }
+    
+    /**
+     * Adds the statistics headers the first time the response is about to commit, which
+     * for regular handlers is after all database work is done.
+     */
+    private static class StatisticsHeaderResponse extends HttpServletResponseWrapper {
+        
+        private final QueryCount queries;
+        private final RequestStatistics statistics;
+        private boolean stamped;
+        
+        StatisticsHeaderResponse(HttpServletResponse response, QueryCount queries, RequestStatistics statistics) {
+            super(response);
+            this.queries = queries;
+            this.statistics = statistics;
+        }
+        
+        void stampHeaders() {
+            if (stamped || isCommitted()) {
+                return;
+            }
+            stamped = true;
+            setHeader(STATEMENTS_HEADER, Long.toString(queries.getStatements()));
+            setHeader(ENTITIES_HEADER, Long.toString(statistics.getEntitiesLoaded()));
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stampHeaders();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stampHeaders();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            stampHeaders();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendError(int sc) throws IOException {
+            stampHeaders();
+            super.sendError(sc);
+        }
+        
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stampHeaders();
+            super.sendError(sc, msg);
+        }
+    }
+}
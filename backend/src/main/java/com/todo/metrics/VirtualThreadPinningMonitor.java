@@ -0,0 +1,79 @@
+package com.todo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier (inside a
+ * {@code synchronized} block or a native frame), using the JFR
+ * {@code jdk.VirtualThreadPinned} event. Each occurrence is counted and logged with
+ * the top of its stack, which points at the lock that needs replacing.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    
+    private final Counter pinnedCounter;
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+    
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${todo.virtual-threads.pinned-threshold:PT20MS}") Duration threshold) {
+        this.pinnedCounter = Counter.builder("todo.virtual.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+    
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), topFrames(event));
+        }
+    }
+    
+    private String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\t<no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.todo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed task moved out of {@code task} by {@code TaskArchiver}. It keeps its
+ * original id, so links and the search index keep pointing at it.
+ */
+@Entity
+@Table(name = "task_archive", indexes = {
+    @Index(name = "idx_archive_created", columnList = "created_at DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTask {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(nullable = false, length = 1000)
+    private String description;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime completedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
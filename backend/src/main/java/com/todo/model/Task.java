@@ -6,19 +6,40 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
+/**
+ * Cached by id in the second-level cache. Completion and deletion go through the
+ * entity rather than bulk statements, which would evict the whole region. Updates
+ * write every column: dynamic updates would be narrower, but Hibernate cannot batch
+ * them, and batch completion relies on that.
+ */
 @Entity
-@Table(name = "task")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@Table(name = "task", indexes = {
+    @Index(name = "idx_completed_created", columnList = "completed, created_at DESC"),
+    @Index(name = "idx_created", columnList = "created_at DESC"),
+    @Index(name = "idx_completed_completed_at", columnList = "completed, completed_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
     
+    public static final String CACHE_REGION = "task";
+    
+    /**
+     * Pooled sequence rather than IDENTITY so Hibernate can batch inserts. On MySQL the
+     * sequence is emulated by the {@code task_seq} table.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -34,8 +55,34 @@ public class Task {
     @Column(nullable = false)
     private Boolean completed = false;
     
-    @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+    
+    /**
+     * When the task was completed; null while it is open, and for tasks completed
+     * before this was recorded. Drives archival by {@code TaskArchiver}.
+     */
+    private LocalDateTime completedAt;
+    
+    /**
+     * Optimistic lock: an update or delete of a task another transaction changed first
+     * fails instead of completing or deleting it twice. It also lets Hibernate keep the
+     * cached copy current on writes rather than evicting it.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    /**
+     * Stamped at persist time rather than at flush: with sequence ids the insert is
+     * deferred, and callers expect the timestamp on the entity as soon as it is saved.
+     */
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
 
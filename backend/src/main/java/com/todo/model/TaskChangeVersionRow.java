@@ -0,0 +1,26 @@
+package com.todo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row of {@code task_change_version}: how many transactions have changed
+ * tasks, across every writer of the database.
+ */
+@Entity
+@Table(name = "task_change_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeVersionRow {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,49 @@
+package com.todo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One day of {@code TaskStatistics} as counted by one run of one instance, as of its
+ * last checkpoint: tasks created and completed that day, and the encoded sketch of how
+ * long the completed ones took. A day's totals are the sum of its rows.
+ */
+@Entity
+@Table(name = "task_stats_daily")
+@IdClass(TaskStatsDay.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsDay {
+    
+    @Id
+    private LocalDate statsDate;
+    
+    @Id
+    @Column(length = 36)
+    private String instanceId;
+    
+    @Column(nullable = false)
+    private long createdCount;
+    
+    @Column(nullable = false)
+    private long completedCount;
+    
+    // A full sketch is under 10 KB
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private byte[] completionSketch;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate statsDate;
+        private String instanceId;
+    }
+}
@@ -0,0 +1,78 @@
+package com.todo.repository;
+
+import com.todo.dto.TaskDTO;
+import com.todo.model.ArchivedTask;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Completed tasks moved out of the hot {@code task} table. Reads project into the same
+ * {@link TaskDTO} as live tasks, always with {@code completed = true}.
+ */
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long>, ArchivedTaskStore {
+    
+    @Query("select new com.todo.dto.TaskDTO(a.id, a.title, a.description, true, a.createdAt) "
+            + "from ArchivedTask a order by a.createdAt desc")
+    @Override
+    List<TaskDTO> findAllNewestFirst();
+    
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.todo.dto.TaskDTO(a.id, a.title, a.description, true, a.createdAt) "
+            + "from ArchivedTask a order by a.createdAt desc")
+    @Override
+    Stream<TaskDTO> streamAllByOrderByCreatedAtDesc();
+    
+    @Query("select new com.todo.dto.TaskDTO(a.id, a.title, a.description, true, a.createdAt) "
+            + "from ArchivedTask a where a.id = :id")
+    @Override
+    Optional<TaskDTO> findDtoById(@Param("id") Long id);
+    
+    @Query("select new com.todo.dto.TaskDTO(a.id, a.title, a.description, true, a.createdAt) "
+            + "from ArchivedTask a where a.id in :ids")
+    @Override
+    List<TaskDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("select a.id from ArchivedTask a where a.id in :ids")
+    @Override
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Returns the number of rows deleted: 0 or 1.
+     */
+    @Modifying
+    @Query("delete from ArchivedTask a where a.id = :id")
+    @Override
+    int deleteByIdReturningCount(@Param("id") Long id);
+    
+    @Modifying
+    @Query("delete from ArchivedTask a where a.id in :ids")
+    @Override
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Copies the given completed tasks into the archive in one {@code INSERT ... SELECT}.
+     */
+    @Modifying
+    @Query("insert into ArchivedTask (id, title, description, createdAt, completedAt, archivedAt) "
+            + "select t.id, t.title, t.description, t.createdAt, t.completedAt, :archivedAt "
+            + "from Task t where t.id in :ids and t.completed = true")
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
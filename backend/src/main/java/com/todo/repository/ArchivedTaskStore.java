@@ -0,0 +1,35 @@
+package com.todo.repository;
+
+import com.todo.dto.TaskDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage of archived tasks, as the services use it. Reads return {@link TaskDTO}s with
+ * {@code completed = true}.
+ */
+public interface ArchivedTaskStore {
+    
+    List<TaskDTO> findAllNewestFirst();
+    
+    /**
+     * Every archived task, newest first. Must be closed by the caller.
+     */
+    Stream<TaskDTO> streamAllByOrderByCreatedAtDesc();
+    
+    Optional<TaskDTO> findDtoById(Long id);
+    
+    List<TaskDTO> findDtosByIdIn(Collection<Long> ids);
+    
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+    
+    /**
+     * Returns the number of rows deleted: 0 or 1.
+     */
+    int deleteByIdReturningCount(Long id);
+    
+    int deleteByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,29 @@
+package com.todo.repository;
+
+import com.todo.model.TaskChangeVersionRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * The shared task change version. {@link #increment()} takes the row lock until the
+ * calling transaction ends, so it belongs at the very end of a write.
+ */
+@Repository
+public interface TaskChangeVersionRepository extends JpaRepository<TaskChangeVersionRow, Integer> {
+    
+    /**
+     * Returns the number of rows updated: 0 until the row exists, otherwise 1.
+     */
+    @Transactional
+    @Modifying
+    @Query("update TaskChangeVersionRow v set v.version = v.version + 1 where v.id = " + TaskChangeVersionRow.ID)
+    int increment();
+    
+    @Query("select v.version from TaskChangeVersionRow v where v.id = " + TaskChangeVersionRow.ID)
+    Optional<Long> findVersion();
+}
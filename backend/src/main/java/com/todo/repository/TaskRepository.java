@@ -1,15 +1,45 @@
 package com.todo.repository;
 
+import com.todo.dto.TaskDTO;
 import com.todo.model.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskStore {
+    
+    /*
+     * Redeclared with the entity type, so that calls through TaskStore and through this
+     * interface resolve to the same method.
+     */
+    
+    @Override
+    <S extends Task> S save(S task);
+    
+    @Override
+    Optional<Task> findById(Long id);
+    
+    @Override
+    void delete(Task task);
     
     List<Task> findByCompletedFalseOrderByCreatedAtDesc();
     
@@ -18,4 +48,100 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByCompletedFalseOrderByCreatedAtDesc(Pageable pageable);
     
     Page<Task> findAllByOrderByCreatedAtDesc(Pageable pageable);
-}
\ No newline at end of file
+    
+    /**
+     * One page of incomplete tasks, newest first, projected straight into DTOs and
+     * without the {@code COUNT} query a {@code Page} return type would add. Not put in
+     * the query cache: {@code TaskPageCache} already keeps the pages callers ask for.
+     */
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t where t.completed = false order by t.createdAt desc")
+    @Override
+    List<TaskDTO> findIncompletePage(Pageable pageable);
+    
+    /**
+     * Every task, newest first, as DTOs. Nothing enters the persistence context, so
+     * there are no entity snapshots to keep or dirty-check.
+     */
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t order by t.createdAt desc")
+    @Override
+    List<TaskDTO> findAllNewestFirst();
+    
+    @Override
+    long countByCompletedFalse();
+    
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t where t.id in :ids")
+    @Override
+    List<TaskDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Up to {@code limit} completed tasks finished before {@code cutoff}, locked until the
+     * transaction ends. Tasks completed before completion times were recorded go by
+     * their creation time. Unordered, so the scan of {@code idx_completed_completed_at}
+     * stops as soon as it has enough rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.completed = true "
+            + "and (t.completedAt < :cutoff or (t.completedAt is null and t.createdAt < :cutoff))")
+    List<Long> lockArchivable(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+    
+    /**
+     * Bulk delete for archiving. Like any bulk statement it evicts the whole task region
+     * of the second-level cache, which is acceptable once per archive batch.
+     */
+    @Modifying
+    @Query("delete from Task t where t.id in :ids and t.completed = true")
+    int deleteCompletedByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Cursor over every task, newest first. Rows are fetched from the driver in chunks
+     * and projected into DTOs, so the persistence context stays empty however many rows
+     * are read. Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t order by t.createdAt desc")
+    @Override
+    Stream<TaskDTO> streamAllByOrderByCreatedAtDesc();
+    
+    /**
+     * Recent tasks through the {@code created_at} index, streamed like
+     * {@link #streamAllByOrderByCreatedAtDesc()}.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t where t.createdAt >= :createdAt")
+    @Override
+    Stream<TaskDTO> streamCreatedSince(@Param("createdAt") LocalDateTime createdAt);
+    
+    /**
+     * First keyset page of incomplete tasks. Ordered to match a forward scan of
+     * {@code idx_completed_created}, whose entries carry the primary key ascending.
+     */
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t where t.completed = false order by t.createdAt desc, t.id asc")
+    @Override
+    List<TaskDTO> findIncompleteFirst(Limit limit);
+    
+    /**
+     * Keyset page of incomplete tasks strictly after {@code (createdAt, id)}. The leading
+     * {@code createdAt <= :createdAt} keeps the predicate a plain index range seek.
+     */
+    @Query("select new com.todo.dto.TaskDTO(t.id, t.title, t.description, t.completed, t.createdAt) "
+            + "from Task t where t.completed = false "
+            + "and t.createdAt <= :createdAt "
+            + "and (t.createdAt < :createdAt or t.id > :id) "
+            + "order by t.createdAt desc, t.id asc")
+    @Override
+    List<TaskDTO> findIncompleteAfter(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Limit limit);
+}
@@ -0,0 +1,26 @@
+package com.todo.repository;
+
+import com.todo.model.TaskStatsDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Checkpoints of the task statistics, one row per day and instance run.
+ */
+@Repository
+public interface TaskStatsRepository extends JpaRepository<TaskStatsDay, TaskStatsDay.Key> {
+    
+    List<TaskStatsDay> findByStatsDateGreaterThanEqual(LocalDate from);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from TaskStatsDay s where s.statsDate < :before")
+    int deleteOlderThan(@Param("before") LocalDate before);
+}
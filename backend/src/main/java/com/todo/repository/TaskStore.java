@@ -0,0 +1,78 @@
+package com.todo.repository;
+
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage of live tasks, as the services use it. {@link TaskRepository} implements it on
+ * JPA; {@code com.todo.storage.EmbeddedTaskStore} is the embedded alternative selected
+ * with {@code todo.storage=embedded}.
+ *
+ * <p>Tasks returned by {@link #findById} and {@link #findAllById} inside a transaction
+ * are tracked: changes made to them are written by {@link #flush()} or when the
+ * transaction commits, without an explicit {@link #save}.
+ */
+public interface TaskStore {
+    
+    /**
+     * Inserts a new task, assigning its id, or writes the changes to an existing one.
+     * Fails with an optimistic locking exception if the task was changed since it was read.
+     */
+    <S extends Task> S save(S task);
+    
+    <S extends Task> List<S> saveAll(Iterable<S> tasks);
+    
+    /**
+     * Writes the changes made so far to tracked tasks.
+     */
+    void flush();
+    
+    Optional<Task> findById(Long id);
+    
+    List<Task> findAllById(Iterable<Long> ids);
+    
+    void delete(Task task);
+    
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+    
+    long countByCompletedFalse();
+    
+    /**
+     * One page of incomplete tasks, newest first, without a count.
+     */
+    List<TaskDTO> findIncompletePage(Pageable pageable);
+    
+    List<TaskDTO> findAllNewestFirst();
+    
+    List<TaskDTO> findDtosByIdIn(Collection<Long> ids);
+    
+    /**
+     * Every task, newest first. Must be closed by the caller.
+     */
+    Stream<TaskDTO> streamAllByOrderByCreatedAtDesc();
+    
+    /**
+     * Every task created at or after {@code createdAt}, in no particular order. Must be
+     * closed by the caller.
+     */
+    Stream<TaskDTO> streamCreatedSince(LocalDateTime createdAt);
+    
+    /**
+     * First keyset page of incomplete tasks: newest first, ties broken by id ascending.
+     */
+    List<TaskDTO> findIncompleteFirst(Limit limit);
+    
+    /**
+     * Keyset page of incomplete tasks strictly after {@code (createdAt, id)} in the order
+     * of {@link #findIncompleteFirst}.
+     */
+    List<TaskDTO> findIncompleteAfter(LocalDateTime createdAt, Long id, Limit limit);
+}
@@ -0,0 +1,8 @@
+package com.todo.service;
+
+
+public class BatchSizeExceededException extends RuntimeException {
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
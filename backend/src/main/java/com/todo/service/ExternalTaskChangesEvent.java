@@ -0,0 +1,18 @@
+package com.todo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link TaskChangeVersion} when the shared change version moved past the
+ * changes this instance committed itself: tasks were changed by another writer, and it
+ * is not known which. Listeners that mirror database state drop or re-read it. Published
+ * on the scheduler thread that polls the row, before the local version moves past it;
+ * {@code version} is the row's value.
+ */
+@Getter
+@AllArgsConstructor
+public class ExternalTaskChangesEvent {
+    
+    private final long version;
+}
@@ -0,0 +1,185 @@
+package com.todo.service;
+
+import com.todo.datasource.RoutingContext;
+import com.todo.repository.TaskStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory number of incomplete tasks. Deltas are applied once the mutating
+ * transaction commits, and a periodic {@code COUNT} query corrects any drift
+ * (for example rows changed outside this application).
+ *
+ * <p>A transaction is counted as pending from just before it commits until its deltas
+ * have been applied. A {@code COUNT} taken while any is pending could already include
+ * rows whose delta is still to come, so the reconcile is skipped rather than risk
+ * counting them twice. Reads never query; until the first reconcile at startup they
+ * only reflect the changes made since.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncompleteTaskCounter {
+    
+    private static final int INITIALIZE_ATTEMPTS = 5;
+    private static final long INITIALIZE_BACKOFF_MS = 200;
+    
+    private final TaskStore taskRepository;
+    private final TaskChangeVersion taskChangeVersion;
+    
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private final AtomicInteger pendingCommits = new AtomicInteger();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    // Not synchronized: a monitor held across the COUNT query would pin a virtual thread
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile boolean initialized;
+    
+    public long get() {
+        return count.get();
+    }
+    
+    /**
+     * Marks the surrounding transaction as pending while it commits. Runs when the event
+     * is published, inside the transaction, once per transaction however many tasks it
+     * changes.
+     */
+    @EventListener
+    public void onTaskChanging(TaskChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing = true;
+                pendingCommits.incrementAndGet();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(IncompleteTaskCounter.this);
+                if (committing) {
+                    pendingCommits.decrementAndGet();
+                }
+            }
+        });
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        long delta = deltaOf(event);
+        if (delta != 0) {
+            count.addAndGet(delta);
+            appliedChanges.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Tasks changed elsewhere, so the count is recounted as soon as no local commit is in
+     * the way, and retried every {@code todo.changes.poll-interval} until it is.
+     */
+    @EventListener
+    public void onExternalTaskChanges(ExternalTaskChangesEvent event) {
+        reconcileRequested.set(true);
+        reconcileIfRequested();
+    }
+    
+    @Scheduled(fixedDelayString = "${todo.changes.poll-interval:PT1S}",
+               initialDelayString = "${todo.changes.poll-interval:PT1S}")
+    public void reconcileIfRequested() {
+        if (reconcileRequested.getAndSet(false) && !tryReconcile(true)) {
+            reconcileRequested.set(true);
+        }
+    }
+    
+    /**
+     * Takes the first count, retrying a few times if writes keep it from settling. If it
+     * still has not, the scheduled reconcile takes over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() throws InterruptedException {
+        for (int attempt = 1; attempt <= INITIALIZE_ATTEMPTS && !tryReconcile(false); attempt++) {
+            Thread.sleep(INITIALIZE_BACKOFF_MS * attempt);
+        }
+        if (!initialized) {
+            log.warn("Incomplete task counter not initialized at startup, tasks kept changing while counting");
+        }
+    }
+    
+    /**
+     * Replaces the in-memory value with a real count. If a commit was pending or a change
+     * was applied while the query ran, the result may not match the deltas, so it is
+     * discarded and the next run tries again.
+     */
+    @Scheduled(fixedDelayString = "${todo.counter.reconcile-interval:PT5M}",
+               initialDelayString = "${todo.counter.reconcile-interval:PT5M}")
+    public void reconcile() {
+        tryReconcile(false);
+    }
+    
+    /**
+     * {@code changedElsewhere}: the count is known to have moved without this
+     * application, so a difference is expected rather than drift.
+     */
+    private boolean tryReconcile(boolean changedElsewhere) {
+        reconcileLock.lock();
+        try {
+            long changesBefore = appliedChanges.get();
+            long expected = count.get();
+            if (pendingCommits.get() > 0) {
+                log.debug("Skipping incomplete task count reconcile, a task change is committing");
+                return false;
+            }
+            // Compared against deltas that have already committed, so never a replica
+            long actual = RoutingContext.onPrimary(taskRepository::countByCompletedFalse);
+            
+            if (pendingCommits.get() > 0 || appliedChanges.get() != changesBefore) {
+                log.debug("Skipping incomplete task count reconcile, tasks changed while counting");
+                return false;
+            }
+            boolean drifted = initialized && !changedElsewhere && actual != expected;
+            if (drifted) {
+                log.warn("Incomplete task counter drifted: memory={}, database={}", expected, actual);
+            }
+            count.addAndGet(actual - expected);
+            if (drifted) {
+                // Tasks changed without this application seeing it, so cached responses are stale too
+                taskChangeVersion.increment();
+            }
+            initialized = true;
+            return true;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+    
+    private long deltaOf(TaskChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                return 1;
+            case COMPLETED:
+                return -1;
+            case DELETED:
+                return Boolean.TRUE.equals(event.getTask().getCompleted()) ? 0 : -1;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.todo.service;
+
+
+public class InvalidPageException extends RuntimeException {
+    public InvalidPageException(int page) {
+        super("Page must not be negative: " + page);
+    }
+}
@@ -0,0 +1,136 @@
+package com.todo.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A mergeable quantile sketch with bounded relative error, laid out like DDSketch.
+ * A value {@code v >= 1} lands in bucket {@code ceil(log(v) / log(gamma))} with
+ * {@code gamma = (1 + a) / (1 - a)}, so every quantile comes back within {@link #RELATIVE_ACCURACY}
+ * of a value that was actually recorded; smaller values share one bucket that reports 0.
+ * Buckets are atomic counters, so recording never locks, and two sketches merge by
+ * adding their counts.
+ *
+ * <p>Meant for durations in seconds: values up to about ten years get their own bucket,
+ * larger ones are counted in the last.
+ */
+public final class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MAX_TRACKED = 10 * 365.25 * 24 * 3600;
+    private static final int BUCKETS = 2 + (int) Math.ceil(Math.log(MAX_TRACKED) / LOG_GAMMA);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(double value) {
+        counts.incrementAndGet(bucketOf(value));
+    }
+
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * The value at quantile {@code q} (0 to 1), or 0 when nothing was recorded. Reads a
+     * copy of the counts, so values recorded meanwhile cannot skew the walk.
+     */
+    public double quantile(double q) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(Math.max(0, Math.min(1, q)) * (total - 1));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen > rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(BUCKETS - 1);
+    }
+
+    /**
+     * The non-empty buckets as {@code [count][index, value]...}, for checkpointing.
+     */
+    public byte[] toBytes() {
+        int used = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            if (snapshot[i] != 0) {
+                used++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + used * (Short.BYTES + Long.BYTES));
+        buffer.putInt(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (snapshot[i] != 0) {
+                buffer.putShort((short) i);
+                buffer.putLong(snapshot[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code bytes} is not what {@link #toBytes()} wrote
+     */
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        QuantileSketch sketch = new QuantileSketch();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            int used = buffer.getInt();
+            for (int n = 0; n < used; n++) {
+                int index = buffer.getShort();
+                long count = buffer.getLong();
+                if (index < 0 || index >= BUCKETS || count < 0) {
+                    throw new IllegalArgumentException("Corrupt quantile sketch bucket " + index);
+                }
+                sketch.counts.addAndGet(index, count);
+            }
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated quantile sketch of " + bytes.length + " bytes", ex);
+        }
+        return sketch;
+    }
+
+    private static int bucketOf(double value) {
+        if (!(value >= 1)) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 1 + (int) Math.ceil(Math.log(value) / LOG_GAMMA));
+    }
+
+    /**
+     * The point of bucket {@code i} whose relative distance to both of its bounds is
+     * {@link #RELATIVE_ACCURACY}.
+     */
+    private static double valueOf(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return 2 * Math.pow(GAMMA, bucket - 1) / (GAMMA + 1);
+    }
+}
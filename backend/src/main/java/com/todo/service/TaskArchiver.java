@@ -0,0 +1,121 @@
+package com.todo.service;
+
+import com.todo.repository.ArchivedTaskRepository;
+import com.todo.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves completed tasks older than {@code todo.archive.min-age} from {@code task} to
+ * {@code task_archive}, so the hot table and its indexes only hold open and recently
+ * completed tasks. Each batch is its own short transaction that locks, copies and
+ * deletes at most {@code todo.archive.batch-size} rows, with a pause between batches,
+ * so user writes never wait long behind it.
+ *
+ * <p>Archiving does not change what users see: {@link TaskService} reads through to the
+ * archive, so no {@link TaskChangedEvent} is published. The deletes still move the
+ * {@link TaskChangeVersion} once per batch, so other instances drop their cached copies
+ * of the moved tasks instead of failing version checks against them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver implements MeterBinder {
+    
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskChangeVersion taskChangeVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final AtomicLong archived = new AtomicLong();
+    
+    public TaskArchiver(TaskRepository taskRepository,
+                        ArchivedTaskRepository archivedTaskRepository,
+                        TaskChangeVersion taskChangeVersion,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${todo.archive.min-age:P30D}") Duration minAge,
+                        @Value("${todo.archive.batch-size:500}") int batchSize,
+                        @Value("${todo.archive.batch-pause:PT0.1S}") Duration batchPause) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskChangeVersion = taskChangeVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+    }
+    
+    /**
+     * Archives batches until none is full. Returns the number of tasks moved.
+     */
+    @Scheduled(fixedDelayString = "${todo.archive.interval:PT15M}",
+               initialDelayString = "${todo.archive.interval:PT15M}")
+    public int archive() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+        } while (moved == batchSize && pause());
+        
+        if (total > 0) {
+            log.info("Archived {} completed tasks in {} ms", total, (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+    
+    public long getArchivedCount() {
+        return archived.get();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.archive.tasks", archived, AtomicLong::get)
+                .description("Completed tasks moved to the archive table")
+                .register(registry);
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = taskRepository.lockArchivable(cutoff, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+            return taskRepository.deleteCompletedByIdIn(ids);
+        });
+        if (moved > 0) {
+            taskChangeVersion.increment();
+        }
+        archived.addAndGet(moved);
+        return moved;
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
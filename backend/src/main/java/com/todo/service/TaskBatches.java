@@ -0,0 +1,67 @@
+package com.todo.service;
+
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rules every implementation of the batch endpoints shares: the size limit, how an
+ * invalid create is described and how per-id outcomes are reported.
+ */
+public final class TaskBatches {
+    
+    public static final int MAX_BATCH_SIZE = 1000;
+    
+    private TaskBatches() {
+    }
+    
+    public static void checkSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new BatchSizeExceededException(
+                "Batch contains " + size + " items, the maximum is " + MAX_BATCH_SIZE);
+        }
+    }
+    
+    /**
+     * The constraint violations of one batch entry as a single sorted message, or
+     * {@code null} when the entry is valid.
+     */
+    public static String describeViolations(Validator validator, CreateTaskRequest request) {
+        if (request == null) {
+            return "Task is required";
+        }
+        Set<ConstraintViolation<CreateTaskRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    /**
+     * One result per requested id, in request order: {@code foundStatus} for the ids in
+     * {@code found}, not found for the rest.
+     */
+    public static List<BatchItemResult> toResults(List<Long> taskIds, Set<Long> found,
+                                                  BatchItemResult.Status foundStatus) {
+        List<BatchItemResult> results = new ArrayList<>(taskIds.size());
+        for (int i = 0; i < taskIds.size(); i++) {
+            Long id = taskIds.get(i);
+            if (found.contains(id)) {
+                results.add(new BatchItemResult(i, id, foundStatus, null, null));
+            } else {
+                results.add(new BatchItemResult(i, id, BatchItemResult.Status.NOT_FOUND,
+                        "Task not found with id: " + id, null));
+            }
+        }
+        return results;
+    }
+}
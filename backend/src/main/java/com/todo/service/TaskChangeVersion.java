@@ -0,0 +1,180 @@
+package com.todo.service;
+
+import com.todo.datasource.RoutingContext;
+import com.todo.model.TaskChangeVersionRow;
+import com.todo.repository.TaskChangeVersionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Monotonically increasing version of the task table, read without a query. Readers
+ * must take the version <em>before</em> querying, so a response is never labelled with
+ * a version newer than the data it was built from.
+ *
+ * <p>The version is a counter in memory, tagged with the start time because it restarts
+ * at zero with the process. Every transaction that changes tasks moves it once its
+ * commit and after-commit listeners have run; writes never touch the database for it.
+ * Instances therefore hand out different versions for the same data, and a client that
+ * switches instances gets a full response rather than a 304.
+ *
+ * <p>With JPA, instances tell each other about their writes through the row in
+ * {@code task_change_version}. Every {@code todo.changes.poll-interval} a background
+ * poll increments the row once if this instance committed changes since the last poll,
+ * and reads it back. Anything beyond that one increment came from other writers: the
+ * poll publishes a single {@link ExternalTaskChangesEvent}, so the local caches drop
+ * what they hold, and only then moves the version. Until then changes made elsewhere
+ * can still be answered with a 304. Changes made to {@code task} without incrementing
+ * the row, such as hand-written SQL, are not seen until {@link IncompleteTaskCounter}
+ * finds the count drifted and calls {@link #increment()}, and never if the count stays
+ * the same.
+ */
+@Slf4j
+@Component
+public class TaskChangeVersion {
+    
+    private final TaskChangeVersionRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    // Local changes not yet counted in the shared row
+    private final AtomicLong unpublished = new AtomicLong();
+    // Not synchronized: a monitor held across the row's statements would pin a virtual thread
+    private final ReentrantLock pollLock = new ReentrantLock();
+    // Value of the shared row as far as already accounted for; guarded by pollLock
+    private long shared;
+    
+    public TaskChangeVersion(ObjectProvider<TaskChangeVersionRepository> repository,
+                             ApplicationEventPublisher eventPublisher) {
+        this.repository = repository.getIfAvailable();
+        this.eventPublisher = eventPublisher;
+    }
+    
+    public String current() {
+        return epoch + "." + version.get();
+    }
+    
+    /**
+     * Moves the version once per transaction publishing a change, however many tasks it
+     * changes, after the transaction committed.
+     */
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeVersion.this);
+                // After the after-commit listeners, so caches are invalidated before the new version is handed out
+                if (status == STATUS_COMMITTED) {
+                    increment();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Moves the version for a change made outside a task write, like archiving or drift
+     * of the incomplete count. Other instances learn of it from the next poll.
+     */
+    public void increment() {
+        version.incrementAndGet();
+        unpublished.incrementAndGet();
+    }
+    
+    /**
+     * Creates the row where the schema comes from the entities rather than the
+     * migrations, then takes its value as the starting point for the polls.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (repository == null) {
+            return;
+        }
+        pollLock.lock();
+        try {
+            Optional<Long> current = RoutingContext.onPrimary(repository::findVersion);
+            if (current.isEmpty()) {
+                repository.save(new TaskChangeVersionRow(TaskChangeVersionRow.ID, 0));
+            }
+            shared = current.orElse(0L);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+    
+    /**
+     * Counts this instance's changes in the shared row and picks up those of other
+     * writers. However many changes they made in one interval, local caches are dropped
+     * once, on the scheduler thread rather than a request thread.
+     */
+    @Scheduled(fixedDelayString = "${todo.changes.poll-interval:PT1S}",
+               initialDelayString = "${todo.changes.poll-interval:PT1S}")
+    public void poll() {
+        if (repository == null) {
+            return;
+        }
+        pollLock.lock();
+        try {
+            if (unpublished.getAndSet(0) > 0) {
+                int incremented;
+                try {
+                    incremented = repository.increment();
+                } catch (RuntimeException ex) {
+                    unpublished.incrementAndGet();
+                    throw ex;
+                }
+                if (incremented == 0) {
+                    log.warn("No task_change_version row to increment; other instances do not see this one's changes");
+                }
+                shared += incremented;
+            }
+            
+            long seen = RoutingContext.onPrimary(repository::findVersion).orElse(0L);
+            if (seen > shared) {
+                log.debug("Task change version row at {} includes changes made elsewhere", seen);
+                shared = seen;
+                eventPublisher.publishEvent(new ExternalTaskChangesEvent(seen));
+                version.incrementAndGet();
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+    
+    /**
+     * Publishes the changes of the last interval, so other instances do not miss them.
+     */
+    @PreDestroy
+    public void close() {
+        if (repository == null) {
+            return;
+        }
+        pollLock.lock();
+        try {
+            if (unpublished.getAndSet(0) > 0) {
+                repository.increment();
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link TaskService} for every mutation. {@code task} is the state of the
+ * task at the moment of the change. Archived tasks are deleted without reading the
+ * row, so for {@code DELETED} only the id and whether the task was completed are
+ * guaranteed.
+ * Listeners that mirror database state should use {@code @TransactionalEventListener}
+ * so they only ever observe committed changes.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangedEvent {
+    
+    public enum Type { CREATED, COMPLETED, DELETED }
+    
+    private final Type type;
+    private final TaskDTO task;
+}
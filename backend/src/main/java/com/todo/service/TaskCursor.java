@@ -0,0 +1,50 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last task in a keyset page: its {@code (createdAt, id)} pair.
+ * Clients only ever see the encoded form, so the format can change freely.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    public static TaskCursor of(TaskDTO task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+    
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static TaskCursor decode(String value) {
+        try {
+            String raw = new String(DECODER.decode(value), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            if (comma < 0) {
+                throw new InvalidCursorException("Malformed cursor: " + value);
+            }
+            return new TaskCursor(
+                LocalDateTime.parse(raw.substring(0, comma)),
+                Long.valueOf(raw.substring(comma + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Malformed cursor: " + value);
+        }
+    }
+}
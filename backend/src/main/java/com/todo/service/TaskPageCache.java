@@ -0,0 +1,140 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.todo.dto.TaskDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for pages of incomplete tasks, keyed by page number. Every entry
+ * remembers the write generation it was loaded under and is ignored once a task change
+ * has committed since, so a load that raced with a write can never be served. Requests
+ * that miss the same page together share one load.
+ */
+@Component
+public class TaskPageCache implements MeterBinder {
+    
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<Integer, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    
+    public TaskPageCache(ObjectMapper objectMapper,
+                         @Value("${todo.cache.pages.max-size:64}") long maxSize,
+                         @Value("${todo.cache.pages.ttl:PT30S}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+    
+    /**
+     * Returns the cached page, or runs {@code loader} and caches its result; callers
+     * missing the page meanwhile wait for that load instead of running their own. The
+     * page content is serialized once at load time so hits can be written out as raw
+     * bytes.
+     */
+    public Entry get(int page, Supplier<Page<TaskDTO>> loader) {
+        long current = generation.get();
+        CompletableFuture<Entry> future = lookup(page, loader);
+        Entry entry = join(future);
+        if (entry.getGeneration() < current) {
+            // Loaded before a write that has committed since
+            cache.asMap().remove(page, future);
+            entry = join(lookup(page, loader));
+        }
+        return entry;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        generation.incrementAndGet();
+        cache.synchronous().invalidateAll();
+    }
+    
+    @EventListener
+    public void onExternalTaskChanges(ExternalTaskChangesEvent event) {
+        generation.incrementAndGet();
+        cache.synchronous().invalidateAll();
+    }
+    
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "taskPages");
+    }
+    
+    /**
+     * The page's entry, loaded on the calling thread if no other caller is loading it.
+     * Not loaded inside the cache's mapping function: its map holds a monitor there,
+     * which would pin a virtual thread for the whole query.
+     */
+    private CompletableFuture<Entry> lookup(int page, Supplier<Page<TaskDTO>> loader) {
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        CompletableFuture<Entry> future = cache.get(page, (key, executor) -> loading);
+        if (future == loading) {
+            try {
+                long loadGeneration = generation.get();
+                Page<TaskDTO> loaded = loader.get();
+                loading.complete(new Entry(loadGeneration, loaded, serialize(loaded)));
+            } catch (RuntimeException | Error ex) {
+                // A failed load is dropped from the cache, so the next miss retries it
+                loading.completeExceptionally(ex);
+            }
+        }
+        return future;
+    }
+    
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+    
+    private byte[] serialize(Page<TaskDTO> page) {
+        try {
+            return objectMapper.writeValueAsBytes(page.getContent());
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long generation;
+        private final Page<TaskDTO> page;
+        private final byte[] contentJson;
+    }
+}
@@ -0,0 +1,563 @@
+package com.todo.service;
+
+import com.todo.datasource.RoutingContext;
+import com.todo.dto.TaskDTO;
+import com.todo.repository.ArchivedTaskStore;
+import com.todo.repository.TaskStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over task titles and descriptions. Terms live in a sorted
+ * map so a query word also matches every term it is a prefix of; each term's postings
+ * are a sorted array of task ids with a field-weighted term frequency. Results are
+ * ranked by a saturated TF-IDF score in which title hits count more than description
+ * hits and exact words more than prefix expansions.
+ *
+ * <p>The index is built by streaming the table once the application is ready and is
+ * kept current from committed {@link TaskChangedEvent}s. It only returns ids; callers
+ * load the rows, which also filters out anything deleted a moment ago. Tasks created by
+ * other writers are not in those events; after an {@link ExternalTaskChangesEvent} the
+ * tasks created since shortly before the previous scan are read again, at most once
+ * every {@code todo.search.catch-up-interval}. The {@value #CATCH_UP_SLACK_SECONDS}
+ * seconds of overlap cover clocks that differ between instances and tasks committed a
+ * while after they were stamped; a task committed later than that is only found by
+ * the next full build. Tasks deleted elsewhere keep their entries, which callers filter
+ * out like any other deleted task.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex {
+    
+    static final float TITLE_WEIGHT = 3.0f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+    static final float PREFIX_PENALTY = 0.7f;
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_TERMS = 128;
+    static final long CATCH_UP_SLACK_SECONDS = 60;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final float SATURATION = 1.2f;
+    
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private final TaskStore taskRepository;
+    private final ArchivedTaskStore archivedTaskRepository;
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, String[]> documentTerms = new ConcurrentHashMap<>();
+    private final Set<Long> deletedWhileBuilding = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean changedElsewhere = new AtomicBoolean();
+    private volatile boolean building;
+    // When the last scan started, by this instance's clock; null until the first one
+    private volatile LocalDateTime lastScan;
+    
+    public TaskSearchIndex(TaskStore taskRepository, ArchivedTaskStore archivedTaskRepository) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+    }
+    
+    /**
+     * Streams every task, live and archived, into the index. Changes that commit
+     * meanwhile are applied as usual; deletes are remembered so the scan cannot
+     * resurrect a deleted task.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        scan(null);
+    }
+    
+    @EventListener
+    public void onExternalTaskChanges(ExternalTaskChangesEvent event) {
+        changedElsewhere.set(true);
+    }
+    
+    /**
+     * Adds the tasks created elsewhere since the last scan, reading only the recent end
+     * of the live table: a task is created live and only archived long after. Reads the
+     * primary, since a replica may not have them yet.
+     */
+    @Scheduled(fixedDelayString = "${todo.search.catch-up-interval:PT1M}",
+               initialDelayString = "${todo.search.catch-up-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public void catchUp() {
+        if (changedElsewhere.getAndSet(false)) {
+            LocalDateTime since = lastScan;
+            RoutingContext.onPrimary(() -> {
+                scan(since == null ? null : since.minusSeconds(CATCH_UP_SLACK_SECONDS));
+                return null;
+            });
+        }
+    }
+    
+    /**
+     * Indexes the tasks created at or after {@code since}, or every task, live and
+     * archived, when it is null.
+     */
+    private void scan(LocalDateTime since) {
+        long start = System.nanoTime();
+        LocalDateTime started = LocalDateTime.now();
+        building = true;
+        try (Stream<TaskDTO> live = since == null
+                     ? taskRepository.streamAllByOrderByCreatedAtDesc()
+                     : taskRepository.streamCreatedSince(since);
+             Stream<TaskDTO> archived = since == null
+                     ? archivedTaskRepository.streamAllByOrderByCreatedAtDesc()
+                     : Stream.<TaskDTO>empty()) {
+            Stream.concat(live, archived).forEach(task -> {
+                if (!deletedWhileBuilding.contains(task.getId()) && !documentTerms.containsKey(task.getId())) {
+                    index(task);
+                }
+            });
+            lastScan = started;
+        } finally {
+            building = false;
+            deletedWhileBuilding.clear();
+        }
+        log.info("Indexed {} tasks ({} terms) for search in {} ms",
+                documentTerms.size(), terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                index(event.getTask());
+                break;
+            case DELETED:
+                if (building) {
+                    deletedWhileBuilding.add(event.getTask().getId());
+                }
+                remove(event.getTask().getId());
+                break;
+            default:
+                // Completing a task does not change its text
+                break;
+        }
+    }
+    
+    /**
+     * Adds or replaces the entry for {@code task}.
+     */
+    public void index(TaskDTO task) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(task.getTitle())) {
+            weights.merge(term, TITLE_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(task.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        
+        remove(task.getId());
+        long id = task.getId();
+        weights.forEach((term, weight) -> {
+            Postings postings = terms.computeIfAbsent(term, t -> new Postings());
+            while (!postings.add(id, weight)) {
+                // Emptied and retired by a concurrent remove: finish dropping it, then use a fresh one
+                terms.remove(term, postings);
+                postings = terms.computeIfAbsent(term, t -> new Postings());
+            }
+        });
+        documentTerms.put(id, weights.keySet().toArray(new String[0]));
+    }
+    
+    /**
+     * Drops the entry for task {@code id}. A term whose postings become empty is removed
+     * from the map only after the postings were retired under their write lock, and only
+     * if the map still holds those same postings, so a concurrent add is never lost.
+     */
+    public void remove(long id) {
+        String[] previous = documentTerms.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.removeAndRetireIfEmpty(id)) {
+                terms.remove(term, postings);
+            }
+        }
+    }
+    
+    public int size() {
+        return documentTerms.size();
+    }
+    
+    /**
+     * Ids of the best matches for {@code query}, most relevant first. Every query word
+     * must match, either exactly or, from {@value #MIN_PREFIX_LENGTH} characters on, as
+     * the prefix of an indexed term. Equal scores favour newer tasks.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> words = tokenize(query).stream().distinct().collect(Collectors.toList());
+        if (words.isEmpty() || limit <= 0 || documentTerms.isEmpty()) {
+            return List.of();
+        }
+        
+        int documentCount = documentTerms.size();
+        List<List<Match>> matchesPerWord = new ArrayList<>(words.size());
+        for (String word : words) {
+            List<Match> matches = expand(word, documentCount);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            matchesPerWord.add(matches);
+        }
+        // Drive the intersection from the most selective word
+        matchesPerWord.sort(Comparator.comparingLong(TaskSearchIndex::postingCount));
+        
+        List<Match> driving = matchesPerWord.get(0);
+        List<List<Match>> rest = matchesPerWord.subList(1, matchesPerWord.size());
+        TopHits best = new TopHits(limit);
+        List<Lock> locks = readLockAll(matchesPerWord);
+        try {
+            // Candidates go newest first: ties then rarely displace a hit, and the other
+            // words' postings are probed in one downward sweep rather than a search each
+            if (driving.size() == 1) {
+                // One term: each id occurs once, so score straight off the postings
+                Match match = driving.get(0);
+                Postings postings = match.postings;
+                for (int i = postings.size - 1; i >= 0; i--) {
+                    best.offer(postings.ids[i], match.score(postings.weights[i]), rest);
+                }
+            } else {
+                offerUnion(driving, rest, best);
+            }
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+        return best.ranked();
+    }
+    
+    /**
+     * Lower-cased, accent-folded words of {@code text}, split on anything that is not a
+     * letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+    
+    private List<Match> expand(String word, int documentCount) {
+        List<Match> matches = new ArrayList<>();
+        if (word.length() < MIN_PREFIX_LENGTH) {
+            Postings exact = terms.get(word);
+            if (exact != null) {
+                matches.add(new Match(word, exact, idf(exact, documentCount)));
+            }
+            return matches;
+        }
+        ConcurrentNavigableMap<String, Postings> prefixed = terms.subMap(word, true, word + Character.MAX_VALUE, true);
+        for (Map.Entry<String, Postings> entry : prefixed.entrySet()) {
+            float boost = entry.getKey().equals(word) ? 1.0f : PREFIX_PENALTY;
+            matches.add(new Match(entry.getKey(), entry.getValue(), idf(entry.getValue(), documentCount) * boost));
+            if (matches.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Read-locks every postings list the query touches for the rest of the query. Locks
+     * are taken in term order, so two queries can never each hold one the other waits on
+     * while a writer is queued behind them.
+     */
+    private static List<Lock> readLockAll(List<List<Match>> matchesPerWord) {
+        Map<String, Postings> byTerm = new TreeMap<>();
+        for (List<Match> matches : matchesPerWord) {
+            for (Match match : matches) {
+                byTerm.put(match.term, match.postings);
+            }
+        }
+        List<Lock> locks = new ArrayList<>(byTerm.size());
+        for (Postings postings : byTerm.values()) {
+            Lock lock = postings.lock.readLock();
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+    
+    /**
+     * Offers every id in any of the word's {@code matches}, newest first, scored by its
+     * best matching term: a k-way merge over the postings, which are already sorted.
+     */
+    private static void offerUnion(List<Match> matches, List<List<Match>> rest, TopHits best) {
+        PriorityQueue<Match> heads = new PriorityQueue<>(matches.size(), Comparator.comparingLong(Match::head).reversed());
+        for (Match match : matches) {
+            match.position = match.postings.size - 1;
+            if (match.position >= 0) {
+                heads.add(match);
+            }
+        }
+        boolean pending = false;
+        long candidate = 0;
+        float candidateScore = 0;
+        while (!heads.isEmpty()) {
+            Match match = heads.poll();
+            long id = match.head();
+            float score = match.score(match.postings.weights[match.position]);
+            if (pending && id == candidate) {
+                candidateScore = Math.max(candidateScore, score);
+            } else {
+                if (pending) {
+                    best.offer(candidate, candidateScore, rest);
+                }
+                pending = true;
+                candidate = id;
+                candidateScore = score;
+            }
+            if (--match.position >= 0) {
+                heads.add(match);
+            }
+        }
+        if (pending) {
+            best.offer(candidate, candidateScore, rest);
+        }
+    }
+    
+    private static float bestScore(List<Match> matches, long id) {
+        float best = 0;
+        for (Match match : matches) {
+            float weight = match.weightOf(id);
+            if (weight > 0) {
+                best = Math.max(best, match.score(weight));
+            }
+        }
+        return best;
+    }
+    
+    private static float idf(Postings postings, int documentCount) {
+        int frequency = postings.size();
+        return (float) Math.log(1 + (documentCount - frequency + 0.5) / (frequency + 0.5));
+    }
+    
+    private static long postingCount(Collection<Match> matches) {
+        long count = 0;
+        for (Match match : matches) {
+            count += match.postings.size();
+        }
+        return count;
+    }
+    
+    /**
+     * One indexed term a query word matched, with a cursor into its postings. Only used
+     * while the query holds the postings' read lock.
+     */
+    private static final class Match {
+        private final String term;
+        private final Postings postings;
+        private final float idf;
+        private int position = Integer.MAX_VALUE;
+        
+        Match(String term, Postings postings, float idf) {
+            this.term = term;
+            this.postings = postings;
+            this.idf = idf;
+        }
+        
+        float score(float weight) {
+            return idf * weight / (weight + SATURATION);
+        }
+        
+        long head() {
+            return postings.ids[position];
+        }
+        
+        /**
+         * Weight of {@code id}, or 0 when absent, for ids probed in descending order:
+         * gallops down from where the previous id was found, so probing a whole sweep of
+         * candidates costs about one pass over the postings.
+         */
+        float weightOf(long id) {
+            long[] ids = postings.ids;
+            int high = Math.min(position, postings.size - 1);
+            if (high < 0 || ids[high] < id) {
+                return 0;
+            }
+            int step = 1;
+            int low = high - step;
+            while (low >= 0 && ids[low] > id) {
+                high = low;
+                step <<= 1;
+                low = high - step;
+            }
+            int at = Arrays.binarySearch(ids, Math.max(low, 0), high + 1, id);
+            position = at >= 0 ? at : -at - 1;
+            return at >= 0 ? postings.weights[at] : 0;
+        }
+    }
+    
+    /**
+     * The {@code limit} best hits seen so far, in a min-heap on score (ties: older id
+     * first) so the weakest hit is the one to evict. Only candidates that also match
+     * every remaining word are offered.
+     */
+    private static final class TopHits {
+        private final int limit;
+        private final PriorityQueue<Hit> heap;
+        
+        TopHits(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1);
+        }
+        
+        void offer(long id, float score, List<List<Match>> rest) {
+            for (List<Match> word : rest) {
+                float wordScore = bestScore(word, id);
+                if (wordScore == 0) {
+                    return;
+                }
+                score += wordScore;
+            }
+            if (heap.size() < limit) {
+                heap.add(new Hit(id, score));
+            } else if (Hit.compare(id, score, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(new Hit(id, score));
+            }
+        }
+        
+        List<Long> ranked() {
+            List<Long> ids = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                ids.add(heap.poll().id);
+            }
+            Collections.reverse(ids);
+            return ids;
+        }
+    }
+    
+    private static final class Hit implements Comparable<Hit> {
+        private final long id;
+        private final float score;
+        
+        Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+        
+        static int compare(long id, float score, Hit other) {
+            int byScore = Float.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(id, other.id);
+        }
+        
+        @Override
+        public int compareTo(Hit other) {
+            return compare(id, score, other);
+        }
+    }
+    
+    /**
+     * Task ids that contain one term, kept sorted in parallel primitive arrays. New tasks
+     * get increasing ids, so adds are almost always appends. Queries read the arrays
+     * directly under the read lock. Once emptied by a remove the postings are retired:
+     * they are about to leave the map, and refuse further adds.
+     */
+    static final class Postings {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] ids = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+        private boolean retired;
+        
+        /**
+         * Returns false, adding nothing, when the postings are retired.
+         */
+        boolean add(long id, float weight) {
+            lock.writeLock().lock();
+            try {
+                if (retired) {
+                    return false;
+                }
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    weights[at] = weight;
+                    return true;
+                }
+                at = -at - 1;
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    weights = Arrays.copyOf(weights, size * 2);
+                }
+                System.arraycopy(ids, at, ids, at + 1, size - at);
+                System.arraycopy(weights, at, weights, at + 1, size - at);
+                ids[at] = id;
+                weights[at] = weight;
+                size++;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        /**
+         * Removes {@code id} and returns whether that left the postings empty, in which
+         * case they are now retired.
+         */
+        boolean removeAndRetireIfEmpty(long id) {
+            lock.writeLock().lock();
+            try {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                    System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+                    size--;
+                }
+                retired = size == 0;
+                return retired;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -1,25 +1,60 @@
 package com.todo.service;
 
+import com.todo.datasource.RoutingContext;
+import com.todo.dto.BatchItemResult;
 import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
 import com.todo.dto.TaskDTO;
+import com.todo.dto.TaskStats;
 import com.todo.model.Task;
-import com.todo.repository.TaskRepository;
+import com.todo.repository.ArchivedTaskStore;
+import com.todo.repository.TaskStore;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
     
-    private final TaskRepository taskRepository;
-    private static final int PAGE_SIZE = 5;
+    private final TaskStore taskRepository;
+    private final ArchivedTaskStore archivedTaskRepository;
+    private final IncompleteTaskCounter incompleteTaskCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TaskPageCache taskPageCache;
+    private final TaskChangeVersion taskChangeVersion;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskStatistics taskStatistics;
+    private final TransactionOperations transactionOperations;
+    public static final int PAGE_SIZE = 5;
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    public static final int MAX_BATCH_SIZE = TaskBatches.MAX_BATCH_SIZE;
     
     @Transactional
     public TaskDTO createTask(CreateTaskRequest request) {
@@ -29,58 +64,348 @@ public class TaskService {
         task.setCompleted(false);
         
         Task savedTask = taskRepository.save(task);
-        return convertToDTO(savedTask);
+        TaskDTO created = convertToDTO(savedTask);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, created));
+        return created;
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Creates every valid request in one transaction. The inserts share a pooled id
+     * allocation and go out as JDBC batches; invalid entries are reported, not thrown.
+     */
+    @Transactional
+    public List<BatchItemResult> createTasks(List<CreateTaskRequest> requests) {
+        TaskBatches.checkSize(requests.size());
+        
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTaskRequest request = requests.get(i);
+            String violations = TaskBatches.describeViolations(validator, request);
+            if (violations != null) {
+                results.add(new BatchItemResult(i, null, BatchItemResult.Status.INVALID, violations, null));
+                continue;
+            }
+            Task task = new Task();
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setCompleted(false);
+            tasks.add(task);
+            results.add(new BatchItemResult(i, null, BatchItemResult.Status.CREATED, null, null));
+        }
+        
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        
+        int saved = 0;
+        for (BatchItemResult result : results) {
+            if (result.getStatus() == BatchItemResult.Status.CREATED) {
+                TaskDTO created = convertToDTO(savedTasks.get(saved++));
+                result.setId(created.getId());
+                result.setTask(created);
+                eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, created));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Landing-page query, served from {@link TaskPageCache} until a task change commits.
+     */
     public List<TaskDTO> getFirstPageIncompleteTasks() {
-        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
-        Page<Task> taskPage = taskRepository.findByCompletedFalseOrderByCreatedAtDesc(pageable);
-        return taskPage.getContent()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getIncompleteTasks(0).getContent();
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * The first page as ready-to-send JSON bytes; a cache hit does no work at all.
+     */
+    public byte[] getFirstPageIncompleteTasksJson() {
+        return taskPageCache.get(0, () -> loadIncompleteTasks(0)).getContentJson();
+    }
+    
+    /**
+     * Pages are cached, and their total comes from {@link IncompleteTaskCounter}, so no
+     * {@code COUNT} query runs to fill in the page metadata.
+     */
     public Page<TaskDTO> getIncompleteTasks(int page) {
-        Pageable pageable = PageRequest.of(page, PAGE_SIZE);
-        Page<Task> taskPage = taskRepository.findByCompletedFalseOrderByCreatedAtDesc(pageable);
-        return taskPage.map(this::convertToDTO);
+        if (page < 0) {
+            throw new InvalidPageException(page);
+        }
+        return taskPageCache.get(page, () -> loadIncompleteTasks(page)).getPage();
     }
     
+    /**
+     * Keyset-paginated incomplete tasks. Each slice is a single index seek with no
+     * count query, so deep slices cost the same as the first one.
+     */
     @Transactional(readOnly = true)
-    public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .map(this::convertToDTO)
+    public CursorPage<TaskDTO> getIncompleteTasksAfter(String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        Limit fetchLimit = Limit.of(size + 1);
+        
+        List<TaskDTO> tasks;
+        if (cursor == null || cursor.isBlank()) {
+            tasks = taskRepository.findIncompleteFirst(fetchLimit);
+        } else {
+            TaskCursor after = TaskCursor.decode(cursor);
+            tasks = taskRepository.findIncompleteAfter(after.getCreatedAt(), after.getId(), fetchLimit);
+        }
+        
+        boolean hasMore = tasks.size() > size;
+        List<TaskDTO> slice = hasMore ? tasks.subList(0, size) : tasks;
+        String nextCursor = hasMore ? TaskCursor.of(slice.get(size - 1)).encode() : null;
+        return new CursorPage<>(slice, nextCursor);
+    }
+    
+    /**
+     * Full-text search over titles and descriptions, best match first. Ranking comes
+     * from {@link TaskSearchIndex}; the rows are then loaded in one primary-key lookup.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> searchTasks(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<Long> ranked = taskSearchIndex.search(query, size);
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, TaskDTO> found = new HashMap<>();
+        taskRepository.findDtosByIdIn(ranked).forEach(task -> found.put(task.getId(), task));
+        if (found.size() < ranked.size()) {
+            List<Long> missing = ranked.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+            archivedTaskRepository.findDtosByIdIn(missing).forEach(task -> found.put(task.getId(), task));
+        }
+        return ranked.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
-    @Transactional
+    /**
+     * Live and archived tasks together, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getAllTasks() {
+        List<TaskDTO> live = taskRepository.findAllNewestFirst();
+        List<TaskDTO> archived = archivedTaskRepository.findAllNewestFirst();
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<TaskDTO> all = new ArrayList<>(live.size() + archived.size());
+        mergeNewestFirst(live.iterator(), archived.iterator(), all::add);
+        return all;
+    }
+    
+    /**
+     * Hands every task, live and archived, newest first, to {@code consumer} as it is
+     * read from the database. Rows are projected into DTOs, so memory use does not grow
+     * with the size of the tables.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllTasks(Consumer<TaskDTO> consumer) {
+        try (Stream<TaskDTO> live = taskRepository.streamAllByOrderByCreatedAtDesc();
+             Stream<TaskDTO> archived = archivedTaskRepository.streamAllByOrderByCreatedAtDesc()) {
+            mergeNewestFirst(live.iterator(), archived.iterator(), consumer);
+        }
+    }
+    
+    /**
+     * Completes through the entity, which is usually a second-level cache hit: one
+     * {@code UPDATE}, or no statement at all when the task is already completed. The
+     * update checks the task's version. When another request or instance changed the
+     * task first, the call is repeated on the current row, so a task completed
+     * concurrently is simply returned and one deleted meanwhile is not found.
+     */
     public TaskDTO markTaskAsCompleted(Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+        return retryOnConflict(() -> completeTask(taskId));
+    }
+    
+    /**
+     * Deletes through the entity, found by id in the second-level cache when possible,
+     * so a live task usually takes a single {@code DELETE}. Archived tasks cost one
+     * statement on the archive table. Like completion, a delete that lost a race with
+     * another change is repeated on the current row.
+     */
+    public void deleteTask(Long taskId) {
+        retryOnConflict(() -> {
+            removeTask(taskId);
+            return null;
+        });
+    }
+    
+    private TaskDTO completeTask(Long taskId) {
+        Task task = taskRepository.findById(taskId).orElse(null);
+        if (task == null) {
+            return archivedTaskRepository.findDtoById(taskId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+        }
+        if (Boolean.TRUE.equals(task.getCompleted())) {
+            return convertToDTO(task);
+        }
         
         task.setCompleted(true);
-        Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+        task.setCompletedAt(LocalDateTime.now());
+        TaskDTO completed = convertToDTO(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.COMPLETED, completed));
+        return completed;
     }
     
-    @Transactional
-    public void deleteTask(Long taskId) {
-        if (!taskRepository.existsById(taskId)) {
+    private void removeTask(Long taskId) {
+        Task task = taskRepository.findById(taskId).orElse(null);
+        TaskDTO deleted;
+        if (task != null) {
+            taskRepository.delete(task);
+            deleted = convertToDTO(task);
+        } else if (archivedTaskRepository.deleteByIdReturningCount(taskId) > 0) {
+            deleted = new TaskDTO(taskId, null, null, true, null);
+        } else {
             throw new TaskNotFoundException("Task not found with id: " + taskId);
         }
-        taskRepository.deleteById(taskId);
+        
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, deleted));
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Completes the given tasks with one lookup and batched updates. Tasks that are
+     * already completed, archived ones included, count as completed; unknown ids are
+     * reported as not found.
+     */
+    @Transactional
+    public List<BatchItemResult> markTasksAsCompleted(List<Long> taskIds) {
+        TaskBatches.checkSize(taskIds.size());
+        Map<Long, Task> tasks = findAllById(taskIds);
+        
+        Set<Long> completedNow = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks.values()) {
+            if (!Boolean.TRUE.equals(task.getCompleted())) {
+                task.setCompleted(true);
+                task.setCompletedAt(now);
+                completedNow.add(task.getId());
+            }
+        }
+        taskRepository.flush();
+        
+        completedNow.forEach(id -> eventPublisher.publishEvent(
+                new TaskChangedEvent(TaskChangedEvent.Type.COMPLETED, convertToDTO(tasks.get(id)))));
+        Set<Long> found = new HashSet<>(tasks.keySet());
+        found.addAll(findArchivedIds(taskIds, found));
+        return TaskBatches.toResults(taskIds, found, BatchItemResult.Status.COMPLETED);
+    }
+    
+    /**
+     * Deletes the given tasks with one lookup and a single {@code DELETE ... IN} statement,
+     * plus one more of each for ids that turn out to be archived.
+     */
+    @Transactional
+    public List<BatchItemResult> deleteTasks(List<Long> taskIds) {
+        TaskBatches.checkSize(taskIds.size());
+        Map<Long, Task> tasks = findAllById(taskIds);
+        
+        if (!tasks.isEmpty()) {
+            taskRepository.deleteAllByIdInBatch(tasks.keySet());
+        }
+        List<Long> archived = findArchivedIds(taskIds, tasks.keySet());
+        if (!archived.isEmpty()) {
+            archivedTaskRepository.deleteByIdIn(archived);
+        }
+        
+        tasks.values().forEach(task -> eventPublisher.publishEvent(
+                new TaskChangedEvent(TaskChangedEvent.Type.DELETED, convertToDTO(task))));
+        archived.forEach(id -> eventPublisher.publishEvent(
+                new TaskChangedEvent(TaskChangedEvent.Type.DELETED, new TaskDTO(id, null, null, true, null))));
+        
+        Set<Long> found = new HashSet<>(tasks.keySet());
+        found.addAll(archived);
+        return TaskBatches.toResults(taskIds, found, BatchItemResult.Status.DELETED);
+    }
+    
+    /**
+     * Changes whenever a task mutation commits. Callers use it as the validator for
+     * cached list and count responses, reading it before they fetch the data.
+     */
+    public String getChangeVersion() {
+        return taskChangeVersion.current();
+    }
+    
+    /**
+     * Served from {@link IncompleteTaskCounter}; never touches the task table.
+     */
     public long getIncompleteTaskCount() {
-        return taskRepository.findByCompletedFalseOrderByCreatedAtDesc().size();
+        return incompleteTaskCounter.get();
+    }
+    
+    /**
+     * Served from {@link TaskStatistics}; never touches the task table.
+     */
+    public TaskStats getTaskStats(int days) {
+        return taskStatistics.get(days);
+    }
+    
+    /**
+     * Cache fills read the primary: a lagging replica would keep serving the page from
+     * before the change that just invalidated it.
+     */
+    private Page<TaskDTO> loadIncompleteTasks(int page) {
+        Pageable pageable = PageRequest.of(page, PAGE_SIZE);
+        List<TaskDTO> content = RoutingContext.onPrimary(() -> taskRepository.findIncompletePage(pageable));
+        return new PageImpl<>(content, pageable, incompleteTaskCounter.get());
+    }
+    
+    private Map<Long, Task> findAllById(List<Long> taskIds) {
+        return taskRepository.findAllById(new HashSet<>(taskIds))
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+    
+    /**
+     * The ids among {@code taskIds} that are not live but archived. Costs nothing when
+     * every id was found live.
+     */
+    private List<Long> findArchivedIds(List<Long> taskIds, Set<Long> live) {
+        Set<Long> missing = new HashSet<>(taskIds);
+        missing.removeAll(live);
+        return missing.isEmpty() ? List.of() : archivedTaskRepository.findIdsByIdIn(missing);
+    }
+    
+    /**
+     * Interleaves two newest-first sequences into one, so the archive reads like part of
+     * the task table without a {@code UNION} that the database would have to sort.
+     */
+    private static void mergeNewestFirst(Iterator<TaskDTO> live, Iterator<TaskDTO> archived,
+                                         Consumer<TaskDTO> consumer) {
+        TaskDTO nextLive = live.hasNext() ? live.next() : null;
+        TaskDTO nextArchived = archived.hasNext() ? archived.next() : null;
+        while (nextLive != null || nextArchived != null) {
+            if (nextArchived == null
+                    || (nextLive != null && !nextLive.getCreatedAt().isBefore(nextArchived.getCreatedAt()))) {
+                consumer.accept(nextLive);
+                nextLive = live.hasNext() ? live.next() : null;
+            } else {
+                consumer.accept(nextArchived);
+                nextArchived = archived.hasNext() ? archived.next() : null;
+            }
+        }
+    }
+    
+    /**
+     * Runs {@code write} in a transaction, and once more in a new one if it failed on a
+     * version check. The retry reads the task again; the stale copy is no longer served
+     * from the second-level cache once its update failed. Failing twice is a real
+     * conflict and is passed on.
+     */
+    private <T> T retryOnConflict(Supplier<T> write) {
+        try {
+            return transactionOperations.execute(status -> write.get());
+        } catch (OptimisticLockingFailureException ex) {
+            return transactionOperations.execute(status -> write.get());
+        }
     }
     
-    private TaskDTO convertToDTO(Task task) {
+    /**
+     * Maps a task as the write paths return it. Static, so callers need no service.
+     */
+    public static TaskDTO convertToDTO(Task task) {
         return new TaskDTO(
             task.getId(),
             task.getTitle(),
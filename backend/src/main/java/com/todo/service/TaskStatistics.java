@@ -0,0 +1,261 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import com.todo.dto.TaskStats;
+import com.todo.model.TaskStatsDay;
+import com.todo.repository.TaskStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Task throughput kept up to date from committed {@link TaskChangedEvent}s instead of
+ * queried from {@code task}. For each day it counts the tasks created and completed
+ * and keeps a {@link QuantileSketch} of how long the completed ones had been open. The
+ * counters are {@link LongAdder}s and the sketches are lock-free, so concurrent
+ * mutations never contend here, and reading them never touches the database.
+ *
+ * <p>Days that changed are written to {@code task_stats_daily} every
+ * {@code todo.stats.checkpoint-interval} and on shutdown, and added back on startup, so a
+ * crash loses at most one interval. Each run writes only what it counted itself, to rows
+ * keyed by an id of its own, and startup adds up the rows of every earlier run on every
+ * instance, so instances sharing the table never overwrite each other. What other
+ * instances count after this one started is only seen here after a restart. Counting
+ * starts when this is first deployed; history before that is not reconstructed. The
+ * embedded storage engine has no table to checkpoint to, so there the statistics only
+ * cover the current run.
+ */
+@Slf4j
+@Component
+public class TaskStatistics {
+    
+    private final IncompleteTaskCounter incompleteTaskCounter;
+    private final ObjectProvider<TaskStatsRepository> statsRepository;
+    private final int retentionDays;
+    private final Clock clock;
+    private final String instanceId = UUID.randomUUID().toString();
+    // Counted by this run, and checkpointed under instanceId
+    private final ConcurrentMap<LocalDate, Day> days = new ConcurrentHashMap<>();
+    // Checkpointed by earlier runs, here and on other instances
+    private final ConcurrentMap<LocalDate, Day> restoredDays = new ConcurrentHashMap<>();
+    private final Set<LocalDate> dirty = ConcurrentHashMap.newKeySet();
+    // Not synchronized: a monitor held across the checkpoint queries would pin a virtual thread
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private volatile boolean restored;
+    
+    @Autowired
+    public TaskStatistics(IncompleteTaskCounter incompleteTaskCounter,
+                          ObjectProvider<TaskStatsRepository> statsRepository,
+                          @Value("${todo.stats.retention-days:90}") int retentionDays) {
+        this(incompleteTaskCounter, statsRepository, retentionDays, Clock.systemDefaultZone());
+    }
+    
+    TaskStatistics(IncompleteTaskCounter incompleteTaskCounter,
+                   ObjectProvider<TaskStatsRepository> statsRepository,
+                   int retentionDays,
+                   Clock clock) {
+        this.incompleteTaskCounter = incompleteTaskCounter;
+        this.statsRepository = statsRepository;
+        this.retentionDays = retentionDays;
+        this.clock = clock;
+    }
+    
+    /**
+     * The open backlog and the last {@code window} days up to today, clamped to the
+     * retention period.
+     */
+    public TaskStats get(int window) {
+        int span = Math.max(1, Math.min(window, retentionDays));
+        LocalDate today = LocalDate.now(clock);
+        List<TaskStats.Day> perDay = new ArrayList<>(span);
+        QuantileSketch timeToComplete = new QuantileSketch();
+        for (LocalDate date = today.minusDays(span - 1); !date.isAfter(today); date = date.plusDays(1)) {
+            long created = 0;
+            long completed = 0;
+            for (Day day : new Day[] {days.get(date), restoredDays.get(date)}) {
+                if (day != null) {
+                    created += day.created.sum();
+                    completed += day.completed.sum();
+                    timeToComplete.merge(day.timeToComplete);
+                }
+            }
+            perDay.add(new TaskStats.Day(date, created, completed));
+        }
+        TaskStats.CompletionTimes completionTimes = new TaskStats.CompletionTimes(
+                timeToComplete.getCount(),
+                timeToComplete.quantile(0.5),
+                timeToComplete.quantile(0.9),
+                timeToComplete.quantile(0.99));
+        return new TaskStats(incompleteTaskCounter.get(), perDay, completionTimes);
+    }
+    
+    /**
+     * Completions are dated when they commit and measured from the task's creation.
+     * Deletions leave the history alone; the backlog comes from
+     * {@link IncompleteTaskCounter}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskDTO task = event.getTask();
+        switch (event.getType()) {
+            case CREATED: {
+                LocalDate date = task.getCreatedAt() != null ? task.getCreatedAt().toLocalDate() : LocalDate.now(clock);
+                day(date).created.increment();
+                dirty.add(date);
+                break;
+            }
+            case COMPLETED: {
+                LocalDateTime now = LocalDateTime.now(clock);
+                Day day = day(now.toLocalDate());
+                day.completed.increment();
+                if (task.getCreatedAt() != null) {
+                    day.timeToComplete.record(Duration.between(task.getCreatedAt(), now).toMillis() / 1000.0);
+                }
+                dirty.add(now.toLocalDate());
+                break;
+            }
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Adds the checkpointed days to whatever was counted since startup. Runs once; a
+     * failed attempt is retried by the next checkpoint, which will not write before it.
+     * Rows whose sketch cannot be decoded are skipped, counts included, with a warning.
+     */
+    public void restore() {
+        TaskStatsRepository repository = statsRepository.getIfAvailable();
+        checkpointLock.lock();
+        try {
+            if (restored) {
+                return;
+            }
+            if (repository != null) {
+                // Decode everything before applying anything, so a failed read cannot leave half a restore
+                List<TaskStatsDay> rows = new ArrayList<>();
+                List<QuantileSketch> sketches = new ArrayList<>();
+                for (TaskStatsDay row : repository.findByStatsDateGreaterThanEqual(cutoff())) {
+                    try {
+                        sketches.add(QuantileSketch.fromBytes(row.getCompletionSketch()));
+                        rows.add(row);
+                    } catch (IllegalArgumentException ex) {
+                        log.warn("Skipping task statistics for {}: {}", row.getStatsDate(), ex.getMessage());
+                    }
+                }
+                for (int i = 0; i < rows.size(); i++) {
+                    Day day = restoredDays.computeIfAbsent(rows.get(i).getStatsDate(), date -> new Day());
+                    day.created.add(rows.get(i).getCreatedCount());
+                    day.completed.add(rows.get(i).getCompletedCount());
+                    day.timeToComplete.merge(sketches.get(i));
+                }
+                log.info("Restored task statistics from {} checkpoint rows", rows.size());
+            }
+            restored = true;
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+    
+    /**
+     * Statistics are not worth failing startup for: until a checkpoint manages to
+     * restore them, they only cover this run and nothing is written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreOnStartup() {
+        try {
+            restore();
+        } catch (RuntimeException ex) {
+            log.warn("Could not restore task statistics; the next checkpoint retries", ex);
+        }
+    }
+    
+    /**
+     * Writes this run's counts for the days that changed since the last checkpoint, over
+     * its own earlier rows, and drops days past the retention period. A day is taken off
+     * the dirty set before it is read, so a change that lands meanwhile marks it again
+     * for the next run.
+     */
+    @Scheduled(fixedDelayString = "${todo.stats.checkpoint-interval:PT1M}",
+               initialDelayString = "${todo.stats.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            LocalDate cutoff = cutoff();
+            days.keySet().removeIf(date -> date.isBefore(cutoff));
+            restoredDays.keySet().removeIf(date -> date.isBefore(cutoff));
+            dirty.removeIf(date -> date.isBefore(cutoff));
+            
+            TaskStatsRepository repository = statsRepository.getIfAvailable();
+            if (repository == null) {
+                dirty.clear();
+                return;
+            }
+            if (!restored) {
+                restore();
+            }
+            
+            List<TaskStatsDay> rows = new ArrayList<>();
+            for (LocalDate date : List.copyOf(dirty)) {
+                dirty.remove(date);
+                Day day = days.get(date);
+                if (day != null) {
+                    rows.add(new TaskStatsDay(date, instanceId,
+                            day.created.sum(), day.completed.sum(), day.timeToComplete.toBytes()));
+                }
+            }
+            try {
+                repository.saveAll(rows);
+                repository.deleteOlderThan(cutoff);
+            } catch (RuntimeException ex) {
+                rows.forEach(row -> dirty.add(row.getStatsDate()));
+                throw ex;
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+    
+    @EventListener(ContextClosedEvent.class)
+    public void checkpointOnShutdown() {
+        try {
+            checkpoint();
+        } catch (RuntimeException ex) {
+            log.warn("Could not checkpoint task statistics on shutdown", ex);
+        }
+    }
+    
+    private Day day(LocalDate date) {
+        return days.computeIfAbsent(date, d -> new Day());
+    }
+    
+    private LocalDate cutoff() {
+        return LocalDate.now(clock).minusDays(retentionDays - 1);
+    }
+    
+    private static final class Day {
+        private final LongAdder created = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final QuantileSketch timeToComplete = new QuantileSketch();
+    }
+}
@@ -0,0 +1,352 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.WriteOperation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind mode for creates and completions. Instead of each request holding a
+ * transaction and a pooled connection for its own single-row write, the write is put on
+ * a bounded queue and acknowledged straight away; one background writer drains the
+ * queue into {@link TaskService#createTasks} and {@link TaskService#markTasksAsCompleted},
+ * one transaction per group. A group is flushed once it reaches
+ * {@code todo.write-behind.batch-size} writes or its oldest write has waited
+ * {@code todo.write-behind.max-delay}.
+ *
+ * <p>{@code todo.write-behind.durability} decides what an acknowledgement promises:
+ * {@code MEMORY} keeps accepted writes only in the queue, so they are lost if the
+ * process dies; {@code JOURNAL} appends them to {@link WriteBehindJournal} first, which
+ * survives a process crash; {@code FSYNC} also forces the journal to disk, which
+ * survives a power loss. Journaled writes are replayed on the next start. A crash
+ * between a group's commit and its journal marker replays that group, so a create can
+ * then be applied twice; completions are idempotent.
+ *
+ * <p>When the database fails the group is retried with backoff until it succeeds, and
+ * the queue fills up; once it is full new writes are refused with
+ * {@link WriteQueueFullException}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+public class TaskWriteBehind implements MeterBinder, DisposableBean {
+    
+    public enum Durability { MEMORY, JOURNAL, FSYNC }
+    
+    private static final long JOURNAL_MAX_BYTES = 64L * 1024 * 1024;
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final TaskService taskService;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final BlockingQueue<WriteBehindJournal.Entry> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final WriteBehindJournal journal;
+    private final Map<String, WriteOperation> pending = new ConcurrentHashMap<>();
+    private final Cache<String, WriteOperation> resolved;
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    // Replayed writes queued beyond the capacity, paid off before permits are released
+    private int overdraft;
+    private volatile boolean running;
+    private Thread writer;
+    
+    public TaskWriteBehind(TaskService taskService,
+                           ObjectMapper objectMapper,
+                           @Value("${todo.write-behind.capacity:10000}") int capacity,
+                           @Value("${todo.write-behind.batch-size:200}") int batchSize,
+                           @Value("${todo.write-behind.max-delay:PT0.05S}") Duration maxDelay,
+                           @Value("${todo.write-behind.durability:JOURNAL}") Durability durability,
+                           @Value("${todo.write-behind.journal:data/write-behind.journal}") Path journalPath,
+                           @Value("${todo.write-behind.status-ttl:PT10M}") Duration statusTtl) throws IOException {
+        this.taskService = taskService;
+        this.batchSize = Math.min(batchSize, TaskService.MAX_BATCH_SIZE);
+        this.maxDelay = maxDelay;
+        this.capacity = new Semaphore(capacity);
+        this.resolved = Caffeine.newBuilder().expireAfterWrite(statusTtl).build();
+        this.journal = durability == Durability.MEMORY
+                ? null
+                : new WriteBehindJournal(journalPath, durability == Durability.FSYNC, JOURNAL_MAX_BYTES, objectMapper);
+    }
+    
+    /**
+     * Queues the writes left over from the last run, then starts the writer and only
+     * then accepts new writes. Replayed writes are all queued even beyond the capacity,
+     * as they were acknowledged already; new writes are refused until the queue is back
+     * under it.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (journal != null) {
+            List<WriteBehindJournal.Entry> recovered = journal.recover();
+            if (!recovered.isEmpty()) {
+                log.info("Replaying {} writes from the write-behind journal", recovered.size());
+            }
+            for (WriteBehindJournal.Entry entry : recovered) {
+                if (!capacity.tryAcquire()) {
+                    overdraft++;
+                }
+                pending.put(entry.id(), pendingOperation(entry));
+                queue.add(entry);
+            }
+            if (overdraft > 0) {
+                log.warn("Replaying {} writes beyond the write-behind capacity; new writes are refused "
+                        + "until they are applied", overdraft);
+            }
+        }
+        running = true;
+        writer = new Thread(this::run, "task-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    public WriteOperation submitCreate(CreateTaskRequest request) {
+        return submit(new WriteBehindJournal.Entry(newId(), WriteOperation.Type.CREATE, null,
+                request.getTitle(), request.getDescription(), LocalDateTime.now(), null));
+    }
+    
+    public WriteOperation submitComplete(Long taskId) {
+        return submit(new WriteBehindJournal.Entry(newId(), WriteOperation.Type.COMPLETE, taskId,
+                null, null, LocalDateTime.now(), null));
+    }
+    
+    /**
+     * The operation's current state, or null once it is unknown: never accepted here, or
+     * resolved longer than {@code todo.write-behind.status-ttl} ago.
+     */
+    public WriteOperation find(String operationId) {
+        WriteOperation operation = pending.get(operationId);
+        return operation != null ? operation : resolved.getIfPresent(operationId);
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.writebehind.pending", pending, Map::size)
+                .description("Writes accepted but not yet applied")
+                .register(registry);
+        FunctionCounter.builder("todo.writebehind.operations", applied, AtomicLong::get)
+                .description("Write-behind operations resolved")
+                .tag("outcome", "applied")
+                .register(registry);
+        FunctionCounter.builder("todo.writebehind.operations", failed, AtomicLong::get)
+                .description("Write-behind operations resolved")
+                .tag("outcome", "failed")
+                .register(registry);
+        FunctionCounter.builder("todo.writebehind.flushes", flushes, AtomicLong::get)
+                .description("Grouped transactions run by the write-behind writer")
+                .register(registry);
+    }
+    
+    /**
+     * Stops accepting writes and lets the writer drain the queue. Whatever is still
+     * queued after {@code SHUTDOWN_TIMEOUT}, or while the database is down, stays in the
+     * journal for the next start.
+     */
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (writer != null) {
+            writer.join(SHUTDOWN_TIMEOUT.toMillis());
+            if (writer.isAlive()) {
+                log.warn("Write-behind writer did not drain {} writes in time", pending.size());
+                writer.interrupt();
+                writer.join(SHUTDOWN_TIMEOUT.toMillis());
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+    
+    private WriteOperation submit(WriteBehindJournal.Entry entry) {
+        if (!running) {
+            throw new WriteQueueFullException("The write-behind queue is not running");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new WriteQueueFullException("The write-behind queue is full, try again later");
+        }
+        try {
+            if (journal != null) {
+                journal.append(entry);
+            }
+        } catch (IOException ex) {
+            capacity.release();
+            throw new UncheckedIOException(ex);
+        }
+        WriteOperation operation = pendingOperation(entry);
+        pending.put(entry.id(), operation);
+        queue.add(entry);
+        return operation;
+    }
+    
+    private void run() {
+        List<WriteBehindJournal.Entry> group = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                WriteBehindJournal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (group.size() < batchSize) {
+                    queue.drainTo(group, batchSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    WriteBehindJournal.Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                if (!flush(group)) {
+                    log.warn("Write-behind writer stopped with {} writes left in the journal", pending.size());
+                    return;
+                }
+                group.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Applies one group, creates first. Returns false if shutdown began while the
+     * database was failing, leaving the unapplied writes in the journal.
+     */
+    private boolean flush(List<WriteBehindJournal.Entry> group) throws InterruptedException {
+        Map<WriteOperation.Type, List<WriteBehindJournal.Entry>> byType = group.stream()
+                .collect(Collectors.groupingBy(WriteBehindJournal.Entry::type));
+        List<WriteBehindJournal.Entry> creates = byType.getOrDefault(WriteOperation.Type.CREATE, List.of());
+        List<WriteBehindJournal.Entry> completes = byType.getOrDefault(WriteOperation.Type.COMPLETE, List.of());
+        
+        if (!creates.isEmpty()) {
+            List<CreateTaskRequest> requests = creates.stream()
+                    .map(entry -> new CreateTaskRequest(entry.title(), entry.description()))
+                    .collect(Collectors.toList());
+            List<BatchItemResult> results = withRetry(() -> taskService.createTasks(requests));
+            if (results == null) {
+                return false;
+            }
+            resolve(creates, results);
+        }
+        if (!completes.isEmpty()) {
+            List<Long> taskIds = completes.stream()
+                    .map(WriteBehindJournal.Entry::taskId)
+                    .collect(Collectors.toList());
+            List<BatchItemResult> results = withRetry(() -> taskService.markTasksAsCompleted(taskIds));
+            if (results == null) {
+                return false;
+            }
+            resolve(completes, results);
+        }
+        return true;
+    }
+    
+    /**
+     * Runs one grouped transaction, retrying with backoff while the database fails.
+     * Returns null if it is still failing once shutdown has begun.
+     */
+    private List<BatchItemResult> withRetry(Supplier<List<BatchItemResult>> write)
+            throws InterruptedException {
+        long delay = 100;
+        while (true) {
+            try {
+                List<BatchItemResult> results = write.get();
+                flushes.incrementAndGet();
+                return results;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    return null;
+                }
+                log.warn("Write-behind flush failed, retrying in {} ms: {}", delay, ex.getMessage());
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY.toMillis());
+            }
+        }
+    }
+    
+    private void resolve(List<WriteBehindJournal.Entry> entries, List<BatchItemResult> results) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < entries.size(); i++) {
+            WriteBehindJournal.Entry entry = entries.get(i);
+            BatchItemResult result = results.get(i);
+            WriteOperation operation = pendingOperation(entry);
+            operation.setAppliedAt(now);
+            switch (result.getStatus()) {
+                case CREATED, COMPLETED -> {
+                    operation.setStatus(WriteOperation.Status.APPLIED);
+                    operation.setTaskId(result.getId());
+                    operation.setTask(result.getTask());
+                    applied.incrementAndGet();
+                }
+                default -> {
+                    operation.setStatus(WriteOperation.Status.FAILED);
+                    operation.setMessage(result.getMessage());
+                    failed.incrementAndGet();
+                }
+            }
+            resolved.put(entry.id(), operation);
+            pending.remove(entry.id());
+        }
+        int owed = Math.min(overdraft, entries.size());
+        overdraft -= owed;
+        capacity.release(entries.size() - owed);
+        
+        if (journal != null) {
+            try {
+                journal.markDone(entries.stream().map(WriteBehindJournal.Entry::id).collect(Collectors.toList()));
+            } catch (IOException ex) {
+                // The writes are committed; at worst they are replayed after a restart
+                log.error("Could not record applied writes in the write-behind journal", ex);
+            }
+        }
+    }
+    
+    private static WriteOperation pendingOperation(WriteBehindJournal.Entry entry) {
+        return new WriteOperation(entry.id(), entry.type(), WriteOperation.Status.PENDING,
+                entry.taskId(), null, null, entry.acceptedAt(), null);
+    }
+    
+    private static String newId() {
+        return UUID.randomUUID().toString();
+    }
+}
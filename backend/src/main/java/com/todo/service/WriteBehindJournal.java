@@ -0,0 +1,209 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.WriteOperation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only file of the writes {@link TaskWriteBehind} has accepted but not yet
+ * resolved, one JSON object per line. Each accepted write is appended before it is
+ * acknowledged, and a {@code done} marker follows once it has been applied or has
+ * failed. On startup the writes without a marker are handed back for replay.
+ *
+ * <p>The file is truncated whenever nothing is pending, and rewritten with only the
+ * pending entries once it grows past {@code maxBytes}, so it stays about as large as
+ * the queue.
+ */
+@Slf4j
+class WriteBehindJournal implements Closeable {
+    
+    /**
+     * One line of the journal: an accepted write, or a {@code done} marker carrying
+     * only the id.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(String id,
+                 WriteOperation.Type type,
+                 Long taskId,
+                 String title,
+                 String description,
+                 LocalDateTime acceptedAt,
+                 Boolean done) {
+        
+        static Entry done(String id) {
+            return new Entry(id, null, null, null, null, null, true);
+        }
+    }
+    
+    private final Path path;
+    private final boolean fsync;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> pending = new LinkedHashMap<>();
+    private volatile FileChannel channel;
+    
+    /**
+     * Opens the journal at {@code path}, creating it if needed. With {@code fsync} every
+     * append is forced to the storage device before it returns, so accepted writes
+     * survive a power loss and not just a process crash.
+     */
+    WriteBehindJournal(Path path, boolean fsync, long maxBytes, ObjectMapper objectMapper) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = open(path);
+    }
+    
+    /**
+     * The writes accepted in an earlier run that were never resolved, in the order they
+     * were accepted. Leaves only those in the file.
+     */
+    synchronized List<Entry> recover() throws IOException {
+        Map<String, Entry> unresolved = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (JsonProcessingException ex) {
+                    // Only the last line can be torn, by a crash in the middle of an append
+                    log.warn("Skipping unreadable write-behind journal line: {}", ex.getOriginalMessage());
+                    continue;
+                }
+                if (Boolean.TRUE.equals(entry.done())) {
+                    unresolved.remove(entry.id());
+                } else {
+                    unresolved.put(entry.id(), entry);
+                }
+            }
+        }
+        pending.putAll(unresolved);
+        rewrite();
+        return new ArrayList<>(unresolved.values());
+    }
+    
+    void append(Entry entry) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(toLine(entry));
+        FileChannel written;
+        synchronized (this) {
+            write(line);
+            pending.put(entry.id(), entry);
+            written = channel;
+        }
+        // Outside the lock, so concurrent appenders share one device flush
+        force(written);
+    }
+    
+    /**
+     * Records that the given writes no longer need replaying.
+     */
+    void markDone(Collection<String> ids) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (String id : ids) {
+            lines.write(toLine(Entry.done(id)));
+        }
+        FileChannel written;
+        synchronized (this) {
+            ids.forEach(pending::remove);
+            if (pending.isEmpty()) {
+                channel.truncate(0);
+                channel.position(0);
+            } else {
+                write(ByteBuffer.wrap(lines.toByteArray()));
+                if (channel.size() > maxBytes) {
+                    rewrite();
+                }
+            }
+            written = channel;
+        }
+        force(written);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Replaces the file with one holding only the pending entries.
+     */
+    private void rewrite() throws IOException {
+        Path rewritten = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(rewritten, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : pending.values()) {
+                ByteBuffer line = ByteBuffer.wrap(toLine(entry));
+                while (line.hasRemaining()) {
+                    out.write(line);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(rewritten, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(path);
+    }
+    
+    private void force(FileChannel written) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        try {
+            written.force(false);
+        } catch (ClosedChannelException ex) {
+            if (written == channel) {
+                throw ex;
+            }
+            // A rewrite replaced the file in between, and forced the new one to disk
+        }
+    }
+    
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    private byte[] toLine(Entry entry) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+    
+    private static FileChannel open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+}
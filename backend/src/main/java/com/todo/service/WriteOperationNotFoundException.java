@@ -0,0 +1,8 @@
+package com.todo.service;
+
+
+public class WriteOperationNotFoundException extends RuntimeException {
+    public WriteOperationNotFoundException(String message) {
+        super(message);
+    }
+}
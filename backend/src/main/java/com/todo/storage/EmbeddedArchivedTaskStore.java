@@ -0,0 +1,56 @@
+package com.todo.storage;
+
+import com.todo.dto.TaskDTO;
+import com.todo.repository.ArchivedTaskStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The archive of the embedded store, which is always empty: with every task in memory
+ * there is no hot table to keep small, so completed tasks stay in
+ * {@link EmbeddedTaskStore}.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "embedded")
+public class EmbeddedArchivedTaskStore implements ArchivedTaskStore {
+    
+    @Override
+    public List<TaskDTO> findAllNewestFirst() {
+        return List.of();
+    }
+    
+    @Override
+    public Stream<TaskDTO> streamAllByOrderByCreatedAtDesc() {
+        return Stream.empty();
+    }
+    
+    @Override
+    public Optional<TaskDTO> findDtoById(Long id) {
+        return Optional.empty();
+    }
+    
+    @Override
+    public List<TaskDTO> findDtosByIdIn(Collection<Long> ids) {
+        return List.of();
+    }
+    
+    @Override
+    public List<Long> findIdsByIdIn(Collection<Long> ids) {
+        return List.of();
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        return 0;
+    }
+    
+    @Override
+    public int deleteByIdIn(Collection<Long> ids) {
+        return 0;
+    }
+}
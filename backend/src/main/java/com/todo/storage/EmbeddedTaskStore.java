@@ -0,0 +1,497 @@
+package com.todo.storage;
+
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+import com.todo.repository.TaskStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Tasks held in memory and persisted to a {@link TaskLog} in
+ * {@code todo.storage.embedded.directory}, for running without MySQL. Records are kept
+ * by id in a {@link LongObjectMap} and in an index ordered like
+ * {@code idx_completed_created}, from which every page is read. Each write is appended
+ * to the log before it is applied; once the log reaches
+ * {@code todo.storage.embedded.compact-threshold}, and every
+ * {@code todo.storage.embedded.snapshot-interval}, the whole store is written to a
+ * {@link TaskSnapshot} and the log is emptied. Startup loads the snapshot and replays
+ * the log on top of it.
+ *
+ * <p>It behaves like the JPA repository where {@link com.todo.service.TaskService}
+ * relies on it: tasks found inside a transaction are tracked and their changes written
+ * on {@link #flush()} or before commit, and versions are checked, so a stale write
+ * fails with an {@link OptimisticLockingFailureException}. What it cannot do is roll
+ * back: writes are durable as soon as they are made, and a rolled-back transaction
+ * only discards the changes it had not flushed yet.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "embedded")
+public class EmbeddedTaskStore implements TaskStore, MeterBinder {
+    
+    private static final String LOG_FILE = "tasks.log";
+    private static final String SNAPSHOT_FILE = "tasks.snapshot";
+    
+    private final Path snapshotFile;
+    private final long compactThreshold;
+    private final TaskLog taskLog;
+    private final LongObjectMap<TaskRecord> tasks = new LongObjectMap<>(1024);
+    private final NavigableSet<TaskRecord> index = new TreeSet<>(TaskRecord.INDEX_ORDER);
+    // Not synchronized: a monitor held across log writes would pin a virtual thread
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextId;
+    private int incomplete;
+    
+    public EmbeddedTaskStore(@Value("${todo.storage.embedded.directory:data/embedded}") Path directory,
+                             @Value("${todo.storage.embedded.fsync:false}") boolean fsync,
+                             @Value("${todo.storage.embedded.log-initial-size:8MB}") DataSize logInitialSize,
+                             @Value("${todo.storage.embedded.compact-threshold:64MB}") DataSize compactThreshold)
+            throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.compactThreshold = compactThreshold.toBytes();
+        this.nextId = TaskSnapshot.read(snapshotFile, this::apply);
+        this.taskLog = new TaskLog(directory.resolve(LOG_FILE), (int) logInitialSize.toBytes(), fsync);
+        int replayed = taskLog.replay(this::apply, this::applyDelete);
+        log.info("Loaded {} tasks from {} ({} log entries replayed)", tasks.size(), directory, replayed);
+    }
+    
+    @Override
+    public <S extends Task> S save(S task) {
+        lock.writeLock().lock();
+        try {
+            store(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        track(task);
+        return task;
+    }
+    
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        List<S> saved = new ArrayList<>();
+        for (S task : tasks) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+    
+    @Override
+    public void flush() {
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork != null) {
+            write(unitOfWork.tasks.values());
+        }
+    }
+    
+    @Override
+    public Optional<Task> findById(Long id) {
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork != null && unitOfWork.tasks.containsKey(id)) {
+            return Optional.of(unitOfWork.tasks.get(id));
+        }
+        TaskRecord record = read(id);
+        if (record == null) {
+            return Optional.empty();
+        }
+        Task task = record.toTask();
+        track(task);
+        return Optional.of(task);
+    }
+    
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        List<Task> found = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+    
+    @Override
+    public void delete(Task task) {
+        lock.writeLock().lock();
+        try {
+            TaskRecord current = tasks.get(task.getId());
+            if (current == null) {
+                return;
+            }
+            if (task.getVersion() != null && task.getVersion() != current.version()) {
+                throw conflict(task.getId());
+            }
+            remove(task.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        untrack(task.getId());
+    }
+    
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                if (tasks.get(id) != null) {
+                    remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ids.forEach(this::untrack);
+    }
+    
+    @Override
+    public long countByCompletedFalse() {
+        lock.readLock().lock();
+        try {
+            return incomplete;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<TaskDTO> findIncompletePage(Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Iterator<TaskRecord> open = index.headSet(TaskRecord.FIRST_COMPLETED, false).iterator();
+            for (long skipped = 0; skipped < pageable.getOffset() && open.hasNext(); skipped++) {
+                open.next();
+            }
+            return take(open, pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<TaskDTO> findAllNewestFirst() {
+        lock.readLock().lock();
+        try {
+            return newestFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<TaskDTO> findDtosByIdIn(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<TaskDTO> found = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                TaskRecord record = tasks.get(id);
+                if (record != null) {
+                    found.add(record.toDto());
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * A copy taken under the lock: there is no cursor to keep open in memory.
+     */
+    @Override
+    public Stream<TaskDTO> streamAllByOrderByCreatedAtDesc() {
+        return findAllNewestFirst().stream();
+    }
+    
+    @Override
+    public Stream<TaskDTO> streamCreatedSince(LocalDateTime createdAt) {
+        return findAllNewestFirst().stream()
+                .takeWhile(task -> !task.getCreatedAt().isBefore(createdAt));
+    }
+    
+    @Override
+    public List<TaskDTO> findIncompleteFirst(Limit limit) {
+        lock.readLock().lock();
+        try {
+            return take(index.headSet(TaskRecord.FIRST_COMPLETED, false).iterator(), max(limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<TaskDTO> findIncompleteAfter(LocalDateTime createdAt, Long id, Limit limit) {
+        TaskRecord after = TaskRecord.key(false, TaskRecord.toNanos(createdAt), id);
+        lock.readLock().lock();
+        try {
+            return take(index.subSet(after, false, TaskRecord.FIRST_COMPLETED, false).iterator(), max(limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Writes a snapshot and empties the log, unless the log is already empty.
+     */
+    @Scheduled(fixedDelayString = "${todo.storage.embedded.snapshot-interval:PT10M}",
+            initialDelayString = "${todo.storage.embedded.snapshot-interval:PT10M}")
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            if (taskLog.size() == 0) {
+                return;
+            }
+            TaskSnapshot.write(snapshotFile, nextId, tasks);
+            taskLog.reset();
+        } catch (IOException ex) {
+            log.warn("Could not write a task snapshot; the log keeps growing until one succeeds", ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        compact();
+        lock.writeLock().lock();
+        try {
+            taskLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.storage.tasks", this, store -> store.tasks.size())
+                .description("Tasks held by the embedded store")
+                .register(registry);
+        Gauge.builder("todo.storage.log.size", this, store -> store.taskLog.size())
+                .description("Bytes written to the embedded store's log since the last snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+    
+    /**
+     * Inserts a task without an id, or a task whose id is not stored, and otherwise
+     * writes its changes. Call with the write lock held.
+     */
+    private void store(Task task) {
+        if (task.getTitle() == null || task.getDescription() == null) {
+            throw new DataIntegrityViolationException("A task needs a title and a description");
+        }
+        TaskRecord current = task.getId() == null ? null : tasks.get(task.getId());
+        if (current == null) {
+            if (task.getId() == null) {
+                task.setId(nextId);
+            }
+            if (task.getCreatedAt() == null) {
+                task.setCreatedAt(LocalDateTime.now());
+            }
+            if (task.getCompleted() == null) {
+                task.setCompleted(false);
+            }
+            task.setVersion(task.getVersion() == null ? 0L : task.getVersion());
+            append(TaskRecord.of(task, task.getVersion()));
+        } else if (current.differsFrom(task)) {
+            if (task.getVersion() != null && task.getVersion() != current.version()) {
+                throw conflict(task.getId());
+            }
+            TaskRecord changed = current.withChanges(task);
+            append(changed);
+            task.setVersion(changed.version());
+        }
+    }
+    
+    /**
+     * Writes the changes of every task that has any, or none if one of them is stale.
+     */
+    private void write(Collection<Task> tracked) {
+        lock.writeLock().lock();
+        try {
+            List<Task> changed = new ArrayList<>();
+            for (Task task : tracked) {
+                TaskRecord current = tasks.get(task.getId());
+                if (current == null || current.differsFrom(task) && task.getVersion() != current.version()) {
+                    throw conflict(task.getId());
+                }
+                if (current.differsFrom(task)) {
+                    changed.add(task);
+                }
+            }
+            for (Task task : changed) {
+                TaskRecord record = tasks.get(task.getId()).withChanges(task);
+                append(record);
+                task.setVersion(record.version());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private TaskRecord read(long id) {
+        lock.readLock().lock();
+        try {
+            return tasks.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void append(TaskRecord record) {
+        taskLog.appendPut(record);
+        apply(record);
+        compactIfFull();
+    }
+    
+    private void remove(long id) {
+        taskLog.appendDelete(id);
+        applyDelete(id);
+        compactIfFull();
+    }
+    
+    private void compactIfFull() {
+        if (taskLog.size() >= compactThreshold) {
+            compact();
+        }
+    }
+    
+    private void apply(TaskRecord record) {
+        TaskRecord previous = tasks.put(record.id(), record);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index.add(record);
+        if (!record.completed()) {
+            incomplete++;
+        }
+        nextId = Math.max(nextId, record.id() + 1);
+    }
+    
+    private void applyDelete(long id) {
+        TaskRecord removed = tasks.remove(id);
+        if (removed != null) {
+            unindex(removed);
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+    
+    private void unindex(TaskRecord record) {
+        index.remove(record);
+        if (!record.completed()) {
+            incomplete--;
+        }
+    }
+    
+    /**
+     * Open and completed tasks are each in creation order already; merges the two.
+     */
+    private List<TaskDTO> newestFirst() {
+        List<TaskDTO> all = new ArrayList<>(tasks.size());
+        Iterator<TaskRecord> open = index.headSet(TaskRecord.FIRST_COMPLETED, false).iterator();
+        Iterator<TaskRecord> completed = index.tailSet(TaskRecord.FIRST_COMPLETED, false).iterator();
+        TaskRecord nextOpen = open.hasNext() ? open.next() : null;
+        TaskRecord nextCompleted = completed.hasNext() ? completed.next() : null;
+        while (nextOpen != null || nextCompleted != null) {
+            if (nextCompleted == null || nextOpen != null && nextOpen.createdAt() >= nextCompleted.createdAt()) {
+                all.add(nextOpen.toDto());
+                nextOpen = open.hasNext() ? open.next() : null;
+            } else {
+                all.add(nextCompleted.toDto());
+                nextCompleted = completed.hasNext() ? completed.next() : null;
+            }
+        }
+        return all;
+    }
+    
+    private static List<TaskDTO> take(Iterator<TaskRecord> records, int max) {
+        List<TaskDTO> page = new ArrayList<>(Math.min(max, 256));
+        while (page.size() < max && records.hasNext()) {
+            page.add(records.next().toDto());
+        }
+        return page;
+    }
+    
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+    
+    private static OptimisticLockingFailureException conflict(Long id) {
+        return new OptimisticLockingFailureException("Task " + id + " was changed by another transaction");
+    }
+    
+    private void track(Task task) {
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork != null) {
+            unitOfWork.tasks.put(task.getId(), task);
+        }
+    }
+    
+    private void untrack(Long id) {
+        UnitOfWork unitOfWork = currentUnitOfWork();
+        if (unitOfWork != null) {
+            unitOfWork.tasks.remove(id);
+        }
+    }
+    
+    /**
+     * The tasks tracked by the current transaction, or null outside one.
+     */
+    private UnitOfWork currentUnitOfWork() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        UnitOfWork unitOfWork = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+        if (unitOfWork == null) {
+            unitOfWork = new UnitOfWork();
+            TransactionSynchronizationManager.bindResource(this, unitOfWork);
+            TransactionSynchronizationManager.registerSynchronization(unitOfWork);
+        }
+        return unitOfWork;
+    }
+    
+    private final class UnitOfWork implements TransactionSynchronization {
+        
+        private final Map<Long, Task> tasks = new LinkedHashMap<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!readOnly) {
+                write(tasks.values());
+            }
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EmbeddedTaskStore.this);
+        }
+    }
+}
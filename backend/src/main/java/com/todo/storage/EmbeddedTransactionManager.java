@@ -0,0 +1,50 @@
+package com.todo.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for the embedded store. There is no resource to begin or commit;
+ * it gives {@code @Transactional} methods their synchronization, which
+ * {@link EmbeddedTaskStore} uses to track and write changed tasks before commit and
+ * which the after-commit event listeners need. Nested transactions join the outer one;
+ * suspending it for a new one is not supported.
+ */
+@Component("transactionManager")
+@ConditionalOnProperty(name = "todo.storage", havingValue = "embedded")
+public class EmbeddedTransactionManager extends AbstractPlatformTransactionManager {
+    
+    private final Object marker = new Object();
+    
+    @Override
+    protected Object doGetTransaction() {
+        return marker;
+    }
+    
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return TransactionSynchronizationManager.hasResource(marker);
+    }
+    
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        TransactionSynchronizationManager.bindResource(marker, Boolean.TRUE);
+    }
+    
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+    
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+    
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResource(marker);
+    }
+}
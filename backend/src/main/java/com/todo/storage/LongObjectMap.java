@@ -0,0 +1,152 @@
+package com.todo.storage;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from {@code long} keys to values, with linear probing and
+ * backward-shift deletion. Keys stay unboxed in one array, so a million tasks cost two
+ * arrays rather than a million map entries and boxed ids. Not thread-safe.
+ */
+final class LongObjectMap<V> {
+    
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int resizeAt;
+    
+    LongObjectMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the previous value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the removed value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V removed = (V) values[slot];
+                shiftBack(slot, mask);
+                size--;
+                return removed;
+            }
+        }
+        return null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+    
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    /**
+     * Empties {@code gap} by moving back any later entry of the same probe run that may
+     * not sit before its home slot, so lookups never stop early at a hole.
+     */
+    private void shiftBack(int gap, int mask) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = slot(keys[slot], mask);
+            boolean movable = gap <= slot ? home <= gap || home > slot : home <= gap && home > slot;
+            if (movable) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+    
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
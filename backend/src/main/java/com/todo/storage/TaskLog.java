@@ -0,0 +1,165 @@
+package com.todo.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of task writes in a memory-mapped file. Each entry is
+ * {@code [int length][int crc32c][payload]}, the payload being a type byte followed by a
+ * {@link TaskRecord} for a put or an id for a delete. The length is stored last, so an
+ * entry only becomes visible once complete, and a zero length marks the end of the log.
+ * A checksum mismatch is treated as a torn write at the tail: replay stops there and
+ * the rest of the file is cleared before anything is appended.
+ *
+ * <p>The file starts at {@code initialSize} and is remapped at twice the size whenever
+ * an entry does not fit; {@link #reset()} empties it once a snapshot holds its content.
+ * Not thread-safe.
+ */
+@Slf4j
+final class TaskLog implements Closeable {
+    
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER = 8;
+    private static final int ZEROES = 64 * 1024;
+    
+    private final FileChannel channel;
+    private final boolean fsync;
+    private MappedByteBuffer buffer;
+    private int position;
+    
+    TaskLog(Path file, int initialSize, boolean fsync) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fsync = fsync;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, channel.size()));
+    }
+    
+    /**
+     * Applies every complete entry in order and positions the log after the last one.
+     * Returns the number of entries applied.
+     */
+    int replay(Consumer<TaskRecord> onPut, LongConsumer onDelete) {
+        int entries = 0;
+        position = 0;
+        while (position + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + HEADER + length > buffer.capacity()
+                    || checksum(position + HEADER, length) != buffer.getInt(position + 4)) {
+                log.warn("Task log has a torn entry at offset {}; ignoring the rest of the file", position);
+                clear(position, buffer.capacity());
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + HEADER + 1, length - 1);
+            if (buffer.get(position + HEADER) == PUT) {
+                onPut.accept(TaskRecord.readFrom(payload));
+            } else {
+                onDelete.accept(payload.getLong());
+            }
+            position += HEADER + length;
+            entries++;
+        }
+        return entries;
+    }
+    
+    void appendPut(TaskRecord record) {
+        ensureCapacity(HEADER + 1 + record.maxEncodedSize());
+        ByteBuffer payload = buffer.slice(position + HEADER, buffer.capacity() - position - HEADER);
+        payload.put(PUT);
+        record.writeTo(payload);
+        commit(payload.position());
+    }
+    
+    void appendDelete(long id) {
+        ensureCapacity(HEADER + 1 + 8);
+        ByteBuffer payload = buffer.slice(position + HEADER, buffer.capacity() - position - HEADER);
+        payload.put(DELETE);
+        payload.putLong(id);
+        commit(payload.position());
+    }
+    
+    /**
+     * Bytes in use.
+     */
+    int size() {
+        return position;
+    }
+    
+    /**
+     * Empties the log. The first entry is cleared first, so a crash part way through
+     * leaves a log that replays as empty.
+     */
+    void reset() {
+        clear(0, position);
+        if (fsync) {
+            buffer.force(0, position);
+        }
+        position = 0;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+    
+    private void commit(int length) {
+        buffer.putInt(position + 4, checksum(position + HEADER, length));
+        buffer.putInt(position, length);
+        if (fsync) {
+            buffer.force(position, HEADER + length);
+        }
+        position += HEADER + length;
+    }
+    
+    private int checksum(int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Remaps the file at a larger size if {@code length} more bytes, plus the end
+     * marker, would not fit.
+     */
+    private void ensureCapacity(int length) {
+        long needed = (long) position + length + HEADER;
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Task log is full; it is compacted long before this unless snapshots fail");
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private void clear(int from, int to) {
+        byte[] zeroes = new byte[Math.min(ZEROES, Math.max(to - from, 0))];
+        for (int offset = from; offset < to; offset += zeroes.length) {
+            buffer.put(offset, zeroes, 0, Math.min(zeroes.length, to - offset));
+        }
+    }
+}
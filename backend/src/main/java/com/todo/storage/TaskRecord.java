@@ -0,0 +1,124 @@
+package com.todo.storage;
+
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+/**
+ * Immutable, compact copy of a task as the embedded store keeps it: timestamps are
+ * nanoseconds since the epoch in the UTC offset, with {@link #NONE} for a missing
+ * completion time. Records are replaced, never changed, so the index can hold them
+ * directly.
+ */
+record TaskRecord(long id, String title, String description, boolean completed,
+                  long createdAt, long completedAt, long version) {
+    
+    static final long NONE = Long.MIN_VALUE;
+    
+    /**
+     * The order of the {@code (completed, created_at desc)} index: open tasks first,
+     * then newest first, ties broken by id ascending as keyset pages expect.
+     */
+    static final Comparator<TaskRecord> INDEX_ORDER = Comparator
+            .comparing(TaskRecord::completed)
+            .thenComparing(Comparator.comparingLong(TaskRecord::createdAt).reversed())
+            .thenComparingLong(TaskRecord::id);
+    
+    /** Sorts before every completed task and after every open one. */
+    static final TaskRecord FIRST_COMPLETED = key(true, Long.MAX_VALUE, Long.MIN_VALUE);
+    
+    /**
+     * An index position rather than a task, for range queries.
+     */
+    static TaskRecord key(boolean completed, long createdAt, long id) {
+        return new TaskRecord(id, "", "", completed, createdAt, NONE, 0);
+    }
+    
+    static TaskRecord of(Task task, long version) {
+        return new TaskRecord(task.getId(), task.getTitle(), task.getDescription(),
+                Boolean.TRUE.equals(task.getCompleted()), toNanos(task.getCreatedAt()),
+                task.getCompletedAt() == null ? NONE : toNanos(task.getCompletedAt()), version);
+    }
+    
+    /**
+     * The next version of this record, with what {@code task} changed. The id and
+     * creation time never change.
+     */
+    TaskRecord withChanges(Task task) {
+        return new TaskRecord(id, task.getTitle(), task.getDescription(), Boolean.TRUE.equals(task.getCompleted()),
+                createdAt, task.getCompletedAt() == null ? NONE : toNanos(task.getCompletedAt()), version + 1);
+    }
+    
+    Task toTask() {
+        return new Task(id, title, description, completed, toDateTime(createdAt),
+                completedAt == NONE ? null : toDateTime(completedAt), version);
+    }
+    
+    TaskDTO toDto() {
+        return new TaskDTO(id, title, description, completed, toDateTime(createdAt));
+    }
+    
+    /**
+     * Whether {@code task} differs from this record in anything a write would change.
+     */
+    boolean differsFrom(Task task) {
+        return !title.equals(task.getTitle())
+                || !description.equals(task.getDescription())
+                || completed != Boolean.TRUE.equals(task.getCompleted())
+                || completedAt != (task.getCompletedAt() == null ? NONE : toNanos(task.getCompletedAt()));
+    }
+    
+    /**
+     * Upper bound of {@link #writeTo}'s output.
+     */
+    int maxEncodedSize() {
+        return 8 + 8 + 1 + 8 + 8 + 4 + 3 * title.length() + 4 + 3 * description.length();
+    }
+    
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(id);
+        buffer.putLong(version);
+        buffer.put((byte) (completed ? 1 : 0));
+        buffer.putLong(createdAt);
+        buffer.putLong(completedAt);
+        putString(buffer, title);
+        putString(buffer, description);
+    }
+    
+    static TaskRecord readFrom(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        boolean completed = buffer.get() != 0;
+        long createdAt = buffer.getLong();
+        long completedAt = buffer.getLong();
+        String title = getString(buffer);
+        String description = getString(buffer);
+        return new TaskRecord(id, title, description, completed, createdAt, completedAt, version);
+    }
+    
+    static long toNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+    
+    static LocalDateTime toDateTime(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+    
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+    
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,142 @@
+package com.todo.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Full copy of the embedded store: a header of magic number, format version, next id
+ * and record count, the records, and a crc32c of everything before it. It is written
+ * to a temporary file, forced to disk and moved over the previous snapshot, so a crash
+ * leaves either the old snapshot or the new one.
+ */
+final class TaskSnapshot {
+    
+    private static final int MAGIC = 0x54534E50;
+    private static final int FORMAT = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private TaskSnapshot() {
+    }
+    
+    static void write(Path file, long nextId, LongObjectMap<TaskRecord> records) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new Writer(channel);
+            ByteBuffer header = writer.reserve(4 + 4 + 8 + 4);
+            header.putInt(MAGIC).putInt(FORMAT).putLong(nextId).putInt(records.size());
+            try {
+                records.forEachValue(record -> {
+                    ByteBuffer buffer = writer.reserve(record.maxEncodedSize());
+                    record.writeTo(buffer);
+                });
+            } catch (WriteFailure failure) {
+                throw failure.getCause();
+            }
+            writer.finish();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Passes every record to {@code onRecord} and returns the next id, or 1 when there is
+     * no snapshot yet.
+     */
+    static long read(Path file, Consumer<TaskRecord> onRecord) throws IOException {
+        if (!Files.exists(file)) {
+            return 1;
+        }
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (content.remaining() < 4 + 4 + 8 + 4 + 4) {
+            throw new IOException("Snapshot " + file + " is truncated");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(content.slice(0, content.limit() - 4));
+        if ((int) crc.getValue() != content.getInt(content.limit() - 4)) {
+            throw new IOException("Snapshot " + file + " is corrupt");
+        }
+        if (content.getInt() != MAGIC || content.getInt() != FORMAT) {
+            throw new IOException("Snapshot " + file + " is not a task snapshot of format " + FORMAT);
+        }
+        long nextId = content.getLong();
+        int count = content.getInt();
+        for (int i = 0; i < count; i++) {
+            onRecord.accept(TaskRecord.readFrom(content));
+        }
+        return nextId;
+    }
+    
+    /**
+     * Buffers writes to the channel and checksums everything written.
+     */
+    private static final class Writer {
+        
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+        
+        /**
+         * A buffer with at least {@code length} bytes free.
+         */
+        ByteBuffer reserve(int length) {
+            if (buffer.remaining() < length) {
+                drain();
+                if (buffer.capacity() < length) {
+                    buffer = ByteBuffer.allocate(length);
+                }
+            }
+            return buffer;
+        }
+        
+        void finish() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            write(buffer);
+            write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip());
+        }
+        
+        private void drain() {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            try {
+                write(buffer);
+            } catch (IOException ex) {
+                throw new WriteFailure(ex);
+            }
+            buffer.clear();
+        }
+        
+        private void write(ByteBuffer content) throws IOException {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+    
+    /**
+     * Carries an {@link IOException} out of the record callback.
+     */
+    private static final class WriteFailure extends RuntimeException {
+        
+        WriteFailure(IOException cause) {
+            super(cause);
+        }
+        
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
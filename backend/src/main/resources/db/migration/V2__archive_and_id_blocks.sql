@@ -0,0 +1,31 @@
+-- Brings the V1 task table to what the entities map, and adds the archive and the id
+-- allocator. Existing rows keep their ids; tasks completed before completed_at existed
+-- keep a NULL there and are archived by creation time.
+
+ALTER TABLE task MODIFY id BIGINT NOT NULL;
+ALTER TABLE task MODIFY created_at DATETIME(6) NOT NULL;
+ALTER TABLE task ADD COLUMN completed_at DATETIME(6) NULL;
+ALTER TABLE task ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX idx_completed_completed_at ON task (completed, completed_at);
+
+-- Completed tasks moved out of task by the archiver. Rows keep their original id.
+CREATE TABLE task_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6) NULL,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_archive_created (created_at DESC)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Id allocator for task. Hibernate emulates the task_seq sequence with this table and
+-- hands out blocks of 50 ids, which lets inserts be batched. Each value read is the top
+-- of a block, so the first value is one whole block past the block holding the highest
+-- existing id: every id it hands out is new.
+CREATE TABLE task_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO task_seq (next_val)
+SELECT (FLOOR(COALESCE(MAX(id), 0) / 50) + 2) * 50 FROM task;
@@ -0,0 +1,14 @@
+-- Sample tasks for a new database. A database upgraded from V1 already has its own
+-- tasks (including these samples, under ids of its own) and gets none. The ids are
+-- below the first block task_seq hands out.
+
+INSERT INTO task (id, title, description, completed, created_at)
+SELECT id, title, description, completed, created_at FROM (
+    SELECT 1 AS id, 'Buy books' AS title, 'Buy books for the next school year' AS description,
+           false AS completed, NOW() - INTERVAL '1' HOUR AS created_at
+    UNION ALL SELECT 2, 'Clean home', 'Need to clean the bed room', false, NOW() - INTERVAL '2' HOUR
+    UNION ALL SELECT 3, 'Takehome assignment', 'Finish the mid-term assignment', false, NOW() - INTERVAL '3' HOUR
+    UNION ALL SELECT 4, 'Play Cricket', 'Plan the soft ball cricket match on next Sunday', false, NOW() - INTERVAL '4' HOUR
+    UNION ALL SELECT 5, 'Help Saman', 'Saman need help with his software project', false, NOW() - INTERVAL '5' HOUR
+) samples
+WHERE NOT EXISTS (SELECT 1 FROM task);
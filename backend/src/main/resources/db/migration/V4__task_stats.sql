@@ -0,0 +1,8 @@
+-- Daily checkpoints of the incrementally maintained task statistics, so they survive
+-- restarts without being recomputed from task.
+CREATE TABLE task_stats_daily (
+    stats_date DATE PRIMARY KEY,
+    created_count BIGINT NOT NULL,
+    completed_count BIGINT NOT NULL,
+    completion_sketch BLOB NOT NULL
+) ENGINE=InnoDB;
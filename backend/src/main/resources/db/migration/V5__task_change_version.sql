@@ -0,0 +1,8 @@
+-- One row counting committed task changes, shared by every instance and the reactive
+-- app, so conditional GETs answered from any of them agree.
+CREATE TABLE task_change_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO task_change_version (id, version) VALUES (1, 0);
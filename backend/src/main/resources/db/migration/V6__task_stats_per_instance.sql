@@ -0,0 +1,6 @@
+-- Every run of every instance checkpoints only what it counted itself, into rows of
+-- its own, and the rows are added up on startup, so instances never overwrite each
+-- other's statistics. Rows written before this are kept as the 'legacy' instance.
+ALTER TABLE task_stats_daily ADD COLUMN instance_id VARCHAR(36) NOT NULL DEFAULT 'legacy';
+ALTER TABLE task_stats_daily DROP PRIMARY KEY;
+ALTER TABLE task_stats_daily ADD PRIMARY KEY (stats_date, instance_id);
@@ -0,0 +1,176 @@
+package com.todo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same high-concurrency load against the application in platform-thread and
+ * virtual-thread mode, logs throughput, latency percentiles and peak thread count for
+ * each, and checks that virtual threads hold the load with fewer platform threads and
+ * comparable throughput. Every statement is delayed to stand in for a MySQL round trip.
+ * Takes minutes and needs a Java 21 runtime, so it only runs in the
+ * {@code -Pjava21,load-tests} build.
+ */
+@Slf4j
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class ThreadingModeLoadTest {
+    
+    private static final int CONCURRENCY = 1000;
+    private static final int REQUESTS = 10_000;
+    private static final long STATEMENT_DELAY_MS = 5;
+    
+    @Test
+    void virtualThreads_ShouldServeHighConcurrencyWithFewerPlatformThreads() throws Exception {
+        // Arrange / Act
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+        
+        // Assert
+        log.info("platform threads: {}", platform);
+        log.info("virtual threads:  {}", virtual);
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+        assertTrue(virtual.peakThreads < platform.peakThreads,
+                "expected fewer platform threads, platform=" + platform + " virtual=" + virtual);
+        // Both are bound by the same connection pool, so throughput should not drop
+        assertTrue(virtual.requestsPerSecond >= 0.8 * platform.requestsPerSecond,
+                "expected comparable throughput, platform=" + platform + " virtual=" + virtual);
+    }
+    
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApplication.class, SlowDatabaseConfiguration.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                     "--spring.datasource.driver-class-name=org.h2.Driver",
+                     "--spring.datasource.username=sa",
+                     "--spring.datasource.password=",
+                     "--spring.jpa.hibernate.ddl-auto=create-drop",
+                     "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                     "--spring.jpa.show-sql=false",
+                     // The schema comes from Hibernate here, not from the MySQL migrations
+                     "--todo.schema.migrate-on-startup=false",
+                     "--spring.threads.virtual.enabled=" + virtualThreads,
+                     // Measures how many requests each threading mode can hold, not how many get shed
+                     "--todo.admission.enabled=false",
+                     "--spring.datasource.hikari.maximum-pool-size=20",
+                     "--spring.datasource.hikari.connection-timeout=30000")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(URI.create("http://localhost:" + port + "/api/tasks/incomplete?limit=5"));
+        }
+    }
+    
+    private LoadResult drive(URI uri) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[REQUESTS];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+        
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(ex -> null).join();
+        long elapsed = System.nanoTime() - start;
+        
+        Arrays.sort(latencies);
+        return new LoadResult(REQUESTS * 1e9 / elapsed,
+                latencies[REQUESTS / 2] / 1e6,
+                latencies[(int) (REQUESTS * 0.99)] / 1e6,
+                errors.get(),
+                ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+    
+    private record LoadResult(double requestsPerSecond, double p50Millis, double p99Millis, int errors, int peakThreads) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, %d errors, peak %d platform threads",
+                    requestsPerSecond, p50Millis, p99Millis, errors, peakThreads);
+        }
+    }
+    
+    /**
+     * Delays every statement preparation to simulate the network round trip to MySQL,
+     * holding the pooled connection the whole time like a real query would.
+     */
+    @Configuration
+    static class SlowDatabaseConfiguration {
+        
+        @Bean
+        static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? new SlowDataSource((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+    
+    static class SlowDataSource extends DelegatingDataSource {
+        
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            Thread.sleep(STATEMENT_DELAY_MS);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.todo.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdmissionControlInterceptor
+ */
+class AdmissionControlInterceptorTest {
+    
+    private AdmissionControlInterceptor interceptor;
+    
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRead(new AdmissionProperties.Budget(1, 1, 10));
+        properties.setWrite(new AdmissionProperties.Budget(1, 1, 10));
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        interceptor = new AdmissionControlInterceptor(properties);
+    }
+    
+    @Test
+    void preHandle_ShouldReject_WhenReadBudgetIsFull() {
+        // Arrange
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/tasks/recent"), new MockHttpServletResponse(), null);
+        
+        // Act
+        ConcurrencyLimitExceededException ex = assertThrows(ConcurrencyLimitExceededException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("GET", "/api/tasks/count"),
+                        new MockHttpServletResponse(), null));
+        
+        // Assert
+        assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+        assertEquals(1, interceptor.getReads().getRejectedCount());
+    }
+    
+    @Test
+    void preHandle_ShouldAdmitWrites_WhileReadsAreFull() {
+        // Arrange
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/tasks/recent"), new MockHttpServletResponse(), null);
+        
+        // Act
+        boolean admitted = interceptor.preHandle(new MockHttpServletRequest("POST", "/api/tasks"),
+                new MockHttpServletResponse(), null);
+        
+        // Assert
+        assertTrue(admitted);
+        assertEquals(1, interceptor.getReads().getInFlight());
+        assertEquals(1, interceptor.getWrites().getInFlight());
+    }
+    
+    @Test
+    void preHandle_ShouldLetPreflightsThrough() {
+        // Arrange
+        interceptor.preHandle(new MockHttpServletRequest("DELETE", "/api/tasks/1"), new MockHttpServletResponse(), null);
+        MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/api/tasks/2");
+        preflight.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+        preflight.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "DELETE");
+        
+        // Act
+        boolean admitted = interceptor.preHandle(preflight, new MockHttpServletResponse(), null);
+        
+        // Assert
+        assertTrue(admitted);
+        assertEquals(1, interceptor.getWrites().getInFlight());
+    }
+    
+    @Test
+    void afterCompletion_ShouldCountDrop_WhenResponseIsServiceUnavailable() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/tasks/1/complete");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        response.setStatus(503);
+        
+        // Act
+        interceptor.afterCompletion(request, response, null, null);
+        
+        // Assert
+        assertEquals(0, interceptor.getWrites().getInFlight());
+        assertEquals(1, interceptor.getWrites().getDroppedCount());
+    }
+    
+    @Test
+    void asyncRequest_ShouldHoldItsSlot_UntilTheResponseCompletes() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        request.startAsync(request, response);
+        
+        // Act
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        int inFlightWhileStreaming = interceptor.getReads().getInFlight();
+        request.getAsyncContext().complete();
+        
+        // Assert
+        assertEquals(1, inFlightWhileStreaming);
+        assertEquals(0, interceptor.getReads().getInFlight());
+    }
+    
+    @Test
+    void bindTo_ShouldExposeLimiterState() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/tasks/recent"), new MockHttpServletResponse(), null);
+        
+        // Act
+        interceptor.bindTo(registry);
+        
+        // Assert
+        assertEquals(1.0, registry.get("todo.admission.limit").tag("budget", "read").gauge().value());
+        assertEquals(1.0, registry.get("todo.admission.inflight").tag("budget", "read").gauge().value());
+        assertEquals(0.0, registry.get("todo.admission.inflight").tag("budget", "write").gauge().value());
+    }
+}
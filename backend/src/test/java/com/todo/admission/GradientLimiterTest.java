@@ -0,0 +1,114 @@
+package com.todo.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GradientLimiter
+ */
+class GradientLimiterTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    
+    private GradientLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new GradientLimiter(new AdmissionProperties.Budget(initialLimit, minLimit, maxLimit),
+                1.5, 0.2, 600, clock::get);
+    }
+    
+    @Test
+    void tryAcquire_ShouldReject_OnceLimitIsReached() {
+        // Arrange
+        GradientLimiter limiter = limiter(2, 1, 10);
+        GradientLimiter.Permit first = limiter.tryAcquire();
+        GradientLimiter.Permit second = limiter.tryAcquire();
+        
+        // Act
+        GradientLimiter.Permit third = limiter.tryAcquire();
+        first.ignore();
+        GradientLimiter.Permit fourth = limiter.tryAcquire();
+        
+        // Assert
+        assertNotNull(second);
+        assertNull(third);
+        assertNotNull(fourth);
+        assertEquals(1, limiter.getRejectedCount());
+        assertEquals(2, limiter.getInFlight());
+    }
+    
+    @Test
+    void limit_ShouldGrow_WhileLatencyHoldsUnderFullLoad() {
+        // Arrange
+        GradientLimiter limiter = limiter(10, 1, 100);
+        
+        // Act
+        runSaturated(limiter, 50, 1_000_000);
+        
+        // Assert
+        assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+    }
+    
+    @Test
+    void limit_ShouldNotGrow_WhenTrafficIsLight() {
+        // Arrange
+        GradientLimiter limiter = limiter(10, 1, 100);
+        
+        // Act
+        for (int i = 0; i < 500; i++) {
+            GradientLimiter.Permit permit = limiter.tryAcquire();
+            clock.addAndGet(1_000_000);
+            permit.success();
+        }
+        
+        // Assert
+        assertEquals(10, limiter.getLimit());
+    }
+    
+    @Test
+    void limit_ShouldShrink_WhenRequestsStartQueueing() {
+        // Arrange
+        GradientLimiter limiter = limiter(10, 2, 100);
+        runSaturated(limiter, 30, 1_000_000);
+        int peak = limiter.getLimit();
+        
+        // Act
+        runSaturated(limiter, 30, 10_000_000);
+        
+        // Assert
+        assertTrue(limiter.getLimit() < peak / 2, "limit went from " + peak + " to " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 2);
+    }
+    
+    @Test
+    void dropped_ShouldCutTheLimit() {
+        // Arrange
+        GradientLimiter limiter = limiter(20, 4, 100);
+        
+        // Act
+        limiter.tryAcquire().dropped();
+        
+        // Assert
+        assertEquals(18, limiter.getLimit());
+        assertEquals(1, limiter.getDroppedCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    /**
+     * Fills every slot, lets {@code rttNanos} pass and completes them all, {@code rounds} times.
+     */
+    private void runSaturated(GradientLimiter limiter, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            List<GradientLimiter.Permit> permits = new ArrayList<>();
+            GradientLimiter.Permit permit;
+            while ((permit = limiter.tryAcquire()) != null) {
+                permits.add(permit);
+            }
+            clock.addAndGet(rttNanos);
+            permits.forEach(GradientLimiter.Permit::success);
+        }
+    }
+}
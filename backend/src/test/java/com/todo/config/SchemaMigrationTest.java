@@ -0,0 +1,54 @@
+package com.todo.config;
+
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import com.todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates an empty H2 database in MySQL mode and starts with {@code ddl-auto=validate}
+ * and the MySQL dialect, so the context only loads if the migrations match the
+ * entities as they are mapped in production.
+ */
+@SpringBootTest
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+    }
+)
+class SchemaMigrationTest {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Test
+    void migrations_ShouldCreateSchemaWithSampleTasks() {
+        // Assert
+        assertEquals(6, jdbcTemplate.queryForObject(
+                "select count(*) from flyway_schema_history where type = 'SQL' and success", Integer.class));
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "select count(*) from task where id <= 5 and completed = false", Integer.class));
+    }
+    
+    @Test
+    void createTask_ShouldTakeIdsPastTheSampleTasks() {
+        // Act
+        TaskDTO created = taskService.createTask(new CreateTaskRequest("Migrated", "After the samples"));
+        
+        // Assert
+        assertTrue(created.getId() > 5);
+    }
+}
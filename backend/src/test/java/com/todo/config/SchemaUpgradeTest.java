@@ -0,0 +1,59 @@
+package com.todo.config;
+
+import com.todo.TodoApplication;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import com.todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application on an H2 database in MySQL mode that holds the schema and
+ * rows of the release before the migrations, as {@code database/init.sql} created
+ * them, and checks that it is baselined, upgraded and validated without losing data.
+ */
+class SchemaUpgradeTest {
+    
+    private static final String URL = "jdbc:h2:mem:upgrade;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    
+    @Test
+    void startup_ShouldUpgradeDatabaseFromBeforeTheMigrations() {
+        // Arrange
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        legacy.execute("CREATE TABLE task ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "title VARCHAR(255) NOT NULL, "
+                + "description VARCHAR(1000) NOT NULL, "
+                + "completed BOOLEAN NOT NULL DEFAULT FALSE, "
+                + "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "INDEX idx_completed_created (completed, created_at DESC), "
+                + "INDEX idx_created (created_at DESC))");
+        legacy.update("INSERT INTO task (id, title, description, completed) VALUES "
+                + "(1, 'Old', 'Kept', false), (2, 'Done', 'Kept', true), (123, 'Newest', 'Kept', false)");
+        
+        // Act
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + URL,
+                     "--spring.datasource.driver-class-name=org.h2.Driver",
+                     "--spring.datasource.username=sa",
+                     "--spring.datasource.password=",
+                     "--spring.main.banner-mode=off")) {
+            TaskDTO created = context.getBean(TaskService.class)
+                    .createTask(new CreateTaskRequest("After upgrade", "New id"));
+            
+            // Assert
+            assertTrue(created.getId() > 123);
+            assertEquals(1, legacy.queryForObject(
+                    "select count(*) from flyway_schema_history where type = 'BASELINE' and version = '1'", Integer.class));
+            assertEquals(4, legacy.queryForObject("select count(*) from task", Integer.class));
+            assertEquals(3, context.getBean(TaskService.class).getIncompleteTaskCount());
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package com.todo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.todo.config.WebConfig;
+import com.todo.dto.BatchItemResult;
 import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
 import com.todo.dto.TaskDTO;
+import com.todo.dto.TaskStats;
+import com.todo.service.BatchSizeExceededException;
+import com.todo.service.InvalidCursorException;
+import com.todo.service.InvalidPageException;
 import com.todo.service.TaskNotFoundException;
 import com.todo.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,15 +20,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +60,9 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
     
+    @MockBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+    
     private TaskDTO taskDTO;
     
     @BeforeEach
@@ -92,19 +117,271 @@ class TaskControllerTest {
         verify(taskService, never()).createTask(any(CreateTaskRequest.class));
     }
     
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTasks_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        List<CreateTaskRequest> requests = Arrays.asList(
+            new CreateTaskRequest("New Task", "New Description"),
+            new CreateTaskRequest("", "Description")
+        );
+        when(taskService.createTasks(any(List.class))).thenReturn(Arrays.asList(
+            new BatchItemResult(0, 1L, BatchItemResult.Status.CREATED, null, taskDTO),
+            new BatchItemResult(1, null, BatchItemResult.Status.INVALID, "title: must not be blank", null)
+        ));
+        
+        // Act & Assert
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].task.id").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"));
+        
+        verify(taskService, times(1)).createTasks(any(List.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTasks_ShouldReturnBadRequest_WhenBatchTooLarge() throws Exception {
+        // Arrange
+        when(taskService.createTasks(any(List.class)))
+                .thenThrow(new BatchSizeExceededException("Batch too large"));
+        
+        // Act & Assert
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void completeTasks_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(taskService.markTasksAsCompleted(Arrays.asList(1L, 999L))).thenReturn(Arrays.asList(
+            new BatchItemResult(0, 1L, BatchItemResult.Status.COMPLETED, null, null),
+            new BatchItemResult(1, 999L, BatchItemResult.Status.NOT_FOUND, "Task not found with id: 999", null)
+        ));
+        
+        // Act & Assert
+        mockMvc.perform(put("/api/tasks/batch/complete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+        
+        verify(taskService, never()).markTaskAsCompleted(anyLong());
+    }
+    
+    @Test
+    void deleteTasks_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(taskService.deleteTasks(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(
+            new BatchItemResult(0, 1L, BatchItemResult.Status.DELETED, null, null),
+            new BatchItemResult(1, 2L, BatchItemResult.Status.DELETED, null, null)
+        ));
+        
+        // Act & Assert
+        mockMvc.perform(delete("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].status").value("DELETED"));
+        
+        verify(taskService, never()).deleteTask(anyLong());
+    }
+    
     @Test
     void getRecentTasks_ShouldReturnListOfTasks() throws Exception {
         // Arrange
         List<TaskDTO> tasks = Arrays.asList(taskDTO);
-        when(taskService.getFirstPageIncompleteTasks()).thenReturn(tasks);
+        when(taskService.getFirstPageIncompleteTasksJson()).thenReturn(objectMapper.writeValueAsBytes(tasks));
         
         // Act & Assert
         mockMvc.perform(get("/api/tasks/recent"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].id").value(1));
         
-        verify(taskService, times(1)).getFirstPageIncompleteTasks();
+        verify(taskService, times(1)).getFirstPageIncompleteTasksJson();
+    }
+    
+    @Test
+    void getRecentTasks_ShouldTagResponseWithChangeVersion() throws Exception {
+        // Arrange
+        when(taskService.getChangeVersion()).thenReturn("abc.7");
+        when(taskService.getFirstPageIncompleteTasksJson()).thenReturn("[]".getBytes());
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc.7\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+    
+    @Test
+    void getRecentTasks_ShouldReturnNotModified_WhenVersionIsUnchanged() throws Exception {
+        // Arrange
+        when(taskService.getChangeVersion()).thenReturn("abc.7");
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/recent").header("If-None-Match", "\"abc.7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc.7\""))
+                .andExpect(content().string(""));
+        
+        verify(taskService, never()).getFirstPageIncompleteTasksJson();
+    }
+    
+    @Test
+    void getIncompleteTaskCount_ShouldReturnFreshBody_WhenVersionHasChanged() throws Exception {
+        // Arrange
+        when(taskService.getChangeVersion()).thenReturn("abc.8");
+        when(taskService.getIncompleteTaskCount()).thenReturn(4L);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/count").header("If-None-Match", "\"abc.7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc.8\""))
+                .andExpect(content().string("4"));
+    }
+    
+    @Test
+    void getTaskStats_ShouldReturnAggregates() throws Exception {
+        // Arrange
+        TaskStats stats = new TaskStats(3L,
+                List.of(new TaskStats.Day(LocalDate.of(2024, 3, 10), 5, 2)),
+                new TaskStats.CompletionTimes(2, 60.0, 120.0, 120.0));
+        when(taskService.getTaskStats(7)).thenReturn(stats);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/stats").param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openTasks").value(3))
+                .andExpect(jsonPath("$.days[0].date").value("2024-03-10"))
+                .andExpect(jsonPath("$.days[0].created").value(5))
+                .andExpect(jsonPath("$.timeToComplete.p90Seconds").value(120.0));
+    }
+    
+    @Test
+    void getTasksPage_ShouldReturnNotModified_WithoutQuerying() throws Exception {
+        // Arrange
+        when(taskService.getChangeVersion()).thenReturn("abc.7");
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/page/2").header("If-None-Match", "\"abc.7\""))
+                .andExpect(status().isNotModified());
+        
+        verify(taskService, never()).getIncompleteTasks(anyInt());
+    }
+    
+    @Test
+    void getTasksPage_ShouldReturnSlimEnvelope() throws Exception {
+        // Arrange
+        when(taskService.getIncompleteTasks(1))
+                .thenReturn(new PageImpl<>(Arrays.asList(taskDTO), PageRequest.of(1, 5), 12));
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/page/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextPage").value(2))
+                .andExpect(jsonPath("$.totalElements").value(12))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+    }
+    
+    @Test
+    void getTasksPage_ShouldReturnBadRequest_WhenPageIsNegative() throws Exception {
+        // Arrange
+        when(taskService.getIncompleteTasks(-1)).thenThrow(new InvalidPageException(-1));
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/page/-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Page must not be negative: -1"));
+    }
+    
+    @Test
+    void getAllTasks_ShouldReturnCbor_WithEpochMillisDates() throws Exception {
+        // Arrange
+        when(taskService.getAllTasks()).thenReturn(Arrays.asList(taskDTO));
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tasks").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        
+        // Assert
+        JsonNode tasks = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, tasks.size());
+        assertEquals("Test Task", tasks.get(0).get("title").asText());
+        assertEquals(taskDTO.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                tasks.get(0).get("createdAt").asLong());
+    }
+    
+    @Test
+    void getRecentTasks_ShouldReturnSmile_WhenRequested() throws Exception {
+        // Arrange
+        when(taskService.getFirstPageIncompleteTasks()).thenReturn(Arrays.asList(taskDTO));
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tasks/recent").accept(WebConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebConfig.APPLICATION_SMILE))
+                .andReturn();
+        
+        // Assert
+        JsonNode tasks = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, tasks.get(0).get("id").asLong());
+        verify(taskService, never()).getFirstPageIncompleteTasksJson();
+    }
+    
+    @Test
+    void getIncompleteTasks_ShouldReturnCursorPage() throws Exception {
+        // Arrange
+        CursorPage<TaskDTO> page = new CursorPage<>(Arrays.asList(taskDTO), "next-token");
+        when(taskService.getIncompleteTasksAfter(isNull(), eq(10))).thenReturn(page);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/incomplete").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        
+        verify(taskService, times(1)).getIncompleteTasksAfter(null, 10);
+    }
+    
+    @Test
+    void getIncompleteTasks_ShouldReturnBadRequest_WhenCursorIsMalformed() throws Exception {
+        // Arrange
+        when(taskService.getIncompleteTasksAfter(eq("bogus"), anyInt()))
+                .thenThrow(new InvalidCursorException("Malformed cursor: bogus"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/incomplete").param("after", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void searchTasks_ShouldReturnMatchingTasks() throws Exception {
+        // Arrange
+        when(taskService.searchTasks("test", 20)).thenReturn(Arrays.asList(taskDTO));
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Test Task"));
+        
+        verify(taskService, times(1)).searchTasks("test", 20);
     }
     
     @Test
@@ -121,6 +398,34 @@ class TaskControllerTest {
         verify(taskService, times(1)).getAllTasks();
     }
     
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllTasks_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        TaskDTO second = new TaskDTO(2L, "Second Task", "Second Description", true, LocalDateTime.now());
+        doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(0);
+            consumer.accept(taskDTO);
+            consumer.accept(second);
+            return null;
+        }).when(taskService).streamAllTasks(any(Consumer.class));
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tasks").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Assert
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], TaskDTO.class).getId());
+        assertEquals(2L, objectMapper.readValue(lines[1], TaskDTO.class).getId());
+        verify(taskService, never()).getAllTasks();
+    }
+    
     @Test
     void completeTask_ShouldReturnUpdatedTask() throws Exception {
         // Arrange
@@ -148,6 +453,19 @@ class TaskControllerTest {
         verify(taskService, times(1)).markTaskAsCompleted(999L);
     }
     
+    @Test
+    void completeTask_ShouldReturnServiceUnavailable_WhenNoConnectionIsFree() throws Exception {
+        // Arrange
+        when(taskService.markTaskAsCompleted(1L))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+        
+        // Act & Assert
+        mockMvc.perform(put("/api/tasks/1/complete"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+    
     @Test
     void deleteTask_ShouldReturnNoContent() throws Exception {
         // Arrange
@@ -0,0 +1,113 @@
+package com.todo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.WriteOperation;
+import com.todo.service.TaskService;
+import com.todo.service.TaskWriteBehind;
+import com.todo.service.WriteQueueFullException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for TaskController with write-behind enabled
+ */
+@WebMvcTest(TaskController.class)
+class TaskControllerWriteBehindTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private TaskService taskService;
+    
+    @MockBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+    
+    @MockBean
+    private TaskWriteBehind taskWriteBehind;
+    
+    @Test
+    void createTask_ShouldReturnAcceptedOperation() throws Exception {
+        // Arrange
+        CreateTaskRequest request = new CreateTaskRequest("New Task", "New Description");
+        when(taskWriteBehind.submitCreate(any(CreateTaskRequest.class))).thenReturn(pending("op-1", WriteOperation.Type.CREATE, null));
+        
+        // Act & Assert
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/tasks/operations/op-1"))
+                .andExpect(jsonPath("$.id").value("op-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        
+        verify(taskService, never()).createTask(any(CreateTaskRequest.class));
+    }
+    
+    @Test
+    void completeTask_ShouldReturnAcceptedOperation() throws Exception {
+        // Arrange
+        when(taskWriteBehind.submitComplete(1L)).thenReturn(pending("op-2", WriteOperation.Type.COMPLETE, 1L));
+        
+        // Act & Assert
+        mockMvc.perform(put("/api/tasks/1/complete"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.type").value("COMPLETE"))
+                .andExpect(jsonPath("$.taskId").value(1));
+        
+        verify(taskService, never()).markTaskAsCompleted(anyLong());
+    }
+    
+    @Test
+    void completeTask_ShouldReturnServiceUnavailable_WhenQueueIsFull() throws Exception {
+        // Arrange
+        when(taskWriteBehind.submitComplete(1L)).thenThrow(new WriteQueueFullException("The write-behind queue is full, try again later"));
+        
+        // Act & Assert
+        mockMvc.perform(put("/api/tasks/1/complete"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("The write-behind queue is full, try again later"));
+    }
+    
+    @Test
+    void getWriteOperation_ShouldReturnOperation() throws Exception {
+        // Arrange
+        WriteOperation applied = pending("op-3", WriteOperation.Type.COMPLETE, 1L);
+        applied.setStatus(WriteOperation.Status.APPLIED);
+        when(taskWriteBehind.find("op-3")).thenReturn(applied);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/operations/op-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPLIED"));
+    }
+    
+    @Test
+    void getWriteOperation_ShouldReturnNotFound_WhenOperationIsUnknown() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/operations/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Write operation not found with id: missing"));
+    }
+    
+    private static WriteOperation pending(String id, WriteOperation.Type type, Long taskId) {
+        return new WriteOperation(id, type, WriteOperation.Status.PENDING, taskId, null, null, LocalDateTime.now(), null);
+    }
+}
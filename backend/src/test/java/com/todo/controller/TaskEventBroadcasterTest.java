@@ -0,0 +1,96 @@
+package com.todo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.todo.dto.TaskDTO;
+import com.todo.service.TaskChangedEvent;
+import com.todo.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Unit tests for TaskEventBroadcaster
+ */
+class TaskEventBroadcasterTest {
+    
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor();
+    
+    @AfterEach
+    void tearDown() {
+        sender.shutdownNow();
+    }
+    
+    @Test
+    void onTaskChanged_ShouldPushNamedEventToSubscribers() throws Exception {
+        // Arrange
+        TaskEventBroadcaster broadcaster = new TaskEventBroadcaster(objectMapper, 16, Duration.ofMinutes(1), sender);
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new TaskController(mock(TaskService.class), broadcaster, objectMapper, mock(ObjectProvider.class)))
+                .build();
+        MvcResult result = mockMvc.perform(get("/api/tasks/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        TaskDTO task = new TaskDTO(1L, "Test Task", "Test Description", false, LocalDateTime.now());
+        
+        // Act
+        broadcaster.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task));
+        
+        // Assert
+        String body = awaitContent(result, "event:created");
+        assertTrue(body.contains("data:{\"id\":1,\"title\":\"Test Task\""), body);
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+    
+    @Test
+    void onTaskChanged_ShouldDisconnectSubscriber_WhenItsBufferIsFull() throws Exception {
+        // Arrange
+        CountDownLatch stalled = new CountDownLatch(1);
+        sender.execute(() -> {
+            try {
+                stalled.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        TaskEventBroadcaster broadcaster = new TaskEventBroadcaster(objectMapper, 2, Duration.ofMinutes(1), sender);
+        broadcaster.subscribe();
+        TaskDTO task = new TaskDTO(1L, "Test Task", "Test Description", false, LocalDateTime.now());
+        
+        // Act
+        broadcaster.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task));
+        long before = System.nanoTime();
+        broadcaster.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.COMPLETED, task));
+        long publishNanos = System.nanoTime() - before;
+        stalled.countDown();
+        
+        // Assert
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertTrue(publishNanos < Duration.ofSeconds(1).toNanos(), "publishing must not wait for a stalled sender");
+    }
+    
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
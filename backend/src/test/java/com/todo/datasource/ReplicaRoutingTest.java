@@ -0,0 +1,178 @@
+package com.todo.datasource;
+
+import com.todo.service.IncompleteTaskCounter;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against two H2 databases, a primary and a replica, and checks
+ * where reads and writes land. There is no replication between them: each holds a
+ * different task, which shows which one served a read.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "todo.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "todo.datasource.replicas[0].username=sa",
+        "todo.datasource.replicas[0].password=",
+        "todo.datasource.lag-query=SELECT lag_seconds FROM replication_lag",
+        "todo.datasource.lag-column=",
+        "todo.datasource.max-lag=PT5S",
+        "todo.datasource.check-interval=PT1H"
+    }
+)
+class ReplicaRoutingTest {
+    
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    
+    @Autowired
+    private ReplicaHealthMonitor replicaHealthMonitor;
+    
+    @Autowired
+    private IncompleteTaskCounter incompleteTaskCounter;
+    
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        
+        // Give the replica the primary's schema, plus a table to report its lag from
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .forEach(replica::execute);
+        replica.execute("CREATE TABLE replication_lag (lag_seconds INT)");
+        replica.update("INSERT INTO replication_lag VALUES (0)");
+        
+        primary.update("DELETE FROM task");
+        insertTask(primary, 1_000_001, "On primary");
+        insertTask(replica, 1_000_002, "On replica");
+        replicaHealthMonitor.check();
+    }
+    
+    @Test
+    void readOnlyTransactions_ShouldReadFromReplica() throws Exception {
+        // Act / Assert
+        assertEquals(1, replicaHealthMonitor.getHealthyCount());
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title").value(hasItem("On replica")))
+                .andExpect(jsonPath("$[*].title").value(not(hasItem("On primary"))));
+    }
+    
+    @Test
+    void writes_ShouldGoToPrimary() throws Exception {
+        // Act
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Task\",\"description\":\"New Description\"}"))
+                .andExpect(status().isCreated());
+        
+        // Assert
+        assertEquals(1, countTitled(primary, "New Task"));
+        assertEquals(0, countTitled(replica, "New Task"));
+    }
+    
+    @Test
+    void readsAfterWrite_ShouldUsePrimary_WhileStickyCookieIsFresh() throws Exception {
+        // Arrange
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Task\",\"description\":\"New Description\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie sticky = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(sticky);
+        
+        // Act / Assert
+        mockMvc.perform(get("/api/tasks").cookie(sticky))
+                .andExpect(jsonPath("$[*].title").value(hasItem("New Task")));
+        mockMvc.perform(get("/api/tasks").cookie(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "0")))
+                .andExpect(jsonPath("$[*].title").value(not(hasItem("New Task"))));
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(jsonPath("$[*].title").value(hasItem("On replica")));
+    }
+    
+    @Test
+    void laggingReplica_ShouldBeTakenOutOfRotation() throws Exception {
+        // Arrange
+        replica.update("UPDATE replication_lag SET lag_seconds = 60");
+        
+        // Act
+        replicaHealthMonitor.check();
+        
+        // Assert
+        assertEquals(0, replicaHealthMonitor.getHealthyCount());
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(jsonPath("$[*].title").value(hasItem("On primary")));
+    }
+    
+    @Test
+    void replicaReportingNoLag_ShouldBeTakenOutOfRotation() throws Exception {
+        // Arrange
+        replica.update("DELETE FROM replication_lag");
+        
+        // Act
+        replicaHealthMonitor.check();
+        
+        // Assert
+        assertEquals(0, replicaHealthMonitor.getHealthyCount());
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(jsonPath("$[*].title").value(hasItem("On primary")));
+    }
+    
+    @Test
+    void incompleteTaskCounter_ShouldReconcileAgainstPrimary() {
+        // Arrange
+        insertTask(replica, 1_000_003, "Only on replica");
+        
+        // Act
+        incompleteTaskCounter.reconcile();
+        
+        // Assert
+        assertEquals(1, incompleteTaskCounter.get());
+    }
+    
+    private static void insertTask(JdbcTemplate jdbc, long id, String title) {
+        jdbc.update("INSERT INTO task (id, title, description, completed, created_at) VALUES (?, ?, ?, false, ?)",
+                id, title, "Description", Timestamp.valueOf(LocalDateTime.now()));
+    }
+    
+    private static int countTitled(JdbcTemplate jdbc, String title) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM task WHERE title = ?", Integer.class, title);
+    }
+}
@@ -0,0 +1,96 @@
+package com.todo.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryCount
+ */
+class QueryCountTest {
+    
+    private static final String SELECT_BY_ID = "select t.id from task t where t.id=?";
+    
+    @Test
+    void executing_ShouldCountInEveryOpenScope() {
+        // Arrange
+        QueryCount outer = QueryCount.start("outer");
+        QueryCount inner = QueryCount.start("inner");
+        
+        // Act
+        QueryCount.executing("delete from task where id=?", false);
+        inner.close();
+        QueryCount.executing(SELECT_BY_ID, false);
+        outer.close();
+        QueryCount.executing(SELECT_BY_ID, false);
+        
+        // Assert
+        assertEquals(1, inner.getStatements());
+        assertEquals(1, inner.getDeletes());
+        assertEquals(2, outer.getStatements());
+        assertEquals(1, outer.getSelects());
+    }
+    
+    @Test
+    void executing_ShouldFail_WhenBudgetIsExceeded() {
+        // Arrange
+        try (QueryCount outer = QueryCount.start("test");
+             QueryCount request = QueryCount.start("GET /api/tasks", 1, 0, QueryCount.Mode.FAIL)) {
+            QueryCount.executing(SELECT_BY_ID, false);
+            
+            // Act
+            QueryBudgetExceededException ex = assertThrows(QueryBudgetExceededException.class,
+                    () -> QueryCount.executing("select count(*) from task", false));
+            
+            // Assert
+            assertTrue(ex.getMessage().startsWith("GET /api/tasks went over its budget of 1"), ex.getMessage());
+            assertEquals(2, outer.getStatements());
+        }
+    }
+    
+    @Test
+    void executing_ShouldFail_WhenOneStatementRepeats() {
+        // Arrange
+        try (QueryCount request = QueryCount.start("GET /api/tasks", QueryCount.UNLIMITED, 3, QueryCount.Mode.FAIL)) {
+            QueryCount.executing(SELECT_BY_ID, false);
+            QueryCount.executing(SELECT_BY_ID, false);
+            
+            // Act
+            QueryBudgetExceededException ex = assertThrows(QueryBudgetExceededException.class,
+                    () -> QueryCount.executing(SELECT_BY_ID, false));
+            
+            // Assert
+            assertTrue(ex.getMessage().contains("N+1"), ex.getMessage());
+        }
+    }
+    
+    @Test
+    void executing_ShouldNotTreatBatches_AsRepeats() {
+        // Arrange
+        try (QueryCount request = QueryCount.start("PUT /api/tasks/batch/complete", QueryCount.UNLIMITED, 3,
+                QueryCount.Mode.FAIL)) {
+            
+            // Act
+            for (int i = 0; i < 5; i++) {
+                QueryCount.executing("update task set completed=? where id=? and version=?", true);
+            }
+            
+            // Assert
+            assertEquals(5, request.getUpdates());
+        }
+    }
+    
+    @Test
+    void executing_ShouldOnlyLog_InLogMode() {
+        // Arrange
+        QueryCount request = QueryCount.start("GET /api/tasks", 0, 2, QueryCount.Mode.LOG);
+        
+        // Act
+        QueryCount.executing(SELECT_BY_ID, false);
+        QueryCount.executing(SELECT_BY_ID, false);
+        request.close();
+        
+        // Assert
+        assertEquals(2, request.getStatements());
+    }
+}
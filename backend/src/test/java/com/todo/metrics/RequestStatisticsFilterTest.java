@@ -0,0 +1,94 @@
+package com.todo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestStatisticsFilter
+ */
+class RequestStatisticsFilterTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private RequestStatisticsFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        filter = new RequestStatisticsFilter(beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+    
+    @Test
+    void doFilter_ShouldStampHeaders_BeforeBodyIsWritten() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/recent");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            // The budget scope the interceptor opens inside the request's own
+            try (QueryCount handler = QueryCount.start("GET /api/tasks/recent")) {
+                QueryCount.executing("select 1", false);
+                QueryCount.executing("select 2", false);
+            }
+            RequestStatistics.entityLoaded();
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks/recent");
+            res.getWriter().write("[]");
+            res.flushBuffer();
+            // Work done after the response committed is still recorded, just not in the headers
+            QueryCount.executing("select 3", false);
+        };
+        
+        // Act
+        filter.doFilter(request, response, chain);
+        
+        // Assert
+        assertEquals("2", response.getHeader(RequestStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("1", response.getHeader(RequestStatisticsFilter.ENTITIES_HEADER));
+        DistributionSummary statements = meterRegistry.get("todo.http.sql.statements")
+                .tag("uri", "/api/tasks/recent")
+                .tag("method", "GET")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(3.0, statements.totalAmount());
+    }
+    
+    @Test
+    void doFilter_ShouldNotCount_OutsideRequests() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/count");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // Act
+        filter.doFilter(request, response, (req, res) -> { });
+        QueryCount.executing("select 1", false);
+        
+        // Assert
+        assertEquals("0", response.getHeader(RequestStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals(0.0, meterRegistry.get("todo.http.sql.statements").summary().totalAmount());
+    }
+    
+    @Test
+    void doFilter_ShouldSkip_NonApiRequests() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        // Act
+        filter.doFilter(request, response, (req, res) -> { });
+        
+        // Assert
+        assertNull(response.getHeader(RequestStatisticsFilter.STATEMENTS_HEADER));
+        assertTrue(meterRegistry.find("todo.http.sql.statements").summaries().isEmpty());
+    }
+}
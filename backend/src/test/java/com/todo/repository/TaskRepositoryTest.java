@@ -1,13 +1,27 @@
 package com.todo.repository;
 
+import com.todo.dto.TaskDTO;
+import com.todo.metrics.QueryBudgetConfiguration;
+import com.todo.metrics.QueryBudgetExceededException;
+import com.todo.metrics.QueryCount;
 import com.todo.model.Task;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,12 +29,16 @@ import static org.junit.jupiter.api.Assertions.*;
  * Integration tests for TaskRepository
  */
 @DataJpaTest
+@Import(QueryBudgetConfiguration.class)
 @TestPropertySource(locations = "classpath:application-test.properties")
 class TaskRepositoryTest {
     
     @Autowired
     private TaskRepository taskRepository;
     
+    @Autowired
+    private TestEntityManager entityManager;
+    
     @BeforeEach
     void setUp() {
         taskRepository.deleteAll();
@@ -29,9 +47,9 @@ class TaskRepositoryTest {
     @Test
     void findByCompletedFalseOrderByCreatedAtDesc_ShouldReturnIncompleteTasks() {
         // Arrange
-        Task task1 = new Task(null, "Task 1", "Description 1", false, null);
-        Task task2 = new Task(null, "Task 2", "Description 2", true, null);
-        Task task3 = new Task(null, "Task 3", "Description 3", false, null);
+        Task task1 = new Task(null, "Task 1", "Description 1", false, null, null, null);
+        Task task2 = new Task(null, "Task 2", "Description 2", true, null, null, null);
+        Task task3 = new Task(null, "Task 3", "Description 3", false, null, null, null);
         
         taskRepository.save(task1);
         taskRepository.save(task2);
@@ -48,8 +66,8 @@ class TaskRepositoryTest {
     @Test
     void findAllByOrderByCreatedAtDesc_ShouldReturnAllTasksInDescendingOrder() {
         // Arrange
-        Task task1 = new Task(null, "Task 1", "Description 1", false, null);
-        Task task2 = new Task(null, "Task 2", "Description 2", true, null);
+        Task task1 = new Task(null, "Task 1", "Description 1", false, null, null, null);
+        Task task2 = new Task(null, "Task 2", "Description 2", true, null, null, null);
         
         taskRepository.save(task1);
         taskRepository.save(task2);
@@ -64,10 +82,221 @@ class TaskRepositoryTest {
                    allTasks.get(0).getCreatedAt().isEqual(allTasks.get(1).getCreatedAt()));
     }
     
+    @Test
+    void findIncompleteAfter_ShouldWalkAllIncompleteTasksWithoutGapsOrDuplicates() {
+        // Arrange
+        LocalDateTime sameInstant = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 7; i++) {
+            taskRepository.save(new Task(null, "Task " + i, "Description " + i, i == 3, null, null, null));
+        }
+        // Force timestamp ties so the id tiebreaker is exercised
+        entityManager.getEntityManager()
+                .createNativeQuery("update task set created_at = ?1")
+                .setParameter(1, sameInstant)
+                .executeUpdate();
+        entityManager.clear();
+        
+        // Act
+        List<TaskDTO> firstSlice = taskRepository.findIncompleteFirst(Limit.of(4));
+        TaskDTO last = firstSlice.get(firstSlice.size() - 1);
+        List<TaskDTO> secondSlice = taskRepository.findIncompleteAfter(last.getCreatedAt(), last.getId(), Limit.of(4));
+        
+        // Assert
+        assertEquals(4, firstSlice.size());
+        assertEquals(2, secondSlice.size());
+        List<Long> seen = firstSlice.stream().map(TaskDTO::getId).collect(Collectors.toList());
+        secondSlice.forEach(task -> assertFalse(seen.contains(task.getId())));
+        assertTrue(secondSlice.stream().noneMatch(TaskDTO::getCompleted));
+    }
+    
+    @Test
+    void streamAllByOrderByCreatedAtDesc_ShouldStreamEveryTask() {
+        // Arrange
+        taskRepository.save(new Task(null, "Task 1", "Description 1", false, null, null, null));
+        taskRepository.save(new Task(null, "Task 2", "Description 2", true, null, null, null));
+        
+        // Act
+        List<TaskDTO> streamed;
+        try (Stream<TaskDTO> tasks = taskRepository.streamAllByOrderByCreatedAtDesc()) {
+            streamed = tasks.collect(Collectors.toList());
+        }
+        
+        // Assert
+        assertEquals(2, streamed.size());
+    }
+    
+    @Test
+    void streamCreatedSince_ShouldOnlyStreamRecentTasks() {
+        // Arrange
+        Task recent = taskRepository.save(new Task(null, "Task 1", "Description 1", false, null, null, null));
+        Task old = taskRepository.save(new Task(null, "Task 2", "Description 2", true, null, null, null));
+        taskRepository.flush();
+        entityManager.getEntityManager()
+                .createQuery("update Task t set t.createdAt = :createdAt where t.id = :id")
+                .setParameter("createdAt", LocalDateTime.now().minusDays(1))
+                .setParameter("id", old.getId())
+                .executeUpdate();
+        
+        // Act
+        List<Long> streamed;
+        try (Stream<TaskDTO> tasks = taskRepository.streamCreatedSince(LocalDateTime.now().minusHours(1))) {
+            streamed = tasks.map(TaskDTO::getId).collect(Collectors.toList());
+        }
+        
+        // Assert
+        assertEquals(List.of(recent.getId()), streamed);
+    }
+    
+    @Test
+    void findIncompletePage_ShouldProjectWithoutManagingEntities() {
+        // Arrange
+        taskRepository.save(new Task(null, "Task 1", "Description 1", false, null, null, null));
+        taskRepository.save(new Task(null, "Task 2", "Description 2", true, null, null, null));
+        taskRepository.save(new Task(null, "Task 3", "Description 3", false, null, null, null));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Act
+        List<TaskDTO> page = taskRepository.findIncompletePage(PageRequest.of(0, 5));
+        List<TaskDTO> all = taskRepository.findAllNewestFirst();
+        
+        // Assert
+        assertEquals(2, page.size());
+        assertTrue(page.stream().noneMatch(TaskDTO::getCompleted));
+        assertEquals(3, all.size());
+        PersistenceContext persistenceContext = entityManager.getEntityManager()
+                .unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal();
+        assertEquals(0, persistenceContext.getNumberOfManagedEntities());
+    }
+    
+    @Test
+    void findAllById_ShouldLoadEveryTaskInOneQuery() {
+        // Arrange
+        List<Long> ids = Stream.of("Task 1", "Task 2", "Task 3")
+                .map(title -> taskRepository.save(new Task(null, title, "Description", false, null, null, null)).getId())
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Act
+        List<Task> tasks;
+        try (QueryCount queries = QueryCount.start("findAllById")) {
+            tasks = taskRepository.findAllById(ids);
+            
+            // Assert
+            assertEquals(3, tasks.size());
+            assertEquals(1, queries.getStatements());
+        }
+    }
+    
+    @Test
+    void findIncompletePage_ShouldReadPageInOneQuery() {
+        // Arrange
+        Stream.of("Task 1", "Task 2", "Task 3")
+                .forEach(title -> taskRepository.save(new Task(null, title, "Description", false, null, null, null)));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Act
+        try (QueryCount queries = QueryCount.start("findIncompletePage")) {
+            List<TaskDTO> page = taskRepository.findIncompletePage(PageRequest.of(0, 2));
+            
+            // Assert
+            assertEquals(2, page.size());
+            assertEquals(1, queries.getStatements());
+        }
+    }
+    
+    @Test
+    void findIncompleteAfter_ShouldReadPageInOneQuery() {
+        // Arrange
+        Stream.of("Task 1", "Task 2", "Task 3")
+                .forEach(title -> taskRepository.save(new Task(null, title, "Description", false, null, null, null)));
+        entityManager.flush();
+        entityManager.clear();
+        TaskDTO first = taskRepository.findIncompleteFirst(Limit.of(1)).get(0);
+        
+        // Act
+        try (QueryCount queries = QueryCount.start("findIncompleteAfter")) {
+            List<TaskDTO> page = taskRepository.findIncompleteAfter(first.getCreatedAt(), first.getId(), Limit.of(5));
+            
+            // Assert
+            assertEquals(2, page.size());
+            assertEquals(1, queries.getStatements());
+        }
+    }
+    
+    @Test
+    void deleteAllByIdInBatch_ShouldIssueOneDelete() {
+        // Arrange
+        List<Long> ids = Stream.of("Task 1", "Task 2", "Task 3")
+                .map(title -> taskRepository.save(new Task(null, title, "Description", true, null, null, null)).getId())
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Act
+        try (QueryCount queries = QueryCount.start("deleteAllByIdInBatch")) {
+            taskRepository.deleteAllByIdInBatch(ids);
+            
+            // Assert
+            assertEquals(1, queries.getStatements());
+            assertEquals(1, queries.getDeletes());
+        }
+    }
+    
+    @Test
+    void query_ShouldFail_WhenScopeIsOverBudget() {
+        // Arrange
+        taskRepository.save(new Task(null, "Task 1", "Description 1", false, null, null, null));
+        entityManager.flush();
+        
+        // Act & Assert
+        try (QueryCount queries = QueryCount.start("no queries allowed", 0, 0, QueryCount.Mode.FAIL)) {
+            assertThrows(QueryBudgetExceededException.class, () -> taskRepository.countByCompletedFalse());
+        }
+    }
+    
+    @Test
+    void completingStaleTask_ShouldFailOptimisticCheck() {
+        // Arrange
+        Task task = taskRepository.save(new Task(null, "Task 1", "Description 1", false, null, null, null));
+        taskRepository.flush();
+        entityManager.getEntityManager()
+                .createQuery("update versioned Task t set t.completed = true where t.id = :id")
+                .setParameter("id", task.getId())
+                .executeUpdate();
+        
+        // Act
+        task.setCompleted(true);
+        task.setCompletedAt(LocalDateTime.now());
+        
+        // Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskRepository.flush());
+    }
+    
+    @Test
+    void deletingStaleTask_ShouldFailOptimisticCheck() {
+        // Arrange
+        Task task = taskRepository.save(new Task(null, "Task 1", "Description 1", false, null, null, null));
+        taskRepository.flush();
+        entityManager.getEntityManager()
+                .createQuery("update versioned Task t set t.completed = true where t.id = :id")
+                .setParameter("id", task.getId())
+                .executeUpdate();
+        
+        // Act
+        taskRepository.delete(task);
+        
+        // Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskRepository.flush());
+    }
+    
     @Test
     void save_ShouldPersistTask() {
         // Arrange
-        Task task = new Task(null, "New Task", "New Description", false, null);
+        Task task = new Task(null, "New Task", "New Description", false, null, null, null);
         
         // Act
         Task savedTask = taskRepository.save(task);
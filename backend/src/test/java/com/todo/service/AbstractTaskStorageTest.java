@@ -0,0 +1,448 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
+import com.todo.dto.TaskDTO;
+import com.todo.dto.TaskStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Service and HTTP scenarios run against a real store, once per {@code todo.storage}
+ * engine: each subclass only configures the store. Tests share the context and its
+ * data, so they create their own tasks and assert relative to what was there before.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+abstract class AbstractTaskStorageTest {
+    
+    private static final int RACE_ROUNDS = 20;
+    
+    @Autowired
+    protected TaskService taskService;
+    
+    @Autowired
+    protected MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void createTask_ShouldReturnCreatedTask() {
+        // Act
+        TaskDTO created = create("Created task");
+        
+        // Assert
+        assertNotNull(created.getId());
+        assertEquals("Created task", created.getTitle());
+        assertEquals("Storage", created.getDescription());
+        assertFalse(created.getCompleted());
+        assertNotNull(created.getCreatedAt());
+    }
+    
+    @Test
+    void createTasks_ShouldSaveValidRequestsAndReportInvalidOnes() {
+        // Arrange
+        long before = taskService.getIncompleteTaskCount();
+        
+        // Act
+        List<BatchItemResult> results = taskService.createTasks(List.of(
+                new CreateTaskRequest("Batch 1", "Storage"),
+                new CreateTaskRequest("", "Storage"),
+                new CreateTaskRequest("Batch 3", "Storage")));
+        
+        // Assert
+        assertEquals(List.of(BatchItemResult.Status.CREATED, BatchItemResult.Status.INVALID,
+                        BatchItemResult.Status.CREATED),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertTrue(results.get(1).getMessage().contains("title"));
+        assertEquals("Batch 3", results.get(2).getTask().getTitle());
+        assertNotEquals(results.get(0).getId(), results.get(2).getId());
+        assertEquals(before + 2, taskService.getIncompleteTaskCount());
+    }
+    
+    @Test
+    void createTasks_ShouldRejectOversizedBatch() {
+        // Arrange
+        long before = taskService.getIncompleteTaskCount();
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i <= TaskService.MAX_BATCH_SIZE; i++) {
+            requests.add(new CreateTaskRequest("Oversized", "Storage"));
+        }
+        
+        // Act & Assert
+        assertThrows(BatchSizeExceededException.class, () -> taskService.createTasks(requests));
+        assertEquals(before, taskService.getIncompleteTaskCount());
+    }
+    
+    @Test
+    void getFirstPageIncompleteTasks_ShouldReturnNewestOpenTasks() {
+        // Arrange
+        TaskDTO done = create("Done first page");
+        taskService.getFirstPageIncompleteTasks();
+        TaskDTO newest = create("Newest first page");
+        taskService.markTaskAsCompleted(done.getId());
+        
+        // Act
+        List<TaskDTO> tasks = taskService.getFirstPageIncompleteTasks();
+        
+        // Assert
+        assertTrue(tasks.size() <= TaskService.PAGE_SIZE);
+        assertEquals(newest.getId(), tasks.get(0).getId());
+        assertTrue(tasks.stream().noneMatch(TaskDTO::getCompleted));
+    }
+    
+    @Test
+    void getFirstPageIncompleteTasksJson_ShouldIncludeTaskCreatedAfterItWasCached() throws Exception {
+        // Arrange
+        taskService.getFirstPageIncompleteTasksJson();
+        TaskDTO created = create("After cached json");
+        
+        // Act
+        byte[] json = taskService.getFirstPageIncompleteTasksJson();
+        
+        // Assert
+        TaskDTO[] tasks = objectMapper.readValue(json, TaskDTO[].class);
+        assertEquals(created.getId(), tasks[0].getId());
+    }
+    
+    @Test
+    void getIncompleteTasks_ShouldTakeTotalFromCounter() {
+        // Arrange
+        create("Counted page");
+        
+        // Act
+        Page<TaskDTO> page = taskService.getIncompleteTasks(0);
+        
+        // Assert
+        assertEquals(taskService.getIncompleteTaskCount(), page.getTotalElements());
+    }
+    
+    @Test
+    void getIncompleteTasksAfter_ShouldWalkAllOpenTasks() {
+        // Arrange
+        for (int i = 0; i < 7; i++) {
+            create("Cursor " + i);
+        }
+        long open = taskService.getIncompleteTaskCount();
+        
+        // Act
+        int seen = 0;
+        String cursor = null;
+        do {
+            CursorPage<TaskDTO> page = taskService.getIncompleteTasksAfter(cursor, 3);
+            seen += page.getContent().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        // Assert
+        assertEquals(open, seen);
+    }
+    
+    @Test
+    void getIncompleteTasksAfter_ShouldThrowException_WhenCursorIsMalformed() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> taskService.getIncompleteTasksAfter("not-a-cursor", 5));
+    }
+    
+    @Test
+    void searchTasks_ShouldFindTasksByWord_AndDropDeletedOnes() {
+        // Arrange
+        String word = "needle" + UUID.randomUUID().toString().replace("-", "");
+        TaskDTO kept = taskService.createTask(new CreateTaskRequest(word, "Storage"));
+        TaskDTO deleted = taskService.createTask(new CreateTaskRequest("Other", word));
+        taskService.deleteTask(deleted.getId());
+        
+        // Act
+        List<TaskDTO> found = taskService.searchTasks(word, 10);
+        
+        // Assert
+        assertEquals(List.of(kept.getId()), found.stream().map(TaskDTO::getId).toList());
+        assertTrue(taskService.searchTasks("", 10).isEmpty());
+    }
+    
+    @Test
+    void getAllTasks_ShouldReturnOpenAndCompletedTasksNewestFirst_LikeTheStream() {
+        // Arrange
+        TaskDTO older = create("Older of all");
+        TaskDTO newer = create("Newer of all");
+        taskService.markTaskAsCompleted(older.getId());
+        
+        // Act
+        List<TaskDTO> all = taskService.getAllTasks();
+        List<TaskDTO> streamed = new ArrayList<>();
+        taskService.streamAllTasks(streamed::add);
+        
+        // Assert
+        List<Long> ids = all.stream().map(TaskDTO::getId).toList();
+        assertTrue(ids.indexOf(newer.getId()) < ids.indexOf(older.getId()));
+        assertTrue(all.stream().filter(task -> task.getId().equals(older.getId())).findFirst().orElseThrow().getCompleted());
+        assertEquals(ids, streamed.stream().map(TaskDTO::getId).toList());
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldCompleteOnce_AndLeaveTheVersionAloneAfterwards() {
+        // Arrange
+        TaskDTO task = create("Complete me");
+        long before = taskService.getIncompleteTaskCount();
+        
+        // Act
+        TaskDTO completed = taskService.markTaskAsCompleted(task.getId());
+        String version = taskService.getChangeVersion();
+        TaskDTO again = taskService.markTaskAsCompleted(task.getId());
+        
+        // Assert
+        assertTrue(completed.getCompleted());
+        assertTrue(again.getCompleted());
+        assertEquals(before - 1, taskService.getIncompleteTaskCount());
+        assertEquals(version, taskService.getChangeVersion());
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldThrowException_WhenTaskNotFound() {
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.markTaskAsCompleted(-1L));
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldSucceedForBothCalls_WhenCompletedConcurrently() throws Exception {
+        for (int round = 0; round < RACE_ROUNDS; round++) {
+            // Arrange
+            TaskDTO task = create("Complete twice " + round);
+            long before = taskService.getIncompleteTaskCount();
+            
+            // Act
+            List<Future<TaskDTO>> results = race(
+                    () -> taskService.markTaskAsCompleted(task.getId()),
+                    () -> taskService.markTaskAsCompleted(task.getId()));
+            
+            // Assert
+            assertTrue(results.get(0).get().getCompleted());
+            assertTrue(results.get(1).get().getCompleted());
+            assertEquals(before - 1, taskService.getIncompleteTaskCount());
+        }
+    }
+    
+    @Test
+    void deleteTask_ShouldSucceed_WhenTaskIsCompletedConcurrently() throws Exception {
+        for (int round = 0; round < RACE_ROUNDS; round++) {
+            // Arrange
+            TaskDTO task = create("Complete and delete " + round);
+            long before = taskService.getIncompleteTaskCount();
+            
+            // Act
+            List<Future<TaskDTO>> results = race(
+                    () -> taskService.markTaskAsCompleted(task.getId()),
+                    () -> {
+                        taskService.deleteTask(task.getId());
+                        return null;
+                    });
+            
+            // Assert
+            try {
+                assertTrue(results.get(0).get().getCompleted());
+            } catch (ExecutionException ex) {
+                assertInstanceOf(TaskNotFoundException.class, ex.getCause());
+            }
+            results.get(1).get();
+            assertEquals(before - 1, taskService.getIncompleteTaskCount());
+            assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(task.getId()));
+        }
+    }
+    
+    @Test
+    void batches_ShouldReportEachTask() {
+        // Arrange
+        List<Long> ids = taskService.createTasks(List.of(
+                        new CreateTaskRequest("Batch complete 1", "Storage"),
+                        new CreateTaskRequest("Batch complete 2", "Storage")))
+                .stream().map(BatchItemResult::getId).toList();
+        
+        // Act
+        List<BatchItemResult> completed = taskService.markTasksAsCompleted(List.of(ids.get(0), -1L));
+        List<BatchItemResult> deleted = taskService.deleteTasks(List.of(ids.get(0), ids.get(1), -1L));
+        
+        // Assert
+        assertEquals(List.of(BatchItemResult.Status.COMPLETED, BatchItemResult.Status.NOT_FOUND),
+                completed.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals(List.of(BatchItemResult.Status.DELETED, BatchItemResult.Status.DELETED,
+                        BatchItemResult.Status.NOT_FOUND),
+                deleted.stream().map(BatchItemResult::getStatus).toList());
+        assertThrows(TaskNotFoundException.class, () -> taskService.markTaskAsCompleted(ids.get(1)));
+    }
+    
+    @Test
+    void deleteTask_ShouldRemoveOpenAndCompletedTasks() {
+        // Arrange
+        TaskDTO open = create("Delete open");
+        TaskDTO completed = create("Delete completed");
+        taskService.markTaskAsCompleted(completed.getId());
+        long before = taskService.getIncompleteTaskCount();
+        
+        // Act
+        taskService.deleteTask(open.getId());
+        taskService.deleteTask(completed.getId());
+        
+        // Assert
+        assertEquals(before - 1, taskService.getIncompleteTaskCount());
+        List<Long> ids = taskService.getAllTasks().stream().map(TaskDTO::getId).toList();
+        assertFalse(ids.contains(open.getId()));
+        assertFalse(ids.contains(completed.getId()));
+    }
+    
+    @Test
+    void deleteTask_ShouldThrowException_WhenTaskNotFound() {
+        // Act & Assert
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(-1L));
+    }
+    
+    @Test
+    void getChangeVersion_ShouldChangeWithWritesOnly() {
+        // Arrange
+        String before = taskService.getChangeVersion();
+        taskService.getAllTasks();
+        assertEquals(before, taskService.getChangeVersion());
+        
+        // Act
+        create("Versioned");
+        
+        // Assert
+        assertNotEquals(before, taskService.getChangeVersion());
+    }
+    
+    @Test
+    void getTaskStats_ShouldCountTodaysCreatedAndCompletedTasks() {
+        // Arrange
+        TaskStats.Day before = today(taskService.getTaskStats(1));
+        TaskDTO task = create("Stats");
+        
+        // Act
+        taskService.markTaskAsCompleted(task.getId());
+        TaskStats stats = taskService.getTaskStats(1);
+        
+        // Assert
+        assertEquals(before.getCreated() + 1, today(stats).getCreated());
+        assertEquals(before.getCompleted() + 1, today(stats).getCompleted());
+        assertEquals(taskService.getIncompleteTaskCount(), stats.getOpenTasks());
+    }
+    
+    @Test
+    void http_ShouldCreateCompleteAndDelete_AndRevalidateListsByVersion() throws Exception {
+        // Arrange
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTaskRequest("Over HTTP", "Storage"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readValue(created.getResponse().getContentAsByteArray(), TaskDTO.class).getId();
+        String etag = mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/tasks/recent").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put("/api/tasks/{id}/complete", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true));
+        mockMvc.perform(get("/api/tasks/recent").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/tasks/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void http_ShouldRejectInvalidRequests() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateTaskRequest("", "Storage"))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/incomplete").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/tasks/{id}/complete", -1L))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void http_ShouldStreamEveryTaskAsOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        create("Streamed");
+        int total = taskService.getAllTasks().size();
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tasks").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(total, body.lines().count());
+    }
+    
+    /**
+     * Starts both calls together on their own threads and waits for them to finish.
+     */
+    @SafeVarargs
+    private static <T> List<Future<T>> race(Callable<T>... calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.length);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> results = new ArrayList<>();
+            for (Callable<T> call : calls) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            for (Future<T> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    // asserted by the caller
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private TaskDTO create(String title) {
+        return taskService.createTask(new CreateTaskRequest(title, "Storage"));
+    }
+    
+    private static TaskStats.Day today(TaskStats stats) {
+        return stats.getDays().get(stats.getDays().size() - 1);
+    }
+}
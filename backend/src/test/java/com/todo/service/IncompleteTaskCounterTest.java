@@ -0,0 +1,142 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import com.todo.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IncompleteTaskCounter
+ */
+@ExtendWith(MockitoExtension.class)
+class IncompleteTaskCounterTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private TaskChangeVersion taskChangeVersion;
+    
+    @InjectMocks
+    private IncompleteTaskCounter counter;
+    
+    @Test
+    void get_ShouldServeFromMemory() throws Exception {
+        // Arrange
+        when(taskRepository.countByCompletedFalse()).thenReturn(3L);
+        counter.initialize();
+        
+        // Act
+        counter.get();
+        long result = counter.get();
+        
+        // Assert
+        assertEquals(3L, result);
+        verify(taskRepository, times(1)).countByCompletedFalse();
+    }
+    
+    @Test
+    void get_ShouldNotQuery_BeforeInitialized() {
+        // Act
+        long result = counter.get();
+        
+        // Assert
+        assertEquals(0L, result);
+        verifyNoInteractions(taskRepository);
+    }
+    
+    @Test
+    void reconcile_ShouldSkip_WhileACommitIsPending() throws Exception {
+        // Arrange
+        when(taskRepository.countByCompletedFalse()).thenReturn(2L);
+        counter.initialize();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.onTaskChanging(event(TaskChangedEvent.Type.CREATED, false));
+            counter.onTaskChanging(event(TaskChangedEvent.Type.CREATED, false));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            // The commit is in the table, its delta not yet in memory
+            when(taskRepository.countByCompletedFalse()).thenReturn(4L);
+            
+            // Act
+            counter.reconcile();
+            long whilePending = counter.get();
+            counter.onTaskChanged(event(TaskChangedEvent.Type.CREATED, false));
+            counter.onTaskChanged(event(TaskChangedEvent.Type.CREATED, false));
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            counter.reconcile();
+            
+            // Assert
+            assertEquals(1, synchronizations.size());
+            assertEquals(2L, whilePending);
+            assertEquals(4L, counter.get());
+            verify(taskRepository, times(2)).countByCompletedFalse();
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    @Test
+    void onTaskChanged_ShouldTrackCreatesCompletionsAndDeletes() throws Exception {
+        // Arrange
+        when(taskRepository.countByCompletedFalse()).thenReturn(2L);
+        counter.initialize();
+        
+        // Act
+        counter.onTaskChanged(event(TaskChangedEvent.Type.CREATED, false));
+        counter.onTaskChanged(event(TaskChangedEvent.Type.CREATED, false));
+        counter.onTaskChanged(event(TaskChangedEvent.Type.COMPLETED, true));
+        counter.onTaskChanged(event(TaskChangedEvent.Type.DELETED, false));
+        counter.onTaskChanged(event(TaskChangedEvent.Type.DELETED, true));
+        
+        // Assert
+        assertEquals(2L, counter.get());
+    }
+    
+    @Test
+    void reconcile_ShouldCorrectDrift() throws Exception {
+        // Arrange
+        when(taskRepository.countByCompletedFalse()).thenReturn(5L, 7L);
+        counter.initialize();
+        
+        // Act
+        counter.reconcile();
+        
+        // Assert
+        assertEquals(7L, counter.get());
+        verify(taskChangeVersion).increment();
+    }
+    
+    @Test
+    void onExternalTaskChanges_ShouldRecount_WithoutTreatingItAsDrift() throws Exception {
+        // Arrange
+        when(taskRepository.countByCompletedFalse()).thenReturn(5L, 9L);
+        counter.initialize();
+        
+        // Act
+        counter.onExternalTaskChanges(new ExternalTaskChangesEvent(3L));
+        counter.reconcileIfRequested();
+        
+        // Assert
+        assertEquals(9L, counter.get());
+        verify(taskRepository, times(2)).countByCompletedFalse();
+        verifyNoInteractions(taskChangeVersion);
+    }
+    
+    private TaskChangedEvent event(TaskChangedEvent.Type type, boolean completed) {
+        TaskDTO task = new TaskDTO(1L, "Task", "Description", completed, LocalDateTime.now());
+        return new TaskChangedEvent(type, task);
+    }
+}
@@ -0,0 +1,106 @@
+package com.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QuantileSketch
+ */
+class QuantileSketchTest {
+    
+    @Test
+    void quantile_ShouldStayWithinRelativeAccuracy() {
+        // Arrange
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 10_000; i++) {
+            sketch.record(i * 60.0);
+        }
+        
+        // Act
+        double p50 = sketch.quantile(0.5);
+        double p99 = sketch.quantile(0.99);
+        
+        // Assert
+        assertEquals(10_000, sketch.getCount());
+        assertEquals(5_000 * 60.0, p50, 5_000 * 60.0 * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(9_900 * 60.0, p99, 9_900 * 60.0 * QuantileSketch.RELATIVE_ACCURACY);
+    }
+    
+    @Test
+    void quantile_ShouldReturnZero_WhenEmptyOrBelowOneSecond() {
+        // Arrange
+        QuantileSketch sketch = new QuantileSketch();
+        
+        // Act
+        double empty = sketch.quantile(0.5);
+        sketch.record(0.3);
+        
+        // Assert
+        assertEquals(0, empty);
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(1, sketch.getCount());
+    }
+    
+    @Test
+    void merge_ShouldMatchRecordingEverythingInOneSketch() {
+        // Arrange
+        Random random = new Random(42);
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < 5_000; i++) {
+            double value = Math.exp(random.nextDouble() * 15);
+            whole.record(value);
+            (i % 2 == 0 ? first : second).record(value);
+        }
+        
+        // Act
+        first.merge(second);
+        
+        // Assert
+        assertEquals(whole.getCount(), first.getCount());
+        assertEquals(whole.quantile(0.5), first.quantile(0.5));
+        assertEquals(whole.quantile(0.9), first.quantile(0.9));
+        assertEquals(whole.quantile(0.99), first.quantile(0.99));
+    }
+    
+    @Test
+    void fromBytes_ShouldRestoreWhatToBytesWrote() {
+        // Arrange
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.record(0.5);
+        sketch.record(90);
+        sketch.record(3_600);
+        sketch.record(86_400 * 400.0);
+        
+        // Act
+        QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes());
+        
+        // Assert
+        assertEquals(sketch.getCount(), restored.getCount());
+        assertArrayEquals(sketch.toBytes(), restored.toBytes());
+        assertEquals(sketch.quantile(0.75), restored.quantile(0.75));
+    }
+    
+    @Test
+    void fromBytes_ShouldRejectCorruptBuckets() {
+        // Arrange
+        byte[] bytes = ByteBuffer.allocate(14).putInt(1).putShort((short) -1).putLong(1).array();
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(bytes));
+    }
+    
+    @Test
+    void fromBytes_ShouldRejectTruncatedSketch() {
+        // Arrange
+        byte[] bytes = ByteBuffer.allocate(8).putInt(2).putShort((short) 1).array();
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(bytes));
+    }
+}
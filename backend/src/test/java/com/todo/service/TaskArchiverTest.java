@@ -0,0 +1,145 @@
+package com.todo.service;
+
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archives on H2 and checks that archived tasks move out of the hot table while the
+ * service keeps showing them.
+ */
+@SpringBootTest
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1",
+        "todo.archive.min-age=P1D",
+        "todo.archive.batch-size=2",
+        "todo.archive.batch-pause=PT0S"
+    }
+)
+class TaskArchiverTest {
+    
+    @Autowired
+    private TaskArchiver taskArchiver;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final List<Long> old = new ArrayList<>();
+    private Long recent;
+    private Long open;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM task");
+        jdbcTemplate.update("DELETE FROM task_archive");
+        old.clear();
+        
+        for (int i = 0; i < 3; i++) {
+            Long id = create("Old " + i, 10 - i);
+            taskService.markTaskAsCompleted(id);
+            jdbcTemplate.update("UPDATE task SET completed_at = ? WHERE id = ?", daysAgo(2), id);
+            old.add(id);
+        }
+        // Completed before completion times were recorded: goes by its creation time
+        Long legacy = create("Legacy", 7);
+        jdbcTemplate.update("UPDATE task SET completed = true, completed_at = NULL WHERE id = ?", legacy);
+        old.add(legacy);
+        
+        recent = create("Recent", 5);
+        taskService.markTaskAsCompleted(recent);
+        open = create("Open", 4);
+    }
+    
+    @Test
+    void archive_ShouldMoveOldCompletedTasksInBatches() {
+        // Act
+        int moved = taskArchiver.archive();
+        
+        // Assert
+        assertEquals(4, moved);
+        assertEquals(List.of(open, recent).stream().sorted().collect(Collectors.toList()),
+                jdbcTemplate.queryForList("SELECT id FROM task ORDER BY id", Long.class));
+        assertEquals(old.stream().sorted().collect(Collectors.toList()),
+                jdbcTemplate.queryForList("SELECT id FROM task_archive ORDER BY id", Long.class));
+        assertEquals(0, taskArchiver.archive());
+    }
+    
+    @Test
+    void archive_ShouldMoveChangeVersion_OnlyWhenTasksMoved() {
+        // Arrange
+        String before = taskService.getChangeVersion();
+        
+        // Act
+        taskArchiver.archive();
+        String archived = taskService.getChangeVersion();
+        taskArchiver.archive();
+        
+        // Assert
+        assertNotEquals(before, archived);
+        assertEquals(archived, taskService.getChangeVersion());
+    }
+    
+    @Test
+    void getAllTasks_ShouldMergeArchivedTasksNewestFirst() {
+        // Arrange
+        List<Long> before = ids(taskService.getAllTasks());
+        
+        // Act
+        taskArchiver.archive();
+        List<TaskDTO> after = taskService.getAllTasks();
+        List<TaskDTO> streamed = new ArrayList<>();
+        taskService.streamAllTasks(streamed::add);
+        
+        // Assert
+        assertEquals(before, ids(after));
+        assertEquals(before, ids(streamed));
+        assertTrue(after.stream().filter(task -> old.contains(task.getId())).allMatch(TaskDTO::getCompleted));
+    }
+    
+    @Test
+    void archivedTasks_ShouldStaySearchableCompletableAndDeletable() {
+        // Arrange
+        taskArchiver.archive();
+        Long archived = old.get(0);
+        
+        // Act / Assert
+        assertEquals(List.of(archived), ids(taskService.searchTasks("Old 0", 10)));
+        assertTrue(taskService.markTaskAsCompleted(archived).getCompleted());
+        taskService.deleteTask(archived);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM task_archive WHERE id = ?", Integer.class, archived));
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(archived));
+    }
+    
+    private Long create(String title, int ageInDays) {
+        Long id = taskService.createTask(new CreateTaskRequest(title, title + " description")).getId();
+        jdbcTemplate.update("UPDATE task SET created_at = ? WHERE id = ?", daysAgo(ageInDays), id);
+        return id;
+    }
+    
+    private static Timestamp daysAgo(int days) {
+        return Timestamp.valueOf(LocalDateTime.now().minusDays(days));
+    }
+    
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,95 @@
+package com.todo.service;
+
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the batch endpoints' service methods against the one-at-a-time path on H2,
+ * using Hibernate statistics to count JDBC statements.
+ */
+@SpringBootTest
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+class TaskBatchThroughputTest {
+    
+    private static final int TASKS = 200;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void createTasks_ShouldUseFarFewerStatementsThanSingleCreates() {
+        // Arrange
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            requests.add(new CreateTaskRequest("Task " + i, "Description " + i));
+        }
+        
+        // Act
+        requests.forEach(taskService::createTask);
+        long singleStatements = statistics.getPrepareStatementCount();
+        
+        statistics.clear();
+        List<BatchItemResult> results = taskService.createTasks(requests);
+        long batchStatements = statistics.getPrepareStatementCount();
+        
+        // Assert
+        assertEquals(TASKS, results.size());
+        assertTrue(results.stream().allMatch(r -> r.getStatus() == BatchItemResult.Status.CREATED));
+        assertTrue(batchStatements * 10 < singleStatements,
+                "expected batching to cut statements, single=" + singleStatements + " batch=" + batchStatements);
+    }
+    
+    @Test
+    void markTasksAsCompleted_ShouldUseFarFewerStatementsThanSingleCompletes() {
+        // Arrange
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 2 * TASKS; i++) {
+            requests.add(new CreateTaskRequest("Task " + i, "Description " + i));
+        }
+        List<Long> ids = taskService.createTasks(requests).stream()
+                .map(BatchItemResult::getId)
+                .collect(Collectors.toList());
+        statistics.clear();
+        
+        // Act
+        ids.subList(0, TASKS).forEach(taskService::markTaskAsCompleted);
+        long singleStatements = statistics.getPrepareStatementCount();
+        
+        statistics.clear();
+        List<BatchItemResult> results = taskService.markTasksAsCompleted(ids.subList(TASKS, 2 * TASKS));
+        long batchStatements = statistics.getPrepareStatementCount();
+        
+        // Assert
+        assertTrue(results.stream().allMatch(r -> r.getStatus() == BatchItemResult.Status.COMPLETED));
+        assertTrue(batchStatements * 10 < singleStatements,
+                "expected batching to cut statements, single=" + singleStatements + " batch=" + batchStatements);
+    }
+}
@@ -0,0 +1,192 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import com.todo.repository.TaskChangeVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskChangeVersion
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskChangeVersionTest {
+    
+    @Mock
+    private TaskChangeVersionRepository repository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    private TaskChangeVersion changeVersion;
+    
+    @BeforeEach
+    void setUp() {
+        changeVersion = changeVersion(repository);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+    
+    @Test
+    void onTaskChanged_ShouldAdvanceOncePerTransaction_AfterCommit_WithoutStatements() {
+        // Arrange
+        String before = changeVersion.current();
+        
+        // Act
+        changeVersion.onTaskChanged(event());
+        changeVersion.onTaskChanged(event());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        String beforeCompletion = changeVersion.current();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        
+        // Assert
+        assertEquals(1, synchronizations.size());
+        assertEquals(before, beforeCompletion);
+        assertEquals(next(before), changeVersion.current());
+        verifyNoInteractions(repository, eventPublisher);
+    }
+    
+    @Test
+    void onTaskChanged_ShouldKeepVersion_WhenRolledBack() {
+        // Arrange
+        String before = changeVersion.current();
+        
+        // Act
+        changeVersion.onTaskChanged(event());
+        TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        changeVersion.poll();
+        
+        // Assert
+        assertEquals(before, changeVersion.current());
+        verify(repository, never()).increment();
+    }
+    
+    @Test
+    void poll_ShouldIncrementRowOnce_ForLocalChanges_AndTreatThemAsLocal() {
+        // Arrange
+        when(repository.findVersion()).thenReturn(Optional.of(5L), Optional.of(6L));
+        when(repository.increment()).thenReturn(1);
+        changeVersion.initialize();
+        changeVersion.increment();
+        changeVersion.increment();
+        String before = changeVersion.current();
+        
+        // Act
+        changeVersion.poll();
+        changeVersion.poll();
+        
+        // Assert
+        verify(repository, times(1)).increment();
+        verifyNoInteractions(eventPublisher);
+        assertEquals(before, changeVersion.current());
+    }
+    
+    @Test
+    void poll_ShouldPublishExternalChangesOnce_BeforeAdvancing() {
+        // Arrange
+        when(repository.findVersion()).thenReturn(Optional.of(0L), Optional.of(7L));
+        when(repository.increment()).thenReturn(1);
+        changeVersion.initialize();
+        changeVersion.increment();
+        String before = changeVersion.current();
+        doAnswer(invocation -> {
+            assertEquals(before, changeVersion.current());
+            return null;
+        }).when(eventPublisher).publishEvent(any(ExternalTaskChangesEvent.class));
+        
+        // Act
+        changeVersion.poll();
+        changeVersion.poll();
+        
+        // Assert
+        ArgumentCaptor<ExternalTaskChangesEvent> published = ArgumentCaptor.forClass(ExternalTaskChangesEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(published.capture());
+        assertEquals(7L, published.getValue().getVersion());
+        assertEquals(next(before), changeVersion.current());
+    }
+    
+    @Test
+    void poll_ShouldKeepLocalChangesForTheNextPoll_WhenTheRowCannotBeIncremented() {
+        // Arrange
+        when(repository.increment()).thenThrow(new IllegalStateException("Database down")).thenReturn(1);
+        when(repository.findVersion()).thenReturn(Optional.of(1L));
+        changeVersion.increment();
+        
+        // Act
+        assertThrows(IllegalStateException.class, () -> changeVersion.poll());
+        changeVersion.poll();
+        
+        // Assert
+        verify(repository, times(2)).increment();
+        verifyNoInteractions(eventPublisher);
+    }
+    
+    @Test
+    void close_ShouldIncrementRow_WhenLocalChangesAreUnpublished() {
+        // Arrange
+        changeVersion.increment();
+        
+        // Act
+        changeVersion.close();
+        changeVersion.close();
+        
+        // Assert
+        verify(repository, times(1)).increment();
+    }
+    
+    @Test
+    void current_ShouldCountInMemory_WhenNoRepository() {
+        // Arrange
+        TaskChangeVersion inMemory = changeVersion(null);
+        
+        // Act
+        inMemory.onTaskChanged(event());
+        TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        inMemory.poll();
+        inMemory.close();
+        
+        // Assert
+        assertTrue(inMemory.current().endsWith(".1"));
+        verifyNoInteractions(repository);
+    }
+    
+    private TaskChangeVersion changeVersion(TaskChangeVersionRepository repository) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                repository == null ? Map.of() : Map.of("taskChangeVersionRepository", repository));
+        return new TaskChangeVersion(beanFactory.getBeanProvider(TaskChangeVersionRepository.class), eventPublisher);
+    }
+    
+    private static String next(String version) {
+        int dot = version.lastIndexOf('.');
+        return version.substring(0, dot + 1) + (Long.parseLong(version.substring(dot + 1)) + 1);
+    }
+    
+    private TaskChangedEvent event() {
+        TaskDTO task = new TaskDTO(1L, "Task", "Description", false, LocalDateTime.now());
+        return new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task);
+    }
+}
@@ -0,0 +1,104 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.todo.dto.TaskDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskPageCache
+ */
+class TaskPageCacheTest {
+    
+    private final TaskPageCache cache =
+            new TaskPageCache(JsonMapper.builder().findAndAddModules().build(), 16, Duration.ofMinutes(1));
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    @Test
+    void get_ShouldLoadOnce_WhenCallersMissTheSamePageTogether() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Page<TaskDTO>> loader = () -> {
+            loading.countDown();
+            await(release);
+            return load();
+        };
+        CompletableFuture<TaskPageCache.Entry> first = CompletableFuture.supplyAsync(() -> cache.get(1, loader));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        
+        // Act
+        CompletableFuture<TaskPageCache.Entry> second = CompletableFuture.supplyAsync(() -> cache.get(1, loader));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().requestCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        
+        // Assert
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void get_ShouldLoadAgain_WhenTaskChangedDuringTheLoad() {
+        // Arrange
+        TaskPageCache.Entry raced = cache.get(0, () -> {
+            Page<TaskDTO> page = load();
+            cache.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, null));
+            return page;
+        });
+        
+        // Act
+        TaskPageCache.Entry entry = cache.get(0, this::load);
+        
+        // Assert
+        assertNotSame(raced, entry);
+        assertEquals(2, loads.get());
+        assertSame(entry, cache.get(0, this::load));
+    }
+    
+    @Test
+    void get_ShouldLoadAgain_WhenTheLoadFailed() {
+        // Arrange
+        assertThrows(IllegalStateException.class, () -> cache.get(0, () -> {
+            throw new IllegalStateException("down");
+        }));
+        
+        // Act
+        TaskPageCache.Entry entry = cache.get(0, this::load);
+        
+        // Assert
+        assertEquals(1, entry.getPage().getContent().size());
+        assertEquals(1, loads.get());
+    }
+    
+    private Page<TaskDTO> load() {
+        loads.incrementAndGet();
+        TaskDTO task = new TaskDTO(1L, "Task 1", "Description 1", false, LocalDateTime.now());
+        return new PageImpl<>(List.of(task), PageRequest.of(0, 5), 1);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import com.todo.repository.ArchivedTaskRepository;
+import com.todo.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskSearchIndexTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+    
+    @InjectMocks
+    private TaskSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index.index(task(1L, "Buy groceries", "Milk, eggs and bread"));
+        index.index(task(2L, "Call the bakery", "Order bread for the party"));
+        index.index(task(3L, "Write report", "Quarterly numbers for the café"));
+    }
+    
+    @Test
+    void tokenize_ShouldLowerCaseFoldAccentsAndSplitOnPunctuation() {
+        // Act
+        List<String> tokens = TaskSearchIndex.tokenize("Café-Menü, 2024 RÉSUMÉ!");
+        
+        // Assert
+        assertEquals(Arrays.asList("cafe", "menu", "2024", "resume"), tokens);
+    }
+    
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        // Arrange
+        index.index(task(4L, "Bread recipe", "Try a new one"));
+        
+        // Act
+        List<Long> result = index.search("bread", 10);
+        
+        // Assert
+        assertEquals(4L, result.get(0));
+        assertEquals(3, result.size());
+    }
+    
+    @Test
+    void search_ShouldMatchPrefixesAndFoldedAccents() {
+        // Act & Assert
+        assertEquals(List.of(1L), index.search("groc", 10));
+        assertEquals(List.of(3L), index.search("CAFÉ", 10));
+        assertEquals(List.of(2L), index.search("bak", 10));
+    }
+    
+    @Test
+    void search_ShouldNotExpandSingleCharacterPrefixes() {
+        // Act
+        List<Long> result = index.search("b", 10);
+        
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+    
+    @Test
+    void search_ShouldRequireEveryWord() {
+        // Act & Assert
+        assertEquals(List.of(2L), index.search("bread party", 10));
+        assertTrue(index.search("bread report", 10).isEmpty());
+    }
+    
+    @Test
+    void search_ShouldRankExactWordAbovePrefixExpansion() {
+        // Arrange
+        index.index(task(4L, "Plan", "Team offsite"));
+        index.index(task(5L, "Planning", "Team offsite"));
+        
+        // Act
+        List<Long> result = index.search("plan", 10);
+        
+        // Assert
+        assertEquals(Arrays.asList(4L, 5L), result);
+    }
+    
+    @Test
+    void search_ShouldHonourLimit_AndPreferNewerTasksOnTies() {
+        // Arrange
+        index.index(task(4L, "Same", "Same"));
+        index.index(task(5L, "Same", "Same"));
+        index.index(task(6L, "Same", "Same"));
+        
+        // Act
+        List<Long> result = index.search("same", 2);
+        
+        // Assert
+        assertEquals(Arrays.asList(6L, 5L), result);
+    }
+    
+    @Test
+    void onTaskChanged_ShouldIndexCreatedTasksAndDropDeletedOnes() {
+        // Act
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task(4L, "Renew passport", null)));
+        index.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, new TaskDTO(1L, null, null, false, null)));
+        
+        // Assert
+        assertEquals(List.of(4L), index.search("passport", 10));
+        assertTrue(index.search("groceries", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+    
+    @Test
+    void indexAndRemove_ShouldNotLoseTasks_WhenTheyShareATermConcurrently() throws Exception {
+        // Arrange
+        int churners = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(churners + 1);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<?>> churn = new ArrayList<>();
+        
+        // Act: every thread keeps adding to the term and emptying it again
+        for (int churner = 0; churner < churners; churner++) {
+            long first = 1_000_000L * (churner + 1);
+            churn.add(executor.submit(() -> {
+                for (long id = first; !done.get(); id++) {
+                    index.index(task(id, "Shared churn", "Gone again"));
+                    index.remove(id);
+                }
+            }));
+        }
+        int lost = 0;
+        for (long id = 100; id < 20_100; id++) {
+            index.index(task(id, "Shared kept", "Stays"));
+            if (!index.search("shared", 10).contains(id)) {
+                lost++;
+            }
+            index.remove(id);
+        }
+        done.set(true);
+        for (Future<?> future : churn) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // Assert
+        assertEquals(0, lost);
+    }
+    
+    @Test
+    void index_ShouldReplacePreviousTermsOfTheSameTask() {
+        // Act
+        index.index(task(1L, "Buy flowers", null));
+        
+        // Assert
+        assertTrue(index.search("groceries", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("flowers", 10));
+    }
+    
+    @Test
+    void build_ShouldStreamEveryLiveAndArchivedTask() {
+        // Arrange
+        TaskSearchIndex fresh = new TaskSearchIndex(taskRepository, archivedTaskRepository);
+        when(taskRepository.streamAllByOrderByCreatedAtDesc())
+                .thenReturn(Stream.of(task(7L, "Fix bike", "Flat tyre"), task(8L, "Book dentist", null)));
+        when(archivedTaskRepository.streamAllByOrderByCreatedAtDesc())
+                .thenReturn(Stream.of(task(5L, "Old tyre", "Recycled")));
+        
+        // Act
+        fresh.build();
+        
+        // Assert
+        assertEquals(3, fresh.size());
+        assertEquals(List.of(5L, 7L), fresh.search("tyre", 10));
+    }
+    
+    @Test
+    void catchUp_ShouldIndexTasksCreatedElsewhere_OnlyAfterExternalChanges() {
+        // Arrange
+        TaskSearchIndex fresh = new TaskSearchIndex(taskRepository, archivedTaskRepository);
+        when(taskRepository.streamAllByOrderByCreatedAtDesc())
+                .thenReturn(Stream.of(task(9L, "Water plants", "Balcony")));
+        when(archivedTaskRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.empty());
+        
+        // Act
+        fresh.catchUp();
+        int beforeChanges = fresh.size();
+        fresh.onExternalTaskChanges(new ExternalTaskChangesEvent(4L));
+        fresh.catchUp();
+        fresh.catchUp();
+        
+        // Assert
+        assertEquals(0, beforeChanges);
+        assertEquals(List.of(9L), fresh.search("plants", 10));
+        verify(taskRepository, times(1)).streamAllByOrderByCreatedAtDesc();
+    }
+    
+    @Test
+    void catchUp_ShouldOnlyReadTasksCreatedShortlyBeforeThePreviousScan() {
+        // Arrange
+        TaskSearchIndex fresh = new TaskSearchIndex(taskRepository, archivedTaskRepository);
+        when(taskRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.empty());
+        when(archivedTaskRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.empty());
+        LocalDateTime beforeBuild = LocalDateTime.now();
+        fresh.build();
+        LocalDateTime afterBuild = LocalDateTime.now();
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(taskRepository.streamCreatedSince(since.capture()))
+                .thenReturn(Stream.of(task(10L, "Repot cactus", "Bigger pot")));
+        
+        // Act
+        fresh.onExternalTaskChanges(new ExternalTaskChangesEvent(5L));
+        fresh.catchUp();
+        
+        // Assert
+        assertEquals(List.of(10L), fresh.search("cactus", 10));
+        assertFalse(since.getValue().isBefore(beforeBuild.minusSeconds(TaskSearchIndex.CATCH_UP_SLACK_SECONDS)));
+        assertFalse(since.getValue().isAfter(afterBuild.minusSeconds(TaskSearchIndex.CATCH_UP_SLACK_SECONDS)));
+        verify(taskRepository, times(1)).streamAllByOrderByCreatedAtDesc();
+        verify(archivedTaskRepository, times(1)).streamAllByOrderByCreatedAtDesc();
+    }
+    
+    private TaskDTO task(Long id, String title, String description) {
+        return new TaskDTO(id, title, description, false, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,89 @@
+package com.todo.service;
+
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on H2 with the second-level cache and counts JDBC statements through Hibernate
+ * statistics to show which reads the cache answers.
+ */
+@SpringBootTest
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = "spring.datasource.url=jdbc:h2:mem:secondlevelcache;DB_CLOSE_DELAY=-1"
+)
+class TaskSecondLevelCacheTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldFindTaskInCacheAndOnlyUpdate() {
+        // Arrange
+        Long id = create("Cached task");
+        statistics.clear();
+        
+        // Act
+        TaskDTO completed = taskService.markTaskAsCompleted(id);
+        
+        // Assert
+        assertTrue(completed.getCompleted());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Task.CACHE_REGION).getHitCount());
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldNotRunAnyStatement_WhenCachedTaskIsAlreadyCompleted() {
+        // Arrange
+        Long id = create("Completed twice");
+        taskService.markTaskAsCompleted(id);
+        statistics.clear();
+        
+        // Act
+        TaskDTO completed = taskService.markTaskAsCompleted(id);
+        
+        // Assert
+        assertTrue(completed.getCompleted());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void deleteTask_ShouldOnlyDelete_AndNotServeTheTaskAfterwards() {
+        // Arrange
+        Long id = create("Deleted task");
+        statistics.clear();
+        
+        // Act
+        taskService.deleteTask(id);
+        
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertThrows(TaskNotFoundException.class, () -> taskService.markTaskAsCompleted(id));
+    }
+    
+    private Long create(String title) {
+        return taskService.createTask(new CreateTaskRequest(title, "Description")).getId();
+    }
+}
@@ -0,0 +1,44 @@
+package com.todo.service;
+
+import com.todo.repository.TaskStore;
+import com.todo.storage.EmbeddedTaskStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the storage scenarios on the embedded store, with no database in the context.
+ */
+@ActiveProfiles("embedded")
+class TaskServiceEmbeddedStorageTest extends AbstractTaskStorageTest {
+    
+    @TempDir
+    static Path directory;
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @DynamicPropertySource
+    static void storageDirectory(DynamicPropertyRegistry registry) {
+        registry.add("todo.storage.embedded.directory", () -> directory.toString());
+    }
+    
+    @Test
+    void context_ShouldUseEmbeddedStoreWithoutDataSource() {
+        // Assert
+        assertInstanceOf(EmbeddedTaskStore.class, taskStore);
+        assertTrue(applicationContext.getBeansOfType(DataSource.class).isEmpty());
+    }
+}
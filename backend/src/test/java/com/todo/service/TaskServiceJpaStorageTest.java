@@ -0,0 +1,124 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import com.todo.metrics.QueryCount;
+import com.todo.repository.TaskRepository;
+import com.todo.repository.TaskStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the storage scenarios on JPA over H2, the default {@code todo.storage}, and pins
+ * down the statements the cheap paths take through the counting datasource proxy. The
+ * test profile runs query budgets in {@code FAIL} mode, so a handler going over its
+ * {@code @QueryBudget} answers 500 here.
+ */
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = "spring.datasource.url=jdbc:h2:mem:jpastorage;DB_CLOSE_DELAY=-1"
+)
+class TaskServiceJpaStorageTest extends AbstractTaskStorageTest {
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void context_ShouldUseTaskRepository() {
+        // Assert
+        assertInstanceOf(TaskRepository.class, taskStore);
+    }
+    
+    @Test
+    void getFirstPageIncompleteTasksJson_ShouldQueryOnce_ThenServeFromCache() {
+        // Arrange
+        taskService.createTask(new CreateTaskRequest("Recent", "Description"));
+        
+        // Act
+        QueryCount first = QueryCount.start("first");
+        taskService.getFirstPageIncompleteTasksJson();
+        first.close();
+        QueryCount second = QueryCount.start("second");
+        taskService.getFirstPageIncompleteTasksJson();
+        second.close();
+        
+        // Assert
+        assertEquals(1, first.getStatements());
+        assertEquals(0, second.getStatements());
+    }
+    
+    @Test
+    void deleteTask_ShouldFindCachedTaskAndOnlyDelete() {
+        // Arrange
+        TaskDTO task = taskService.createTask(new CreateTaskRequest("Delete me", "Description"));
+        
+        // Act
+        try (QueryCount queries = QueryCount.start("delete")) {
+            taskService.deleteTask(task.getId());
+            
+            // Assert
+            assertEquals(1, queries.getStatements());
+            assertEquals(1, queries.getDeletes());
+        }
+    }
+    
+    @Test
+    void markTasksAsCompleted_ShouldLookUpOnceAndBatchUpdates() {
+        // Arrange
+        List<Long> ids = createTasks(120);
+        
+        // Act
+        try (QueryCount queries = QueryCount.start("complete batch")) {
+            taskService.markTasksAsCompleted(ids);
+            
+            // Assert: one lookup and an update batch per 50 tasks
+            assertEquals(1, queries.getSelects());
+            assertEquals(3, queries.getUpdates());
+            assertEquals(4, queries.getStatements());
+        }
+    }
+    
+    @Test
+    void http_ShouldStayWithinBudget_ForLargestCreateBatch() throws Exception {
+        // Arrange
+        List<CreateTaskRequest> requests = IntStream.range(0, TaskService.MAX_BATCH_SIZE)
+                .mapToObj(i -> new CreateTaskRequest("Task " + i, "Description"))
+                .collect(Collectors.toList());
+        
+        // Act
+        try (QueryCount queries = QueryCount.start("create batch")) {
+            mockMvc.perform(post("/api/tasks/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requests)))
+                    .andExpect(status().isOk());
+            
+            // Assert: an id block and an insert batch per 50 tasks
+            assertEquals(20, queries.getInserts());
+            assertEquals(40, queries.getStatements());
+        }
+    }
+    
+    private List<Long> createTasks(int count) {
+        List<CreateTaskRequest> requests = IntStream.range(0, count)
+                .mapToObj(i -> new CreateTaskRequest("Task " + i, "Description"))
+                .collect(Collectors.toList());
+        return taskService.createTasks(requests).stream()
+                .map(BatchItemResult::getId)
+                .collect(Collectors.toList());
+    }
+}
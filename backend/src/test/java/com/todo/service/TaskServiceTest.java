@@ -1,27 +1,43 @@
 package com.todo.service;
 
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.todo.dto.BatchItemResult;
 import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
 import com.todo.dto.TaskDTO;
 import com.todo.model.Task;
+import com.todo.repository.ArchivedTaskRepository;
 import com.todo.repository.TaskRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,23 +49,49 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
     
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+    
+    @Mock
+    private IncompleteTaskCounter incompleteTaskCounter;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+    
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    
+    @Spy
+    private TaskPageCache taskPageCache =
+            new TaskPageCache(JsonMapper.builder().findAndAddModules().build(), 16, Duration.ofMinutes(1));
+    
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+    
     @InjectMocks
     private TaskService taskService;
     
     private Task task1;
     private Task task2;
+    private TaskDTO taskDTO1;
+    private TaskDTO taskDTO2;
     
     @BeforeEach
     void setUp() {
-        task1 = new Task(1L, "Task 1", "Description 1", false, LocalDateTime.now());
-        task2 = new Task(2L, "Task 2", "Description 2", false, LocalDateTime.now().minusHours(1));
+        task1 = new Task(1L, "Task 1", "Description 1", false, LocalDateTime.now(), null, null);
+        task2 = new Task(2L, "Task 2", "Description 2", false, LocalDateTime.now().minusHours(1), null, null);
+        taskDTO1 = new TaskDTO(1L, "Task 1", "Description 1", false, task1.getCreatedAt());
+        taskDTO2 = new TaskDTO(2L, "Task 2", "Description 2", false, task2.getCreatedAt());
     }
     
     @Test
     void createTask_ShouldReturnCreatedTask() {
         // Arrange
         CreateTaskRequest request = new CreateTaskRequest("New Task", "New Description");
-        Task savedTask = new Task(1L, "New Task", "New Description", false, LocalDateTime.now());
+        Task savedTask = new Task(1L, "New Task", "New Description", false, LocalDateTime.now(), null, null);
         
         when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
         
@@ -62,14 +104,61 @@ class TaskServiceTest {
         assertEquals("New Description", result.getDescription());
         assertFalse(result.getCompleted());
         verify(taskRepository, times(1)).save(any(Task.class));
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTasks_ShouldSaveValidRequestsAndReportInvalidOnes() {
+        // Arrange
+        List<CreateTaskRequest> requests = Arrays.asList(
+            new CreateTaskRequest("Task 1", "Description 1"),
+            new CreateTaskRequest("", "Description 2"),
+            new CreateTaskRequest("Task 3", "Description 3")
+        );
+        when(taskRepository.saveAll(any(List.class))).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).setId(10L + i);
+            }
+            return tasks;
+        });
+        
+        // Act
+        List<BatchItemResult> results = taskService.createTasks(requests);
+        
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(BatchItemResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getId());
+        assertEquals(BatchItemResult.Status.INVALID, results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().contains("title"));
+        assertEquals(BatchItemResult.Status.CREATED, results.get(2).getStatus());
+        assertEquals(11L, results.get(2).getTask().getId());
+        verify(taskRepository, times(1)).saveAll(any(List.class));
+        verify(eventPublisher, times(2)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    void createTasks_ShouldRejectOversizedBatch() {
+        // Arrange
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i <= TaskService.MAX_BATCH_SIZE; i++) {
+            requests.add(new CreateTaskRequest("Task", "Description"));
+        }
+        
+        // Act & Assert
+        assertThrows(BatchSizeExceededException.class, () -> {
+            taskService.createTasks(requests);
+        });
+        verifyNoInteractions(taskRepository);
     }
     
     @Test
     void getFirstPageIncompleteTasks_ShouldReturnMaxFiveTasks() {
         // Arrange
-        List<Task> tasks = Arrays.asList(task1, task2);
-        Page<Task> taskPage = new PageImpl<>(tasks);
-        when(taskRepository.findByCompletedFalseOrderByCreatedAtDesc(any(Pageable.class))).thenReturn(taskPage);
+        List<TaskDTO> tasks = Arrays.asList(taskDTO1, taskDTO2);
+        when(taskRepository.findIncompletePage(any(Pageable.class))).thenReturn(tasks);
         
         // Act
         List<TaskDTO> result = taskService.getFirstPageIncompleteTasks();
@@ -77,14 +166,126 @@ class TaskServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(taskRepository, times(1)).findByCompletedFalseOrderByCreatedAtDesc(any(Pageable.class));
+        verify(taskRepository, times(1)).findIncompletePage(any(Pageable.class));
+        verify(taskRepository, never()).findByCompletedFalseOrderByCreatedAtDesc(any(Pageable.class));
+    }
+    
+    @Test
+    void getFirstPageIncompleteTasksJson_ShouldServeFromCacheUntilTaskChanges() {
+        // Arrange
+        when(taskRepository.findIncompletePage(any(Pageable.class)))
+                .thenReturn(Arrays.asList(taskDTO1, taskDTO2));
+        
+        // Act
+        byte[] first = taskService.getFirstPageIncompleteTasksJson();
+        byte[] second = taskService.getFirstPageIncompleteTasksJson();
+        taskPageCache.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, null));
+        taskService.getFirstPageIncompleteTasksJson();
+        
+        // Assert
+        assertSame(first, second);
+        assertTrue(new String(first).contains("\"title\":\"Task 1\""));
+        verify(taskRepository, times(2)).findIncompletePage(any(Pageable.class));
+    }
+    
+    @Test
+    void getIncompleteTasks_ShouldTakeTotalFromCounterInsteadOfCountQuery() {
+        // Arrange
+        when(taskRepository.findIncompletePage(any(Pageable.class)))
+                .thenReturn(Arrays.asList(taskDTO1, taskDTO2, taskDTO1, taskDTO2, taskDTO1));
+        when(incompleteTaskCounter.get()).thenReturn(12L);
+        
+        // Act
+        Page<TaskDTO> result = taskService.getIncompleteTasks(1);
+        
+        // Assert
+        assertEquals(12L, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        verify(taskRepository, never()).countByCompletedFalse();
+        verify(taskRepository, never()).findByCompletedFalseOrderByCreatedAtDesc(any(Pageable.class));
+    }
+    
+    @Test
+    void getIncompleteTasksAfter_ShouldReturnNextCursor_WhenMoreTasksExist() {
+        // Arrange
+        when(taskRepository.findIncompleteFirst(Limit.of(2))).thenReturn(Arrays.asList(taskDTO1, taskDTO2));
+        
+        // Act
+        CursorPage<TaskDTO> result = taskService.getIncompleteTasksAfter(null, 1);
+        
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals(1L, result.getContent().get(0).getId());
+        TaskCursor next = TaskCursor.decode(result.getNextCursor());
+        assertEquals(task1.getId(), next.getId());
+        assertEquals(task1.getCreatedAt(), next.getCreatedAt());
+        verify(taskRepository, never()).findByCompletedFalseOrderByCreatedAtDesc(any(Pageable.class));
+    }
+    
+    @Test
+    void getIncompleteTasksAfter_ShouldSeekPastCursor() {
+        // Arrange
+        String cursor = TaskCursor.of(taskDTO1).encode();
+        when(taskRepository.findIncompleteAfter(eq(task1.getCreatedAt()), eq(1L), any(Limit.class)))
+                .thenReturn(Arrays.asList(taskDTO2));
+        
+        // Act
+        CursorPage<TaskDTO> result = taskService.getIncompleteTasksAfter(cursor, 5);
+        
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertNull(result.getNextCursor());
+        verify(taskRepository, times(1)).findIncompleteAfter(task1.getCreatedAt(), 1L, Limit.of(6));
+    }
+    
+    @Test
+    void getIncompleteTasksAfter_ShouldThrowException_WhenCursorIsMalformed() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> {
+            taskService.getIncompleteTasksAfter("not-a-cursor", 5);
+        });
+        verifyNoInteractions(taskRepository);
+    }
+    
+    @Test
+    void getIncompleteTasks_ShouldThrowException_WhenPageIsNegative() {
+        // Act & Assert
+        assertThrows(InvalidPageException.class, () -> taskService.getIncompleteTasks(-1));
+        verifyNoInteractions(taskRepository);
+    }
+    
+    @Test
+    void searchTasks_ShouldReturnTasksInRankOrder_SkippingRowsAlreadyGone() {
+        // Arrange
+        when(taskSearchIndex.search("task", 20)).thenReturn(Arrays.asList(2L, 9L, 1L));
+        when(taskRepository.findDtosByIdIn(Arrays.asList(2L, 9L, 1L))).thenReturn(Arrays.asList(taskDTO1, taskDTO2));
+        
+        // Act
+        List<TaskDTO> result = taskService.searchTasks("task", 20);
+        
+        // Assert
+        assertEquals(Arrays.asList(taskDTO2, taskDTO1), result);
+    }
+    
+    @Test
+    void searchTasks_ShouldNotQuery_WhenNothingMatches() {
+        // Arrange
+        when(taskSearchIndex.search("nothing", 100)).thenReturn(List.of());
+        
+        // Act
+        List<TaskDTO> result = taskService.searchTasks("nothing", 500);
+        
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(taskRepository);
     }
     
     @Test
     void getAllTasks_ShouldReturnAllTasks() {
         // Arrange
-        List<Task> tasks = Arrays.asList(task1, task2);
-        when(taskRepository.findAllByOrderByCreatedAtDesc()).thenReturn(tasks);
+        List<TaskDTO> tasks = Arrays.asList(taskDTO1, taskDTO2);
+        when(taskRepository.findAllNewestFirst()).thenReturn(tasks);
         
         // Act
         List<TaskDTO> result = taskService.getAllTasks();
@@ -92,15 +293,42 @@ class TaskServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(taskRepository, times(1)).findAllByOrderByCreatedAtDesc();
+        verify(taskRepository, times(1)).findAllNewestFirst();
+        verify(taskRepository, never()).findAllByOrderByCreatedAtDesc();
+    }
+    
+    @Test
+    void getAllTasks_ShouldMergeArchivedTasksNewestFirst() {
+        // Arrange
+        TaskDTO archived = new TaskDTO(3L, "Task 3", "Description 3", true, task1.getCreatedAt().minusMinutes(30));
+        when(taskRepository.findAllNewestFirst()).thenReturn(Arrays.asList(taskDTO1, taskDTO2));
+        when(archivedTaskRepository.findAllNewestFirst()).thenReturn(List.of(archived));
+        
+        // Act
+        List<TaskDTO> result = taskService.getAllTasks();
+        
+        // Assert
+        assertEquals(Arrays.asList(taskDTO1, archived, taskDTO2), result);
+    }
+    
+    @Test
+    void streamAllTasks_ShouldHandOverEveryProjectedTask() {
+        // Arrange
+        when(taskRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.of(taskDTO1, taskDTO2));
+        List<TaskDTO> received = new ArrayList<>();
+        
+        // Act
+        taskService.streamAllTasks(received::add);
+        
+        // Assert
+        assertEquals(Arrays.asList(taskDTO1, taskDTO2), received);
+        verify(taskRepository, never()).findAllNewestFirst();
     }
     
     @Test
     void markTaskAsCompleted_ShouldUpdateTaskStatus() {
         // Arrange
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
-        task1.setCompleted(true);
-        when(taskRepository.save(any(Task.class))).thenReturn(task1);
         
         // Act
         TaskDTO result = taskService.markTaskAsCompleted(1L);
@@ -108,47 +336,204 @@ class TaskServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.getCompleted());
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        assertTrue(task1.getCompleted());
+        assertNotNull(task1.getCompletedAt());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldNotPublishEvent_WhenTaskAlreadyCompleted() {
+        // Arrange
+        task1.setCompleted(true);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        
+        // Act
+        TaskDTO result = taskService.markTaskAsCompleted(1L);
+        
+        // Assert
+        assertTrue(result.getCompleted());
+        assertNull(task1.getCompletedAt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldReturnArchivedTask() {
+        // Arrange
+        TaskDTO archived = new TaskDTO(1L, "Task 1", "Description 1", true, task1.getCreatedAt());
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.findDtoById(1L)).thenReturn(Optional.of(archived));
+        
+        // Act
+        TaskDTO result = taskService.markTaskAsCompleted(1L);
+        
+        // Assert
+        assertEquals(archived, result);
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
     void markTaskAsCompleted_ShouldThrowException_WhenTaskNotFound() {
         // Arrange
         when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.findDtoById(999L)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThrows(TaskNotFoundException.class, () -> {
             taskService.markTaskAsCompleted(999L);
         });
-        verify(taskRepository, times(1)).findById(999L);
         verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void markTaskAsCompleted_ShouldReturnTask_WhenCompletedConcurrently() {
+        // Arrange
+        Task completedElsewhere = new Task(1L, "Task 1", "Description 1", true, task1.getCreatedAt(), null, 1L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1), Optional.of(completedElsewhere));
+        doThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L))
+                .when(eventPublisher).publishEvent(any(TaskChangedEvent.class));
+        
+        // Act
+        TaskDTO result = taskService.markTaskAsCompleted(1L);
+        
+        // Assert
+        assertTrue(result.getCompleted());
+        verify(transactionOperations, times(2)).execute(any());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    void deleteTask_ShouldDeleteCurrentRow_WhenTaskChangedConcurrently() {
+        // Arrange
+        Task completedElsewhere = new Task(1L, "Task 1", "Description 1", true, task1.getCreatedAt(), null, 1L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1), Optional.of(completedElsewhere));
+        doThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L))
+                .doNothing()
+                .when(taskRepository).delete(any(Task.class));
+        
+        // Act
+        taskService.deleteTask(1L);
+        
+        // Assert
+        verify(taskRepository).delete(completedElsewhere);
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    void deleteTask_ShouldReportConflict_WhenRetryConflictsToo() {
+        // Arrange
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        doThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L))
+                .when(taskRepository).delete(any(Task.class));
+        
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.deleteTask(1L));
+        verify(taskRepository, times(2)).delete(task1);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void markTasksAsCompleted_ShouldCompleteFoundTasksAndReportMissingOnes() {
+        // Arrange
+        when(taskRepository.findAllById(any(Iterable.class))).thenReturn(Arrays.asList(task1));
+        
+        // Act
+        List<BatchItemResult> results = taskService.markTasksAsCompleted(Arrays.asList(1L, 999L));
+        
+        // Assert
+        assertEquals(BatchItemResult.Status.COMPLETED, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(1).getStatus());
+        assertTrue(task1.getCompleted());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void deleteTasks_ShouldDeleteFoundTasksInOneStatement() {
+        // Arrange
+        when(taskRepository.findAllById(any(Iterable.class))).thenReturn(Arrays.asList(task1, task2));
+        
+        // Act
+        List<BatchItemResult> results = taskService.deleteTasks(Arrays.asList(1L, 2L, 3L));
+        
+        // Assert
+        assertEquals(BatchItemResult.Status.DELETED, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.DELETED, results.get(1).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(2).getStatus());
+        verify(taskRepository, times(1)).deleteAllByIdInBatch(any(Iterable.class));
+        verify(eventPublisher, times(2)).publishEvent(any(TaskChangedEvent.class));
     }
     
     @Test
     void deleteTask_ShouldDeleteTask_WhenTaskExists() {
         // Arrange
-        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
         
         // Act
         taskService.deleteTask(1L);
         
         // Assert
-        verify(taskRepository, times(1)).existsById(1L);
-        verify(taskRepository, times(1)).deleteById(1L);
+        verify(taskRepository, times(1)).delete(task1);
+        verify(archivedTaskRepository, never()).deleteByIdReturningCount(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+    
+    @Test
+    void deleteTask_ShouldDeleteCompletedTask() {
+        // Arrange
+        task1.setCompleted(true);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task1));
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        
+        // Act
+        taskService.deleteTask(1L);
+        
+        // Assert
+        verify(taskRepository, times(1)).delete(task1);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertTrue(event.getValue().getTask().getCompleted());
+    }
+    
+    @Test
+    void deleteTask_ShouldDeleteArchivedTask() {
+        // Arrange
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.deleteByIdReturningCount(1L)).thenReturn(1);
+        
+        // Act
+        taskService.deleteTask(1L);
+        
+        // Assert
+        verify(archivedTaskRepository, times(1)).deleteByIdReturningCount(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
     }
     
     @Test
     void deleteTask_ShouldThrowException_WhenTaskNotFound() {
         // Arrange
-        when(taskRepository.existsById(999L)).thenReturn(false);
+        when(taskRepository.findById(999L)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThrows(TaskNotFoundException.class, () -> {
             taskService.deleteTask(999L);
         });
-        verify(taskRepository, times(1)).existsById(999L);
-        verify(taskRepository, never()).deleteById(anyLong());
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void getIncompleteTaskCount_ShouldUseCounterWithoutQueryingTasks() {
+        // Arrange
+        when(incompleteTaskCounter.get()).thenReturn(42L);
+        
+        // Act
+        long result = taskService.getIncompleteTaskCount();
+        
+        // Assert
+        assertEquals(42L, result);
+        verifyNoInteractions(taskRepository);
     }
 }
 
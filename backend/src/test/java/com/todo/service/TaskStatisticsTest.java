@@ -0,0 +1,228 @@
+package com.todo.service;
+
+import com.todo.dto.TaskDTO;
+import com.todo.dto.TaskStats;
+import com.todo.model.TaskStatsDay;
+import com.todo.repository.TaskStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskStatistics
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskStatisticsTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 10, 12, 0);
+    private static final LocalDate TODAY = NOW.toLocalDate();
+    
+    @Mock
+    private IncompleteTaskCounter incompleteTaskCounter;
+    
+    @Mock
+    private TaskStatsRepository statsRepository;
+    
+    private TaskStatistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = statistics(statsRepository);
+    }
+    
+    @Test
+    void get_ShouldCountCreatedAndCompletedPerDay_WithoutQueries() {
+        // Arrange
+        when(incompleteTaskCounter.get()).thenReturn(4L);
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW.minusDays(2)));
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.COMPLETED, NOW.minusHours(1)));
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.DELETED, NOW));
+        
+        // Act
+        TaskStats stats = statistics.get(3);
+        
+        // Assert
+        assertEquals(4L, stats.getOpenTasks());
+        assertEquals(List.of(
+                new TaskStats.Day(TODAY.minusDays(2), 1, 0),
+                new TaskStats.Day(TODAY.minusDays(1), 0, 0),
+                new TaskStats.Day(TODAY, 1, 1)), stats.getDays());
+        assertEquals(1, stats.getTimeToComplete().getCount());
+        assertEquals(3_600, stats.getTimeToComplete().getP50Seconds(), 36);
+        verifyNoInteractions(statsRepository);
+    }
+    
+    @Test
+    void get_ShouldClampWindowToRetention() {
+        // Act
+        TaskStats stats = statistics.get(1_000);
+        
+        // Assert
+        assertEquals(30, stats.getDays().size());
+        assertEquals(TODAY, stats.getDays().get(29).getDate());
+    }
+    
+    @Test
+    void checkpoint_ShouldWriteOnlyChangedDays() {
+        // Arrange
+        statistics.restore();
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.COMPLETED, NOW.minusMinutes(5)));
+        
+        // Act
+        statistics.checkpoint();
+        statistics.checkpoint();
+        
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskStatsDay>> rows = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository, times(2)).saveAll(rows.capture());
+        assertEquals(1, rows.getAllValues().get(0).size());
+        TaskStatsDay row = rows.getAllValues().get(0).get(0);
+        assertEquals(TODAY, row.getStatsDate());
+        assertNotNull(row.getInstanceId());
+        assertEquals(1, row.getCreatedCount());
+        assertEquals(1, row.getCompletedCount());
+        assertTrue(rows.getAllValues().get(1).isEmpty());
+        verify(statsRepository, times(2)).deleteOlderThan(TODAY.minusDays(29));
+    }
+    
+    @Test
+    void checkpoint_ShouldRetryDays_WhenSaveFails() {
+        // Arrange
+        statistics.restore();
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        when(statsRepository.saveAll(any())).thenThrow(new IllegalStateException("down")).thenReturn(List.of());
+        
+        // Act
+        assertThrows(IllegalStateException.class, statistics::checkpoint);
+        statistics.checkpoint();
+        
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskStatsDay>> rows = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository, times(2)).saveAll(rows.capture());
+        assertEquals(1, rows.getAllValues().get(1).size());
+    }
+    
+    @Test
+    void restore_ShouldAddCheckpointToCountsSinceStartup() {
+        // Arrange
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.record(7_200);
+        when(statsRepository.findByStatsDateGreaterThanEqual(TODAY.minusDays(29)))
+                .thenReturn(List.of(new TaskStatsDay(TODAY, "earlier run", 5, 1, sketch.toBytes())));
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        
+        // Act
+        statistics.restore();
+        statistics.restore();
+        TaskStats stats = statistics.get(1);
+        
+        // Assert
+        assertEquals(new TaskStats.Day(TODAY, 6, 1), stats.getDays().get(0));
+        assertEquals(7_200, stats.getTimeToComplete().getP50Seconds(), 72);
+        verify(statsRepository, times(1)).findByStatsDateGreaterThanEqual(any());
+    }
+    
+    @Test
+    void checkpoint_ShouldWriteOnlyThisRunsCounts_UnderItsOwnInstanceId() {
+        // Arrange
+        when(statsRepository.findByStatsDateGreaterThanEqual(any()))
+                .thenReturn(List.of(new TaskStatsDay(TODAY, "earlier run", 5, 0, new QuantileSketch().toBytes())));
+        statistics.restore();
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        
+        // Act
+        statistics.checkpoint();
+        
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskStatsDay>> rows = ArgumentCaptor.forClass(List.class);
+        verify(statsRepository).saveAll(rows.capture());
+        TaskStatsDay row = rows.getValue().get(0);
+        assertNotEquals("earlier run", row.getInstanceId());
+        assertEquals(1, row.getCreatedCount());
+        assertEquals(6, statistics.get(1).getDays().get(0).getCreated());
+    }
+    
+    @Test
+    void restore_ShouldSkipRowsWhoseSketchCannotBeDecoded() {
+        // Arrange
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.record(60);
+        when(statsRepository.findByStatsDateGreaterThanEqual(TODAY.minusDays(29))).thenReturn(List.of(
+                new TaskStatsDay(TODAY.minusDays(1), "earlier run", 3, 3, new byte[] {0, 0, 0, 9}),
+                new TaskStatsDay(TODAY, "earlier run", 2, 1, sketch.toBytes())));
+        
+        // Act
+        statistics.restore();
+        TaskStats stats = statistics.get(2);
+        
+        // Assert
+        assertEquals(List.of(
+                new TaskStats.Day(TODAY.minusDays(1), 0, 0),
+                new TaskStats.Day(TODAY, 2, 1)), stats.getDays());
+        assertEquals(1, stats.getTimeToComplete().getCount());
+    }
+    
+    @Test
+    void restoreOnStartup_ShouldNotThrow_AndLeaveRestoreToTheNextCheckpoint() {
+        // Arrange
+        when(statsRepository.findByStatsDateGreaterThanEqual(any()))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(List.of(new TaskStatsDay(TODAY, "earlier run", 5, 0, new QuantileSketch().toBytes())));
+        statistics.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        
+        // Act
+        statistics.restoreOnStartup();
+        verify(statsRepository, never()).saveAll(any());
+        statistics.checkpoint();
+        
+        // Assert
+        verify(statsRepository, times(2)).findByStatsDateGreaterThanEqual(any());
+        assertEquals(6, statistics.get(1).getDays().get(0).getCreated());
+    }
+    
+    @Test
+    void checkpoint_ShouldKeepStatsInMemory_WhenNoRepository() {
+        // Arrange
+        TaskStatistics inMemory = statistics(null);
+        inMemory.onTaskChanged(event(TaskChangedEvent.Type.CREATED, NOW));
+        
+        // Act
+        inMemory.restore();
+        inMemory.checkpoint();
+        
+        // Assert
+        assertEquals(1, inMemory.get(1).getDays().get(0).getCreated());
+    }
+    
+    private TaskStatistics statistics(TaskStatsRepository repository) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                repository == null ? Map.of() : Map.of("taskStatsRepository", repository));
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        return new TaskStatistics(incompleteTaskCounter, beanFactory.getBeanProvider(TaskStatsRepository.class), 30, clock);
+    }
+    
+    private TaskChangedEvent event(TaskChangedEvent.Type type, LocalDateTime createdAt) {
+        TaskDTO task = new TaskDTO(1L, "Task", "Description", type == TaskChangedEvent.Type.COMPLETED, createdAt);
+        return new TaskChangedEvent(type, task);
+    }
+}
@@ -0,0 +1,196 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import com.todo.dto.WriteOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskWriteBehind
+ */
+class TaskWriteBehindTest {
+    
+    @TempDir
+    Path dir;
+    
+    private final TaskService taskService = mock(TaskService.class);
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
+    private final List<TaskWriteBehind> started = new ArrayList<>();
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        for (TaskWriteBehind writeBehind : started) {
+            writeBehind.destroy();
+        }
+    }
+    
+    @Test
+    void submitCreate_ShouldApplyQueuedCreatesInOneBatch() throws Exception {
+        // Arrange
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        TaskWriteBehind writeBehind = start(10, 50, Duration.ofMillis(200), TaskWriteBehind.Durability.JOURNAL);
+        
+        // Act
+        List<WriteOperation> accepted = IntStream.range(0, 5)
+                .mapToObj(i -> writeBehind.submitCreate(new CreateTaskRequest("Task " + i, "Description")))
+                .collect(Collectors.toList());
+        
+        // Assert
+        assertTrue(accepted.stream().allMatch(op -> op.getStatus() == WriteOperation.Status.PENDING));
+        WriteOperation last = awaitResolved(writeBehind, accepted.get(4).getId());
+        assertEquals(WriteOperation.Status.APPLIED, last.getStatus());
+        assertEquals(4L, last.getTaskId());
+        assertEquals("Task 4", last.getTask().getTitle());
+        verify(taskService, times(1)).createTasks(anyList());
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+    
+    @Test
+    void submitComplete_ShouldFailOperation_WhenTaskDoesNotExist() throws Exception {
+        // Arrange
+        when(taskService.markTasksAsCompleted(anyList())).thenReturn(List.of(
+                new BatchItemResult(0, 99L, BatchItemResult.Status.NOT_FOUND, "Task not found with id: 99", null)));
+        TaskWriteBehind writeBehind = start(10, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.MEMORY);
+        
+        // Act
+        WriteOperation accepted = writeBehind.submitComplete(99L);
+        
+        // Assert
+        WriteOperation resolved = awaitResolved(writeBehind, accepted.getId());
+        assertEquals(WriteOperation.Status.FAILED, resolved.getStatus());
+        assertEquals("Task not found with id: 99", resolved.getMessage());
+    }
+    
+    @Test
+    void submit_ShouldThrowWriteQueueFullException_WhenCapacityIsUsedUp() throws Exception {
+        // Arrange
+        when(taskService.markTasksAsCompleted(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        TaskWriteBehind writeBehind = start(2, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.MEMORY);
+        writeBehind.submitComplete(1L);
+        writeBehind.submitComplete(2L);
+        
+        // Act & Assert
+        assertThrows(WriteQueueFullException.class, () -> writeBehind.submitComplete(3L));
+        assertEquals(2, writeBehind.getPendingCount());
+    }
+    
+    @Test
+    void flush_ShouldRetry_WhenDatabaseFails() throws Exception {
+        // Arrange
+        when(taskService.markTasksAsCompleted(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of(new BatchItemResult(0, 1L, BatchItemResult.Status.COMPLETED, null, null)));
+        TaskWriteBehind writeBehind = start(10, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.MEMORY);
+        
+        // Act
+        WriteOperation accepted = writeBehind.submitComplete(1L);
+        
+        // Assert
+        WriteOperation resolved = awaitResolved(writeBehind, accepted.getId());
+        assertEquals(WriteOperation.Status.APPLIED, resolved.getStatus());
+        verify(taskService, times(2)).markTasksAsCompleted(List.of(1L));
+    }
+    
+    @Test
+    void start_ShouldReplayJournaledWrites_LeftOverWhileDatabaseWasDown() throws Exception {
+        // Arrange
+        when(taskService.createTasks(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        TaskWriteBehind stopped = start(10, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.FSYNC);
+        WriteOperation accepted = stopped.submitCreate(new CreateTaskRequest("Survivor", "Accepted during the outage"));
+        verify(taskService, timeout(1000)).createTasks(anyList());
+        stopped.destroy();
+        started.remove(stopped);
+        
+        reset(taskService);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        
+        // Act
+        TaskWriteBehind restarted = start(10, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.FSYNC);
+        
+        // Assert
+        WriteOperation resolved = awaitResolved(restarted, accepted.getId());
+        assertEquals(WriteOperation.Status.APPLIED, resolved.getStatus());
+        assertEquals("Survivor", resolved.getTask().getTitle());
+    }
+    
+    @Test
+    void start_ShouldReplayAllJournaledWrites_WhenMoreThanCapacityAreLeftOver() throws Exception {
+        // Arrange
+        when(taskService.createTasks(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        TaskWriteBehind stopped = start(3, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.JOURNAL);
+        List<WriteOperation> accepted = IntStream.range(0, 3)
+                .mapToObj(i -> stopped.submitCreate(new CreateTaskRequest("Task " + i, "Description")))
+                .collect(Collectors.toList());
+        verify(taskService, timeout(1000)).createTasks(anyList());
+        stopped.destroy();
+        started.remove(stopped);
+        
+        reset(taskService);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        
+        // Act
+        TaskWriteBehind restarted = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> start(1, 50, Duration.ofMillis(10), TaskWriteBehind.Durability.JOURNAL));
+        
+        // Assert
+        for (WriteOperation operation : accepted) {
+            assertEquals(WriteOperation.Status.APPLIED, awaitResolved(restarted, operation.getId()).getStatus());
+        }
+        reset(taskService);
+        when(taskService.createTasks(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        restarted.submitCreate(new CreateTaskRequest("Within capacity", "Description"));
+        assertThrows(WriteQueueFullException.class,
+                () -> restarted.submitCreate(new CreateTaskRequest("Beyond capacity", "Description")));
+    }
+    
+    private TaskWriteBehind start(int capacity, int batchSize, Duration maxDelay,
+                                  TaskWriteBehind.Durability durability) throws Exception {
+        TaskWriteBehind writeBehind = new TaskWriteBehind(taskService, objectMapper, capacity, batchSize, maxDelay,
+                durability, dir.resolve("write-behind.journal"), Duration.ofMinutes(1));
+        writeBehind.start();
+        started.add(writeBehind);
+        return writeBehind;
+    }
+    
+    private static WriteOperation awaitResolved(TaskWriteBehind writeBehind, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            WriteOperation operation = writeBehind.find(id);
+            if (operation.getStatus() != WriteOperation.Status.PENDING) {
+                return operation;
+            }
+            Thread.sleep(10);
+        }
+        fail("Operation " + id + " was not applied in time");
+        return null;
+    }
+    
+    private static List<BatchItemResult> created(List<CreateTaskRequest> requests) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTaskRequest request = requests.get(i);
+            TaskDTO task = new TaskDTO((long) i, request.getTitle(), request.getDescription(), false, LocalDateTime.now());
+            results.add(new BatchItemResult(i, task.getId(), BatchItemResult.Status.CREATED, null, task));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,235 @@
+package com.todo.storage;
+
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedTaskStoreTest {
+    
+    @TempDir
+    Path directory;
+    
+    private EmbeddedTaskStore store;
+    private final List<EmbeddedTaskStore> reopened = new ArrayList<>();
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open(DataSize.ofMegabytes(64));
+        transactionTemplate = new TransactionTemplate(new EmbeddedTransactionManager());
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+        for (EmbeddedTaskStore copy : reopened) {
+            copy.close();
+        }
+    }
+    
+    @Test
+    void reopen_ShouldRecoverTasksAndChangesFromTheLog() throws IOException {
+        // Arrange
+        Task first = store.save(task("First", LocalDateTime.of(2024, 1, 1, 10, 0)));
+        Task second = store.save(task("Second", LocalDateTime.of(2024, 1, 2, 10, 0)));
+        transactionTemplate.executeWithoutResult(status ->
+                store.findById(first.getId()).orElseThrow().setCompleted(true));
+        store.delete(store.findById(second.getId()).orElseThrow());
+        
+        // Act
+        EmbeddedTaskStore reopened = reopenWithoutSnapshot();
+        
+        // Assert
+        Task recovered = reopened.findById(first.getId()).orElseThrow();
+        assertTrue(recovered.getCompleted());
+        assertEquals(1L, recovered.getVersion());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), recovered.getCreatedAt());
+        assertTrue(reopened.findById(second.getId()).isEmpty());
+        assertEquals(0, reopened.countByCompletedFalse());
+        assertEquals(second.getId() + 1, reopened.save(task("Third", LocalDateTime.now())).getId());
+    }
+    
+    @Test
+    void compact_ShouldWriteSnapshotAndEmptyTheLog() throws IOException {
+        // Arrange
+        Task kept = store.save(task("Kept", LocalDateTime.of(2024, 1, 1, 10, 0)));
+        Task deleted = store.save(task("Deleted", LocalDateTime.of(2024, 1, 2, 10, 0)));
+        store.delete(deleted);
+        
+        // Act
+        store.compact();
+        store.close();
+        store = open(DataSize.ofMegabytes(64));
+        
+        // Assert
+        assertEquals(List.of(kept.getId()), ids(store.findAllNewestFirst()));
+        assertEquals(deleted.getId() + 1, store.save(task("Next", LocalDateTime.now())).getId());
+    }
+    
+    @Test
+    void save_ShouldCompact_WhenLogReachesThreshold() throws IOException {
+        // Arrange
+        store.close();
+        store = open(DataSize.ofBytes(1024));
+        
+        // Act
+        for (int i = 0; i < 50; i++) {
+            store.save(task("Task " + i, LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(i)));
+        }
+        
+        // Assert
+        assertTrue(Files.exists(directory.resolve("tasks.snapshot")));
+        assertEquals(50, reopenWithoutSnapshot().countByCompletedFalse());
+    }
+    
+    @Test
+    void reopen_ShouldIgnoreTornEntryAtTheEndOfTheLog() throws IOException {
+        // Arrange
+        Task intact = store.save(task("Intact", LocalDateTime.of(2024, 1, 1, 10, 0)));
+        Task torn = store.save(task("Torn", LocalDateTime.of(2024, 1, 2, 10, 0)));
+        
+        // Act
+        EmbeddedTaskStore reopened = reopenWithoutSnapshot(file -> {
+            // Damage the payload of the last entry
+            long offset = findEndOfLog(file) - 1;
+            file.seek(offset);
+            int last = file.readByte();
+            file.seek(offset);
+            file.writeByte(last ^ 0xFF);
+        });
+        
+        // Assert
+        assertTrue(reopened.findById(intact.getId()).isPresent());
+        assertTrue(reopened.findById(torn.getId()).isEmpty());
+    }
+    
+    @Test
+    void save_ShouldThrow_WhenTaskWasChangedSinceItWasRead() {
+        // Arrange
+        Long id = store.save(task("Contended", LocalDateTime.now())).getId();
+        Task stale = store.findById(id).orElseThrow();
+        Task fresh = store.findById(id).orElseThrow();
+        fresh.setCompleted(true);
+        store.save(fresh);
+        
+        // Act & Assert
+        stale.setTitle("Renamed");
+        assertThrows(OptimisticLockingFailureException.class, () -> store.save(stale));
+        assertThrows(OptimisticLockingFailureException.class, () -> store.delete(stale));
+    }
+    
+    @Test
+    void transaction_ShouldWriteTrackedChangesBeforeCommit() {
+        // Arrange
+        Long id = store.save(task("Tracked", LocalDateTime.now())).getId();
+        
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = store.findById(id).orElseThrow();
+            task.setCompleted(true);
+            assertSame(task, store.findById(id).orElseThrow());
+        });
+        
+        // Assert
+        assertTrue(store.findById(id).orElseThrow().getCompleted());
+        assertEquals(0, store.countByCompletedFalse());
+    }
+    
+    @Test
+    void findIncomplete_ShouldPageNewestFirstWithTiesById() {
+        // Arrange
+        LocalDateTime tie = LocalDateTime.of(2024, 1, 2, 10, 0);
+        Long oldest = store.save(task("Oldest", LocalDateTime.of(2024, 1, 1, 10, 0))).getId();
+        Long tiedFirst = store.save(task("Tied 1", tie)).getId();
+        Long tiedSecond = store.save(task("Tied 2", tie)).getId();
+        Task done = task("Done", LocalDateTime.of(2024, 1, 3, 10, 0));
+        done.setCompleted(true);
+        Long completed = store.save(done).getId();
+        
+        // Act
+        List<TaskDTO> first = store.findIncompleteFirst(Limit.of(2));
+        List<TaskDTO> after = store.findIncompleteAfter(tie, tiedFirst, Limit.of(5));
+        List<TaskDTO> page = store.findIncompletePage(PageRequest.of(1, 2));
+        
+        // Assert
+        assertEquals(List.of(tiedFirst, tiedSecond), ids(first));
+        assertEquals(List.of(tiedSecond, oldest), ids(after));
+        assertEquals(List.of(oldest), ids(page));
+        assertEquals(List.of(completed, tiedFirst, tiedSecond, oldest), ids(store.findAllNewestFirst()));
+        assertEquals(3, store.countByCompletedFalse());
+    }
+    
+    private EmbeddedTaskStore open(DataSize compactThreshold) throws IOException {
+        return new EmbeddedTaskStore(directory, false, DataSize.ofKilobytes(4), compactThreshold);
+    }
+    
+    private EmbeddedTaskStore reopenWithoutSnapshot() throws IOException {
+        return reopenWithoutSnapshot(file -> { });
+    }
+    
+    /**
+     * Reopens the store as if the process had died: the current store is dropped
+     * without the snapshot it writes on close, and the log is reread.
+     */
+    private EmbeddedTaskStore reopenWithoutSnapshot(LogDamage damage) throws IOException {
+        Path copy = Files.createTempDirectory(directory, "crashed");
+        Path snapshot = directory.resolve("tasks.snapshot");
+        if (Files.exists(snapshot)) {
+            Files.copy(snapshot, copy.resolve("tasks.snapshot"));
+        }
+        Files.copy(directory.resolve("tasks.log"), copy.resolve("tasks.log"));
+        try (RandomAccessFile file = new RandomAccessFile(copy.resolve("tasks.log").toFile(), "rw")) {
+            damage.apply(file);
+        }
+        EmbeddedTaskStore recovered = new EmbeddedTaskStore(copy, false, DataSize.ofKilobytes(4), DataSize.ofMegabytes(64));
+        reopened.add(recovered);
+        return recovered;
+    }
+    
+    /**
+     * Offset just past the last entry: entries are {@code [length][crc][payload]}.
+     */
+    private static long findEndOfLog(RandomAccessFile file) throws IOException {
+        long offset = 0;
+        while (offset + 8 <= file.length()) {
+            file.seek(offset);
+            int length = file.readInt();
+            if (length == 0) {
+                break;
+            }
+            offset += 8 + length;
+        }
+        return offset;
+    }
+    
+    private static Task task(String title, LocalDateTime createdAt) {
+        return new Task(null, title, title + " description", false, createdAt, null, null);
+    }
+    
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).toList();
+    }
+    
+    @FunctionalInterface
+    private interface LogDamage {
+        void apply(RandomAccessFile file) throws IOException;
+    }
+}
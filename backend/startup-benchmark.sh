@@ -0,0 +1,69 @@
+#!/bin/sh
+# Startup time and time to first request of the standard and fast-startup builds.
+#
+#   mvn -Pfast-startup package -DskipTests
+#   SPRING_DATASOURCE_URL=jdbc:mysql://localhost:3307/tododb ./startup-benchmark.sh [runs]
+#
+# Each variant is started against the same migrated database. "context" is Spring's
+# "Started TodoApplication in" time; "first request" is from process launch to the
+# first successful GET /api/tasks/count. Medians of the runs are printed.
+set -eu
+
+RUNS=${1:-5}
+PORT=${SERVER_PORT:-8080}
+URL="http://localhost:$PORT/api/tasks/count"
+cd "$(dirname "$0")/target"
+
+if [ ! -f todo-backend.jsa ]; then
+    echo "target/todo-backend.jsa is missing: build with mvn -Pfast-startup package" >&2
+    exit 1
+fi
+
+if curl -s -o /dev/null "$URL"; then
+    echo "Port $PORT is already in use: stop the running backend or set SERVER_PORT" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# measure <name> <java arguments...>
+measure() {
+    name=$1
+    shift
+    : > startup-context.txt
+    : > startup-first-request.txt
+    run=0
+    while [ "$run" -lt "$RUNS" ]; do
+        start=$(now_ms)
+        java "$@" --server.port="$PORT" > startup.log 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$name did not start, see target/startup.log" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        echo $(( $(now_ms) - start )) >> startup-first-request.txt
+        sed -n 's/.*Started TodoApplication in \([0-9.]*\) seconds.*/\1/p' startup.log >> startup-context.txt
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        run=$((run + 1))
+    done
+    printf '%-34s %10s s %12s ms\n' "$name" "$(median < startup-context.txt)" "$(median < startup-first-request.txt)"
+}
+
+printf '%-34s %12s %15s\n' "variant" "context" "first request"
+measure "jar, ddl-auto=update (before)" -jar todo-backend-1.0.0-exec.jar \
+    --spring.jpa.hibernate.ddl-auto=update --todo.schema.migrate-on-startup=false
+measure "jar, Flyway + validate" -jar todo-backend-1.0.0-exec.jar
+measure "CDS" -XX:SharedArchiveFile=todo-backend.jsa -jar todo-backend-1.0.0.jar
+measure "CDS + AOT" -XX:SharedArchiveFile=todo-backend.jsa -Dspring.aot.enabled=true \
+    -jar todo-backend-1.0.0.jar
+rm -f startup-context.txt startup-first-request.txt
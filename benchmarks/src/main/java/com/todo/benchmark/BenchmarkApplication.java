@@ -0,0 +1,34 @@
+package com.todo.benchmark;
+
+import com.todo.TodoApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the backend without a web server against an in-memory H2 database in MySQL
+ * mode, so repository benchmarks exercise the real JPA mappings and queries.
+ */
+final class BenchmarkApplication {
+    
+    private BenchmarkApplication() {
+    }
+    
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                    "--spring.datasource.url=jdbc:h2:mem:" + databaseName
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN"
+                );
+    }
+}
@@ -0,0 +1,35 @@
+package com.todo.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line, always adds
+ * the GC profiler so allocation rates are reported, and writes a JSON result file
+ * ({@code jmh-result.json} unless {@code -rff} says otherwise) that can be diffed between runs.
+ */
+public final class BenchmarkRunner {
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.todo.benchmark;
+
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+import com.todo.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO mapping as done by {@link TaskService} on its write paths. The mapping
+ * is static, so the benchmark does not depend on the service's collaborators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskMappingBenchmark {
+    
+    @Param({"5", "100", "1000"})
+    private int size;
+    
+    private List<Task> tasks;
+    
+    @Setup
+    public void setUp() {
+        tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task((long) i, "Task " + i, "Description for task " + i, i % 3 == 0, now.minusMinutes(i), null, null));
+        }
+    }
+    
+    @Benchmark
+    public List<TaskDTO> convertList() {
+        return tasks.stream()
+                .map(TaskService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+}
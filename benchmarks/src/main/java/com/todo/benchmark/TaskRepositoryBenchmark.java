@@ -0,0 +1,125 @@
+package com.todo.benchmark;
+
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.TaskDTO;
+import com.todo.model.Task;
+import com.todo.repository.TaskRepository;
+import com.todo.service.TaskCursor;
+import com.todo.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paging and counting against H2 in MySQL mode: offset pages with and without the
+ * count query, keyset pages at the same depth, the two ways of counting open tasks, and
+ * loading every task as managed entities versus DTO projections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskRepositoryBenchmark {
+    
+    private static final int PAGE_SIZE = 5;
+    private static final int INSERT_CHUNK = 1000;
+    
+    @Param({"20000"})
+    private int rows;
+    
+    @Param({"0", "1000"})
+    private int page;
+    
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TaskService taskService;
+    private TaskCursor cursor;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("repository-bench");
+        taskRepository = context.getBean(TaskRepository.class);
+        taskService = context.getBean(TaskService.class);
+        
+        for (int inserted = 0; inserted < rows; inserted += INSERT_CHUNK) {
+            List<CreateTaskRequest> chunk = new ArrayList<>(INSERT_CHUNK);
+            for (int i = inserted; i < Math.min(rows, inserted + INSERT_CHUNK); i++) {
+                chunk.add(new CreateTaskRequest("Task " + i, "Description for task " + i));
+            }
+            taskService.createTasks(chunk);
+        }
+        
+        cursor = null;
+        for (int i = 0; i < page; i++) {
+            List<TaskDTO> slice = keysetSlice();
+            cursor = TaskCursor.of(slice.get(slice.size() - 1));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Page<Task> offsetPageWithCount() {
+        return taskRepository.findByCompletedFalseOrderByCreatedAtDesc(PageRequest.of(page, PAGE_SIZE));
+    }
+    
+    @Benchmark
+    public List<TaskDTO> offsetPageWithoutCount() {
+        return taskRepository.findIncompletePage(PageRequest.of(page, PAGE_SIZE));
+    }
+    
+    @Benchmark
+    public List<TaskDTO> keysetPage() {
+        return keysetSlice();
+    }
+    
+    @Benchmark
+    public List<Task> allTasksAsEntities() {
+        return taskRepository.findAllByOrderByCreatedAtDesc();
+    }
+    
+    @Benchmark
+    public List<TaskDTO> allTasksAsProjections() {
+        return taskRepository.findAllNewestFirst();
+    }
+    
+    @Benchmark
+    public long countQuery() {
+        return taskRepository.countByCompletedFalse();
+    }
+    
+    @Benchmark
+    public long countFromCounter() {
+        return taskService.getIncompleteTaskCount();
+    }
+    
+    private List<TaskDTO> keysetSlice() {
+        if (cursor == null) {
+            return taskRepository.findIncompleteFirst(Limit.of(PAGE_SIZE));
+        }
+        return taskRepository.findIncompleteAfter(cursor.getCreatedAt(), cursor.getId(), Limit.of(PAGE_SIZE));
+    }
+}
@@ -0,0 +1,91 @@
+package com.todo.benchmark;
+
+import com.todo.dto.TaskDTO;
+import com.todo.service.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory search index over synthetic tasks whose words follow
+ * a Zipf-like distribution, so some terms are rare and some appear in most tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskSearchBenchmark {
+    
+    private static final int VOCABULARY = 20_000;
+    private static final int LIMIT = 20;
+    
+    @Param({"1000000"})
+    private int tasks;
+    
+    @Param({"rare", "common", "two-words", "prefix"})
+    private String query;
+    
+    private TaskSearchIndex index;
+    private String[] words;
+    private String text;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36) + (char) ('a' + i % 26);
+        }
+        
+        index = new TaskSearchIndex(null, null);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= tasks; id++) {
+            index.index(new TaskDTO(id, sentence(random, 4), sentence(random, 12), false, now));
+        }
+        
+        switch (query) {
+            case "rare":
+                text = words[VOCABULARY - 1];
+                break;
+            case "common":
+                text = words[0];
+                break;
+            case "two-words":
+                text = words[0] + " " + words[50];
+                break;
+            default:
+                text = words[123].substring(0, 3);
+                break;
+        }
+    }
+    
+    @Benchmark
+    public List<Long> search() {
+        return index.search(text, LIMIT);
+    }
+    
+    private String sentence(Random random, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // Zipf-like: low indexes are far more frequent than high ones
+            int rank = (int) Math.min(VOCABULARY - 1, Math.floor(Math.pow(VOCABULARY, random.nextDouble())) - 1);
+            sentence.append(words[Math.max(0, rank)]).append(' ');
+        }
+        return sentence.toString();
+    }
+}
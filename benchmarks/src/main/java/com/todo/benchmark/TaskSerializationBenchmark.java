@@ -0,0 +1,92 @@
+package com.todo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.config.WebConfig;
+import com.todo.dto.OffsetPage;
+import com.todo.dto.TaskDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list and page responses, with the same date handling
+ * the web layer uses: JSON with ISO dates, and CBOR and Smile with epoch millisecond
+ * dates. Pages are serialized both as Spring's {@link Page} and as the slim
+ * {@link OffsetPage} envelope the API returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TaskSerializationBenchmark {
+    
+    @Param({"5", "100", "1000"})
+    private int size;
+    
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private List<TaskDTO> tasks;
+    private Page<TaskDTO> page;
+    private OffsetPage<TaskDTO> offsetPage;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        WebConfig webConfig = new WebConfig(null, null);
+        cborMapper = webConfig.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        smileMapper = webConfig.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskDTO((long) i, "Task " + i, "Description for task " + i, i % 3 == 0, now.minusMinutes(i)));
+        }
+        page = new PageImpl<>(tasks, PageRequest.of(0, size), 10L * size);
+        offsetPage = OffsetPage.of(page);
+    }
+    
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+    
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public byte[] serializeOffsetPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(offsetPage);
+    }
+    
+    @Benchmark
+    public byte[] serializeListCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(tasks);
+    }
+    
+    @Benchmark
+    public byte[] serializeListSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(tasks);
+    }
+}
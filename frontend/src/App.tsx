@@ -1,10 +1,12 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { Task, CreateTaskRequest } from './types/Task';
-import { taskApi } from './services/api';
+import { taskApi, TaskEventType } from './services/api';
 import TaskList from './components/TaskList';
 import TaskForm from './components/TaskForm';
 import './App.css';
 
+const PAGE_SIZE = 5;
+
 function App() {
   const [tasks, setTasks] = useState<Task[]>([]);
   const [loading, setLoading] = useState<boolean>(true);
@@ -12,11 +14,53 @@ function App() {
   const [totalTasks, setTotalTasks] = useState<number>(0);
   const [currentPage, setCurrentPage] = useState<number>(0);
   const [updating, setUpdating] = useState<boolean>(false);
+  const currentPageRef = useRef<number>(0);
+  const tasksRef = useRef<Task[]>([]);
+  const eventsConnected = useRef<boolean>(false);
+  const hasConnected = useRef<boolean>(false);
+
+  currentPageRef.current = currentPage;
+  tasksRef.current = tasks;
 
   useEffect(() => {
     loadFirstPage();
+    return taskApi.subscribeToEvents({
+      onEvent: handleTaskEvent,
+      onOpen: () => {
+        eventsConnected.current = true;
+        // Changes may have been missed while disconnected, so resync on reconnect
+        if (hasConnected.current) {
+          loadPage(currentPageRef.current);
+        }
+        hasConnected.current = true;
+      },
+      onError: () => {
+        eventsConnected.current = false;
+      },
+    });
   }, []);
 
+  /**
+   * Patches local state from a server-sent change instead of re-polling. Only a task
+   * leaving the visible page needs a fetch, to backfill the gap it leaves.
+   */
+  const handleTaskEvent = (type: TaskEventType, task: Task) => {
+    if (type === 'created') {
+      setTotalTasks((total) => total + 1);
+      if (currentPageRef.current === 0) {
+        setTasks((current) => [task, ...current.filter((t) => t.id !== task.id)].slice(0, PAGE_SIZE));
+      }
+      return;
+    }
+
+    if (type === 'completed' || !task.completed) {
+      setTotalTasks((total) => Math.max(0, total - 1));
+    }
+    if (tasksRef.current.some((t) => t.id === task.id)) {
+      loadPage(currentPageRef.current);
+    }
+  };
+
   const loadFirstPage = async () => {
     try {
       setLoading(true);
@@ -75,7 +119,10 @@ function App() {
     try {
       setError(null);
       await taskApi.createTask(taskData);
-      await loadFirstPage();
+      // Otherwise the "created" event puts the new task on screen
+      if (currentPage !== 0 || !eventsConnected.current) {
+        await loadFirstPage();
+      }
     } catch (err) {
       setError('Failed to create task. Please try again.');
       throw err;
@@ -89,10 +136,13 @@ function App() {
 
       await taskApi.completeTask(taskId);
 
-      const newTotal = await taskApi.getIncompleteTaskCount();
-      setTotalTasks(newTotal);
+      // Otherwise the "completed" event updates the count and the page
+      if (!eventsConnected.current) {
+        const newTotal = await taskApi.getIncompleteTaskCount();
+        setTotalTasks(newTotal);
 
-      await loadPage(currentPage);
+        await loadPage(currentPage);
+      }
 
     } catch (err) {
       setError('Failed to complete task. Please try again.');
@@ -105,7 +155,7 @@ function App() {
     loadPage(page);
   };
 
-  const totalPages = Math.ceil(totalTasks / 5);
+  const totalPages = Math.ceil(totalTasks / PAGE_SIZE);
 
   return (
     <div className="app">
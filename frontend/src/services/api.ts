@@ -9,16 +9,25 @@ const api = axios.create({
     'Content-Type': 'application/json',
   },
   timeout: 10000,
+  // Carries the read-your-writes cookie, so reads right after a change see it
+  withCredentials: true,
 });
 
 export interface PaginatedResponse<T> {
   content: T[];
+  /** Number of the following page, or null on the last page */
+  nextPage: number | null;
   totalElements: number;
-  totalPages: number;
-  size: number;
-  number: number;
-  first: boolean;
-  last: boolean;
+}
+
+export type TaskEventType = 'created' | 'completed' | 'deleted';
+
+const TASK_EVENT_TYPES: TaskEventType[] = ['created', 'completed', 'deleted'];
+
+export interface TaskEventHandlers {
+  onEvent: (type: TaskEventType, task: Task) => void;
+  onOpen?: () => void;
+  onError?: () => void;
 }
 
 export const taskApi = {
@@ -55,6 +64,26 @@ export const taskApi = {
   deleteTask: async (taskId: number): Promise<void> => {
     await api.delete(`/tasks/${taskId}`);
   },
+
+  /**
+   * Opens the server-sent event stream of task changes. For deleted tasks only
+   * `id` and `completed` are set. Returns a function that closes the stream.
+   */
+  subscribeToEvents: ({ onEvent, onOpen, onError }: TaskEventHandlers): (() => void) => {
+    const source = new EventSource(`${API_BASE_URL}/tasks/events`);
+    TASK_EVENT_TYPES.forEach((type) => {
+      source.addEventListener(type, (event) => {
+        onEvent(type, JSON.parse((event as MessageEvent<string>).data) as Task);
+      });
+    });
+    if (onOpen) {
+      source.onopen = onOpen;
+    }
+    if (onError) {
+      source.onerror = onError;
+    }
+    return () => source.close();
+  },
 };
 
 export default api;
\ No newline at end of file
@@ -0,0 +1,348 @@
+package com.todo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the REST API with an open workload: requests start on a schedule drawn up
+ * front from the arrival rate and the seed, whether or not earlier ones have returned,
+ * so a slow server faces a growing queue instead of a politely waiting client. Latency
+ * runs from each request's scheduled start, which keeps coordinated omission out of the
+ * percentiles.
+ *
+ * <p>The operation sequence and arrival times depend only on the options. Which task a
+ * complete or delete picks depends on the order earlier creates returned in.
+ */
+final class LoadDriver {
+    
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final int PAGE_DEPTH = 20;
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    
+    private final LoadTestOptions options;
+    private final URI tasks;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    
+    /** Open tasks to complete, then completed tasks to delete. */
+    private final Queue<Long> openIds = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> completedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final ServerSampler serverSampler;
+    private final AtomicLong created = new AtomicLong();
+    private long lastSample;
+    
+    LoadDriver(LoadTestOptions options, URI baseUri) {
+        this.options = options;
+        this.tasks = baseUri.resolve("/api/tasks");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .build();
+        this.serverSampler = new ServerSampler(baseUri, client);
+        for (Operation operation : options.mix.keySet()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+    
+    /**
+     * Creates {@code seed-tasks} tasks through the batch endpoint.
+     */
+    void seed() throws IOException, InterruptedException {
+        for (int offset = 0; offset < options.seedTasks; offset += SEED_BATCH_SIZE) {
+            int size = Math.min(SEED_BATCH_SIZE, options.seedTasks - offset);
+            List<Map<String, String>> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(newTask());
+            }
+            HttpResponse<byte[]> response = client.send(
+                    json(HttpRequest.newBuilder(URI.create(tasks + "/batch")), "POST", batch).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                openIds.add(result.get("id").asLong());
+            }
+        }
+    }
+    
+    LoadReport run() throws InterruptedException {
+        long warmupNanos = options.warmup.toNanos();
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        lastSample = measureStart;
+        long end = measureStart + options.duration.toNanos();
+        List<LoadReport.TimelinePoint> timeline = new ArrayList<>();
+        Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> sample(timeline, total),
+                warmupNanos + TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS);
+        ScheduledExecutorService serverSampling = Executors.newSingleThreadScheduledExecutor();
+        serverSampling.scheduleAtFixedRate(serverSampler::sample,
+                warmupNanos, TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS);
+        
+        Random random = new Random(options.seed);
+        Operation[] operations = options.mix.keySet().toArray(Operation[]::new);
+        int[] cumulativeWeights = cumulativeWeights(operations);
+        double meanGapNanos = 1e9 / options.rate;
+        double next = start;
+        while (next < end) {
+            long due = (long) next;
+            Operation operation = pick(operations, cumulativeWeights, random);
+            int page = random.nextInt(PAGE_DEPTH);
+            waitUntil(due);
+            send(operation, page, due, due >= measureStart);
+            next += options.arrivals == LoadTestOptions.Arrivals.POISSON
+                    ? -Math.log(1 - random.nextDouble()) * meanGapNanos
+                    : meanGapNanos;
+        }
+        
+        // Let outstanding requests finish or time out before the last sample
+        long drainDeadline = System.nanoTime() + options.timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        sampler.shutdown();
+        serverSampling.shutdown();
+        sampler.awaitTermination(1, TimeUnit.MINUTES);
+        serverSampling.awaitTermination(1, TimeUnit.MINUTES);
+        sample(timeline, total);
+        
+        return report(total, timeline);
+    }
+    
+    private void send(Operation operation, int page, long due, boolean measured) {
+        EndpointStats endpoint = stats.get(operation);
+        if (inFlight.get() >= options.maxInFlight) {
+            endpoint.count(measured, endpoint.dropped);
+            return;
+        }
+        
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(options.timeout);
+        Long id = null;
+        int expectedStatus = 200;
+        switch (operation) {
+            case CREATE -> {
+                json(request.uri(tasks), "POST", newTask());
+                expectedStatus = 201;
+            }
+            case RECENT -> request.uri(URI.create(tasks + "/recent")).GET();
+            case PAGE -> request.uri(URI.create(tasks + "/page/" + page)).GET();
+            case COUNT -> request.uri(URI.create(tasks + "/count")).GET();
+            case COMPLETE -> {
+                id = openIds.poll();
+                request.uri(URI.create(tasks + "/" + id + "/complete")).PUT(HttpRequest.BodyPublishers.noBody());
+            }
+            case DELETE -> {
+                id = completedIds.poll();
+                if (id == null) {
+                    id = openIds.poll();
+                }
+                request.uri(URI.create(tasks + "/" + id)).DELETE();
+                expectedStatus = 204;
+            }
+        }
+        if ((operation == Operation.COMPLETE || operation == Operation.DELETE) && id == null) {
+            endpoint.count(measured, endpoint.skipped);
+            return;
+        }
+        
+        Long taskId = id;
+        int expected = expectedStatus;
+        int outstanding = inFlight.incrementAndGet();
+        if (measured) {
+            peakInFlight.accumulateAndGet(outstanding, Math::max);
+        }
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, failure) -> {
+                    inFlight.decrementAndGet();
+                    long micros = (System.nanoTime() - due) / 1000;
+                    if (failure != null || response.statusCode() != expected) {
+                        endpoint.count(measured, endpoint.errors);
+                        return;
+                    }
+                    if (measured) {
+                        endpoint.recorder.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+                    }
+                    if (operation == Operation.CREATE) {
+                        openIds.add(createdId(response.body()));
+                    } else if (operation == Operation.COMPLETE) {
+                        completedIds.add(taskId);
+                    }
+                });
+    }
+    
+    /**
+     * Folds the last second's latencies into the totals and appends a timeline point.
+     */
+    private synchronized void sample(List<LoadReport.TimelinePoint> timeline, Histogram total) {
+        Histogram second = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long errors = 0;
+        long dropped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram interval = endpoint.recorder.getIntervalHistogram();
+            endpoint.latencies.add(interval);
+            second.add(interval);
+            errors += endpoint.drain();
+            dropped += endpoint.lastDropped;
+        }
+        total.add(second);
+        long now = System.nanoTime();
+        double seconds = Math.max(now - lastSample, 1) / 1e9;
+        lastSample = now;
+        LoadReport.Latency latency = LoadReport.Latency.of(second);
+        timeline.add(new LoadReport.TimelinePoint(timeline.size() + 1,
+                Math.round(second.getTotalCount() / seconds * 10) / 10.0,
+                errors, dropped, latency.p50(), latency.p99()));
+    }
+    
+    private LoadReport report(Histogram total, List<LoadReport.TimelinePoint> timeline) {
+        double seconds = options.duration.toNanos() / 1e9;
+        Map<String, LoadReport.EndpointReport> endpoints = new LinkedHashMap<>();
+        long errors = 0;
+        long dropped = 0;
+        long skipped = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            endpoints.put(entry.getKey().key(), endpoint.report(entry.getKey().getEndpoint(), seconds));
+            errors += endpoint.totalErrors;
+            dropped += endpoint.totalDropped;
+            skipped += endpoint.totalSkipped;
+        }
+        LoadReport.EndpointReport all = new LoadReport.EndpointReport("all", total.getTotalCount(),
+                errors, dropped, skipped, throughput(total.getTotalCount(), seconds), LoadReport.Latency.of(total));
+        return new LoadReport(config(), LoadReport.Environment.current(), all, endpoints,
+                serverSampler.report(peakInFlight.get()), timeline);
+    }
+    
+    private LoadReport.Config config() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix.forEach((operation, weight) -> mix.put(operation.key(), weight));
+        return new LoadReport.Config(
+                options.target == null ? "embedded" : options.target.toString(),
+                options.databaseUrl == null ? "h2" : options.databaseUrl,
+                options.rate, options.arrivals.name().toLowerCase(Locale.ROOT), options.seed,
+                options.warmup.toString(), options.duration.toString(), mix,
+                options.seedTasks, options.maxInFlight, options.timeout.toString());
+    }
+    
+    private Map<String, String> newTask() {
+        long n = created.incrementAndGet();
+        return Map.of("title", "Load test task " + n, "description", "Created by the load test, task " + n);
+    }
+    
+    private HttpRequest.Builder json(HttpRequest.Builder builder, String method, Object body) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    private long createdId(byte[] body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    private int[] cumulativeWeights(Operation[] operations) {
+        int[] cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += options.mix.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+    
+    private static Operation pick(Operation[] operations, int[] cumulativeWeights, Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (draw >= cumulativeWeights[i]) {
+            i++;
+        }
+        return operations[i];
+    }
+    
+    private static void waitUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+    
+    private static double throughput(long count, double seconds) {
+        return Math.round(count / seconds * 10) / 10.0;
+    }
+    
+    /**
+     * Counters and latencies of one endpoint over the measured part of the run.
+     */
+    private static final class EndpointStats {
+        
+        final Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        final Histogram latencies = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        long totalErrors;
+        long totalDropped;
+        long totalSkipped;
+        long lastDropped;
+        
+        void count(boolean measured, LongAdder counter) {
+            if (measured) {
+                counter.increment();
+            }
+        }
+        
+        /**
+         * Moves the counters into the totals. Returns the errors since the last call and
+         * leaves the drops in {@code lastDropped}.
+         */
+        long drain() {
+            long lastErrors = errors.sumThenReset();
+            lastDropped = dropped.sumThenReset();
+            totalErrors += lastErrors;
+            totalDropped += lastDropped;
+            totalSkipped += skipped.sumThenReset();
+            return lastErrors;
+        }
+        
+        LoadReport.EndpointReport report(String name, double seconds) {
+            return new LoadReport.EndpointReport(name, latencies.getTotalCount(), totalErrors, totalDropped,
+                    totalSkipped, throughput(latencies.getTotalCount(), seconds), LoadReport.Latency.of(latencies));
+        }
+    }
+}
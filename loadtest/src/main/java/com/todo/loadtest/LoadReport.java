@@ -0,0 +1,127 @@
+package com.todo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one run, written as JSON so runs against two releases can be diffed.
+ * Latencies are in milliseconds and measured from when a request was due to start, so
+ * time spent queued behind a saturated server is included.
+ */
+record LoadReport(Config config,
+                  Environment environment,
+                  EndpointReport total,
+                  Map<String, EndpointReport> endpoints,
+                  ServerReport server,
+                  List<TimelinePoint> timeline) {
+    
+    record Config(String target,
+                  String database,
+                  double rate,
+                  String arrivals,
+                  long seed,
+                  String warmup,
+                  String duration,
+                  Map<String, Integer> mix,
+                  int seedTasks,
+                  int maxInFlight,
+                  String timeout) {
+    }
+    
+    record Environment(String javaVersion, int processors, long maxHeapBytes) {
+        
+        static Environment current() {
+            return new Environment(System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(),
+                    Runtime.getRuntime().maxMemory());
+        }
+    }
+    
+    /**
+     * {@code requests} counts successful responses; {@code errors} failed or timed out
+     * ones; {@code dropped} arrivals not sent because {@code max-in-flight} requests were
+     * outstanding; {@code skipped} completes and deletes with no task left to act on.
+     */
+    record EndpointReport(String endpoint,
+                          long requests,
+                          long errors,
+                          long dropped,
+                          long skipped,
+                          double throughput,
+                          Latency latencyMillis) {
+    }
+    
+    /**
+     * Peaks over the measured run. {@code peakInFlight} is seen from the client; the
+     * rest is read from the target's actuator, and is null for metrics it does not
+     * expose. An embedded target shares its heap with the load generator.
+     */
+    record ServerReport(int peakInFlight,
+                        Double peakThreads,
+                        Double peakHeapBytes,
+                        Double peakDbConnections,
+                        Double heapBytesPerInFlight) {
+    }
+    
+    record Latency(double mean, double p50, double p90, double p99, double p999, double max) {
+        
+        /**
+         * Summarises a histogram recorded in microseconds.
+         */
+        static Latency of(Histogram micros) {
+            if (micros.getTotalCount() == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0);
+            }
+            return new Latency(millis(micros.getMean()),
+                    millis(micros.getValueAtPercentile(50)),
+                    millis(micros.getValueAtPercentile(90)),
+                    millis(micros.getValueAtPercentile(99)),
+                    millis(micros.getValueAtPercentile(99.9)),
+                    millis(micros.getMaxValue()));
+        }
+        
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+    
+    /**
+     * One second of the measured run, over all endpoints.
+     */
+    record TimelinePoint(int second, double throughput, long errors, long dropped, double p50Millis, double p99Millis) {
+    }
+    
+    void write(Path path) throws IOException {
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), this);
+    }
+    
+    void print(PrintStream out) {
+        out.printf("%-32s %10s %8s %8s %8s %10s %10s %10s %10s%n",
+                "endpoint", "req/s", "ok", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        endpoints.values().forEach(endpoint -> print(out, endpoint));
+        print(out, total);
+        out.printf("peak in flight %d, server threads %s, heap %s MB, db connections %s, heap per in-flight request %s KB%n",
+                server.peakInFlight(), format(server.peakThreads(), 1), format(server.peakHeapBytes(), 1 << 20),
+                format(server.peakDbConnections(), 1), format(server.heapBytesPerInFlight(), 1 << 10));
+    }
+    
+    private static String format(Double value, double unit) {
+        return value == null ? "n/a" : String.format("%.0f", value / unit);
+    }
+    
+    private static void print(PrintStream out, EndpointReport endpoint) {
+        Latency latency = endpoint.latencyMillis();
+        out.printf("%-32s %10.1f %8d %8d %8d %10.2f %10.2f %10.2f %10.2f%n",
+                endpoint.endpoint(), endpoint.throughput(), endpoint.requests(), endpoint.errors(),
+                endpoint.dropped(), latency.p50(), latency.p90(), latency.p99(), latency.max());
+    }
+}
@@ -0,0 +1,57 @@
+package com.todo.loadtest;
+
+import com.todo.TodoApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the backend with its real web server on a free port, against an in-memory H2
+ * database in MySQL mode or the MySQL database given by {@code --db-url}.
+ */
+final class LoadTestApplication {
+    
+    private LoadTestApplication() {
+    }
+    
+    static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        if (options.databaseUrl == null) {
+            properties.put("spring.datasource.url",
+                    "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        } else {
+            properties.put("spring.datasource.url", options.databaseUrl);
+            properties.put("spring.datasource.username", options.databaseUsername);
+            properties.put("spring.datasource.password", options.databasePassword);
+        }
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        // Spring joins repeated command line options, so the user's settings replace ours here
+        for (String arg : options.applicationArgs) {
+            int equals = arg.indexOf('=');
+            properties.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(args);
+    }
+    
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
@@ -0,0 +1,119 @@
+package com.todo.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line of {@code loadtest.jar}, given as {@code --name=value} pairs. Anything
+ * starting with {@code --spring.}, {@code --server.}, {@code --todo.},
+ * {@code --management.} or {@code --logging.} is passed on to the embedded application.
+ */
+final class LoadTestOptions {
+    
+    enum Arrivals { POISSON, CONSTANT }
+    
+    private static final List<String> APPLICATION_PREFIXES =
+            List.of("--spring.", "--server.", "--todo.", "--management.", "--logging.");
+    
+    /** Base URL of an already running backend; when null the backend is started in-process. */
+    URI target;
+    
+    /** JDBC URL of the in-process backend's database; when null an in-memory H2 in MySQL mode. */
+    String databaseUrl;
+    String databaseUsername = "todouser";
+    String databasePassword = "todopass";
+    
+    /** Requests started per second, whether or not earlier ones have finished. */
+    double rate = 200;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    Arrivals arrivals = Arrivals.POISSON;
+    long seed = 42;
+    Map<Operation, Integer> mix = defaultMix();
+    
+    /** Tasks created before the run so reads, completes and deletes have data from the start. */
+    int seedTasks = 1000;
+    
+    /** Requests allowed in flight; arrivals beyond this are counted as dropped instead of sent. */
+    int maxInFlight = 2000;
+    Duration timeout = Duration.ofSeconds(10);
+    Path report = Path.of("loadtest-report.json");
+    
+    final List<String> applicationArgs = new ArrayList<>();
+    
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            if (APPLICATION_PREFIXES.stream().anyMatch(arg::startsWith)) {
+                options.applicationArgs.add(arg);
+            } else {
+                options.set(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        if (options.rate <= 0 || options.maxInFlight <= 0
+                || options.duration.isZero() || options.duration.isNegative()) {
+            throw new IllegalArgumentException("rate, max-in-flight and duration must be positive");
+        }
+        return options;
+    }
+    
+    private void set(String name, String value) {
+        switch (name) {
+            case "target" -> target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+            case "db-url" -> databaseUrl = value;
+            case "db-username" -> databaseUsername = value;
+            case "db-password" -> databasePassword = value;
+            case "rate" -> rate = Double.parseDouble(value);
+            case "warmup" -> warmup = Duration.parse(value);
+            case "duration" -> duration = Duration.parse(value);
+            case "arrivals" -> arrivals = Arrivals.valueOf(value.toUpperCase(Locale.ROOT));
+            case "seed" -> seed = Long.parseLong(value);
+            case "mix" -> mix = parseMix(value);
+            case "seed-tasks" -> seedTasks = Integer.parseInt(value);
+            case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+            case "timeout" -> timeout = Duration.parse(value);
+            case "report" -> report = Path.of(value);
+            default -> throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+    
+    /**
+     * Parses {@code create:20,recent:40,...}. Operations left out get no traffic.
+     */
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            mix.put(Operation.fromKey(parts[0]), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix has no traffic");
+        }
+        return mix;
+    }
+    
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.getDefaultWeight());
+        }
+        return mix;
+    }
+}
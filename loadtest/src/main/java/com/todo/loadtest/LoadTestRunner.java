@@ -0,0 +1,42 @@
+package com.todo.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+
+/**
+ * Entry point of {@code loadtest.jar}. Starts the backend in-process unless
+ * {@code --target} points at a running one, seeds it with tasks, drives the configured
+ * mix at the configured rate, prints a summary and writes the full report as JSON
+ * ({@code loadtest-report.json} unless {@code --report} says otherwise).
+ */
+public final class LoadTestRunner {
+    
+    private LoadTestRunner() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        try {
+            URI target = options.target;
+            if (target == null) {
+                context = LoadTestApplication.start(options);
+                target = URI.create("http://localhost:" + LoadTestApplication.port(context));
+            }
+            
+            LoadDriver driver = new LoadDriver(options, target);
+            driver.seed();
+            LoadReport report = driver.run();
+            
+            report.print(System.out);
+            report.write(options.report);
+            System.out.println("Report written to " + options.report.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+}
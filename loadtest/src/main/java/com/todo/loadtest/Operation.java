@@ -0,0 +1,44 @@
+package com.todo.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The {@code TaskController} endpoints the load test drives, with their share of the
+ * default mix in percent.
+ */
+enum Operation {
+    
+    CREATE("POST /api/tasks", 15),
+    RECENT("GET /api/tasks/recent", 30),
+    PAGE("GET /api/tasks/page/{page}", 15),
+    COUNT("GET /api/tasks/count", 25),
+    COMPLETE("PUT /api/tasks/{id}/complete", 10),
+    DELETE("DELETE /api/tasks/{id}", 5);
+    
+    private final String endpoint;
+    private final int defaultWeight;
+    
+    Operation(String endpoint, int defaultWeight) {
+        this.endpoint = endpoint;
+        this.defaultWeight = defaultWeight;
+    }
+    
+    String getEndpoint() {
+        return endpoint;
+    }
+    
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+    
+    /**
+     * The name used on the command line and in the report.
+     */
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    static Operation fromKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+}
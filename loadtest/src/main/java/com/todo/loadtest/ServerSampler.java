@@ -0,0 +1,95 @@
+package com.todo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reads the target's actuator metrics once a second during the measured run and keeps
+ * the peak of each: live JVM threads, used heap and database connections in use. That
+ * puts the cost of serving the offered load next to the latencies, so the servlet
+ * backend and the reactive one can be compared at the same rate. Metrics the target
+ * does not expose are reported as {@code null}.
+ */
+final class ServerSampler {
+    
+    /** HikariCP for the servlet backend, the R2DBC pool for the reactive one. */
+    private static final List<String> CONNECTION_METRICS =
+            List.of("hikaricp.connections.active", "r2dbc.pool.acquired");
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+    
+    private final URI metrics;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Double peakThreads;
+    private Double peakHeapBytes;
+    private Double peakConnections;
+    
+    ServerSampler(URI baseUri, HttpClient client) {
+        this.metrics = baseUri.resolve("/actuator/metrics/");
+        this.client = client;
+    }
+    
+    synchronized void sample() {
+        peakThreads = max(peakThreads, read("jvm.threads.live"));
+        peakHeapBytes = max(peakHeapBytes, read("jvm.memory.used?tag=area:heap"));
+        for (String name : CONNECTION_METRICS) {
+            Double connections = read(name);
+            if (connections != null) {
+                peakConnections = max(peakConnections, connections);
+                break;
+            }
+        }
+    }
+    
+    /**
+     * The peaks so far, with the peak heap divided by the peak number of requests the
+     * client had in flight.
+     */
+    synchronized LoadReport.ServerReport report(int peakInFlight) {
+        Double heapPerRequest = peakHeapBytes == null || peakInFlight == 0
+                ? null
+                : (double) Math.round(peakHeapBytes / peakInFlight);
+        return new LoadReport.ServerReport(peakInFlight, peakThreads, peakHeapBytes, peakConnections, heapPerRequest);
+    }
+    
+    /**
+     * The summed {@code VALUE} measurement of a metric, or null when it is missing or the
+     * actuator cannot be reached.
+     */
+    private Double read(String metric) {
+        try {
+            HttpResponse<byte[]> response = client.send(
+                    HttpRequest.newBuilder(metrics.resolve(metric)).timeout(TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                if ("VALUE".equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+            return null;
+        } catch (IOException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    private static Double max(Double peak, Double value) {
+        if (value == null) {
+            return peak;
+        }
+        return peak == null ? value : Math.max(peak, value);
+    }
+}
@@ -0,0 +1,14 @@
+package com.todo.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+
+@SpringBootApplication
+@EnableScheduling
+public class ReactiveTodoApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveTodoApplication.class, args);
+    }
+}
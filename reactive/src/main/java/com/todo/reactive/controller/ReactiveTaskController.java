@@ -0,0 +1,94 @@
+package com.todo.reactive.controller;
+
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
+import com.todo.dto.OffsetPage;
+import com.todo.dto.TaskDTO;
+import com.todo.reactive.service.ReactiveTaskService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The backend's {@code /api/tasks} contract on WebFlux. Search, the server-sent change
+ * events, ETags, the binary formats and write-behind mode are backend-only.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveTaskController {
+    
+    private final ReactiveTaskService taskService;
+    
+    @PostMapping
+    public Mono<ResponseEntity<TaskDTO>> createTask(@Valid @RequestBody CreateTaskRequest request) {
+        return taskService.createTask(request)
+                .map(createdTask -> new ResponseEntity<>(createdTask, HttpStatus.CREATED));
+    }
+    
+    @PostMapping("/batch")
+    public Mono<List<BatchItemResult>> createTasks(@RequestBody List<CreateTaskRequest> requests) {
+        return taskService.createTasks(requests);
+    }
+    
+    @GetMapping("/recent")
+    public Flux<TaskDTO> getFirstPageTasks() {
+        return taskService.getFirstPageIncompleteTasks();
+    }
+    
+    @GetMapping("/page/{page}")
+    public Mono<OffsetPage<TaskDTO>> getTasksPage(@PathVariable int page) {
+        return taskService.getIncompleteTasks(page);
+    }
+    
+    @GetMapping("/incomplete")
+    public Mono<CursorPage<TaskDTO>> getIncompleteTasks(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "5") int limit) {
+        return taskService.getIncompleteTasksAfter(after, limit);
+    }
+    
+    /**
+     * A JSON array by default, or one task per line for {@code application/x-ndjson}.
+     * Either way tasks are written as they come off the database cursors, and only as
+     * fast as the client reads them.
+     */
+    @GetMapping
+    public Flux<TaskDTO> getAllTasks() {
+        return taskService.getAllTasks();
+    }
+    
+    @GetMapping("/count")
+    public Mono<Long> getIncompleteTaskCount() {
+        return taskService.getIncompleteTaskCount();
+    }
+    
+    @PutMapping("/{id}/complete")
+    public Mono<TaskDTO> completeTask(@PathVariable Long id) {
+        return taskService.markTaskAsCompleted(id);
+    }
+    
+    @PutMapping("/batch/complete")
+    public Mono<List<BatchItemResult>> completeTasks(@RequestBody List<Long> ids) {
+        return taskService.markTasksAsCompleted(ids);
+    }
+    
+    @DeleteMapping("/batch")
+    public Mono<List<BatchItemResult>> deleteTasks(@RequestBody List<Long> ids) {
+        return taskService.deleteTasks(ids);
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable Long id) {
+        return taskService.deleteTask(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
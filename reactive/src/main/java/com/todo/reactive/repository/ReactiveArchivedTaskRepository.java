@@ -0,0 +1,74 @@
+package com.todo.reactive.repository;
+
+import com.todo.dto.TaskDTO;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * The {@code task_archive} table. Reads project into the same {@link TaskDTO} as live
+ * tasks, always with {@code completed = true}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveArchivedTaskRepository {
+    
+    private static final String COLUMNS = "id, title, description, created_at";
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    private final DatabaseClient databaseClient;
+    
+    public Mono<TaskDTO> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from task_archive where id = :id")
+                .bind("id", id)
+                .map(ReactiveArchivedTaskRepository::toDto)
+                .one();
+    }
+    
+    public Flux<Long> findIdsByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("select id from task_archive where id in (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+    
+    public Flux<TaskDTO> streamAllNewestFirst() {
+        return databaseClient.sql("select " + COLUMNS + " from task_archive order by created_at desc")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactiveArchivedTaskRepository::toDto)
+                .all();
+    }
+    
+    /**
+     * Returns the number of rows deleted: 0 or 1.
+     */
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("delete from task_archive where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    public Mono<Long> deleteByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("delete from task_archive where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    private static TaskDTO toDto(Readable row) {
+        return new TaskDTO(
+            row.get("id", Long.class),
+            row.get("title", String.class),
+            row.get("description", String.class),
+            true,
+            row.get("created_at", LocalDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.todo.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * The backend's {@code task_change_version} row. Incrementing it after writes is how
+ * the backend learns that tasks changed here: it polls the row, and drops its caches
+ * and ETags once it moves past the backend's own writes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskChangeVersionRepository {
+    
+    private final DatabaseClient databaseClient;
+    
+    /**
+     * Takes the row lock until the calling transaction ends, so it is run on its own
+     * rather than inside a write.
+     */
+    public Mono<Void> increment() {
+        return databaseClient.sql("update task_change_version set version = version + 1 where id = 1")
+                .then();
+    }
+}
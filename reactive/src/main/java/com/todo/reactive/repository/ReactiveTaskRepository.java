@@ -0,0 +1,160 @@
+package com.todo.reactive.repository;
+
+import com.todo.dto.TaskDTO;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * The {@code task} table through {@link DatabaseClient}, with the same queries as the
+ * backend's JPA repository. Rows are read straight into {@link TaskDTO}s.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskRepository {
+    
+    private static final String COLUMNS = "id, title, description, completed, created_at";
+    
+    /**
+     * Rows fetched per round trip by {@link #streamAllNewestFirst()}. With server-side
+     * prepared statements the MySQL driver reads through a cursor in chunks of this size,
+     * and only asks for the next chunk once the subscriber has demanded it.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+    
+    private final DatabaseClient databaseClient;
+    
+    public Mono<TaskDTO> insert(long id, String title, String description, LocalDateTime createdAt) {
+        return databaseClient.sql("insert into task (id, title, description, completed, created_at, version) "
+                        + "values (:id, :title, :description, false, :createdAt, 0)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("description", description)
+                .bind("createdAt", createdAt)
+                .then()
+                .thenReturn(new TaskDTO(id, title, description, false, createdAt));
+    }
+    
+    public Mono<TaskDTO> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from task where id = :id")
+                .bind("id", id)
+                .map(ReactiveTaskRepository::toDto)
+                .one();
+    }
+    
+    public Flux<TaskDTO> findByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("select " + COLUMNS + " from task where id in (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveTaskRepository::toDto)
+                .all();
+    }
+    
+    /**
+     * One page of incomplete tasks, newest first, without a count.
+     */
+    public Flux<TaskDTO> findIncompletePage(int page, int size) {
+        return databaseClient.sql("select " + COLUMNS + " from task where completed = false "
+                        + "order by created_at desc limit :limit offset :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveTaskRepository::toDto)
+                .all();
+    }
+    
+    public Mono<Long> countIncomplete() {
+        return databaseClient.sql("select count(*) from task where completed = false")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+    
+    /**
+     * First keyset page of incomplete tasks, in {@code idx_completed_created} order.
+     */
+    public Flux<TaskDTO> findIncompleteFirst(int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from task where completed = false "
+                        + "order by created_at desc, id asc limit :limit")
+                .bind("limit", limit)
+                .map(ReactiveTaskRepository::toDto)
+                .all();
+    }
+    
+    /**
+     * Keyset page of incomplete tasks strictly after {@code (createdAt, id)}.
+     */
+    public Flux<TaskDTO> findIncompleteAfter(LocalDateTime createdAt, long id, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from task where completed = false "
+                        + "and created_at <= :createdAt "
+                        + "and (created_at < :createdAt or id > :id) "
+                        + "order by created_at desc, id asc limit :limit")
+                .bind("createdAt", createdAt)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveTaskRepository::toDto)
+                .all();
+    }
+    
+    /**
+     * Every task, newest first, read as the subscriber asks for it.
+     */
+    public Flux<TaskDTO> streamAllNewestFirst() {
+        return databaseClient.sql("select " + COLUMNS + " from task order by created_at desc")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactiveTaskRepository::toDto)
+                .all();
+    }
+    
+    /**
+     * Completes the task if it is still open, bumping its version as the backend's
+     * optimistic lock expects. Returns the number of rows changed: 0 or 1.
+     */
+    public Mono<Long> complete(long id, LocalDateTime completedAt) {
+        return databaseClient.sql("update task set completed = true, completed_at = :completedAt, "
+                        + "version = version + 1 where id = :id and completed = false")
+                .bind("completedAt", completedAt)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    public Mono<Long> completeByIdIn(Collection<Long> ids, LocalDateTime completedAt) {
+        return databaseClient.sql("update task set completed = true, completed_at = :completedAt, "
+                        + "version = version + 1 where id in (:ids) and completed = false")
+                .bind("completedAt", completedAt)
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    /**
+     * Returns the number of rows deleted: 0 or 1.
+     */
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("delete from task where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    public Mono<Long> deleteByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("delete from task where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    static TaskDTO toDto(Readable row) {
+        return new TaskDTO(
+            row.get("id", Long.class),
+            row.get("title", String.class),
+            row.get("description", String.class),
+            row.get("completed", Boolean.class),
+            row.get("created_at", LocalDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package com.todo.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Task ids from the {@code task_seq} table, handed out the way Hibernate's pooled
+ * optimizer does for the backend: each value read is the top of a block of
+ * {@link #BLOCK_SIZE} ids, and the table is moved past it. Both applications can then
+ * insert into the same {@code task} table without colliding. As with the backend, the
+ * table must start at {@link #BLOCK_SIZE} or more, which the backend's migrations
+ * take care of.
+ *
+ * <p>Blocks are reserved in their own transaction, committed before any id is used, so
+ * a caller rolling back never returns a block that may already be handed out.
+ */
+@Component
+public class TaskIdAllocator {
+    
+    /** Must match the {@code allocationSize} of the backend's {@code task_seq} generator. */
+    static final int BLOCK_SIZE = 50;
+    
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator ownTransaction;
+    private final Deque<long[]> blocks = new ArrayDeque<>();
+    
+    public TaskIdAllocator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.ownTransaction = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+    
+    public Mono<Long> nextId() {
+        return allocate(1).map(ids -> ids.get(0));
+    }
+    
+    /**
+     * {@code count} unused ids, reserving as many blocks as that takes.
+     */
+    public Mono<List<Long>> allocate(int count) {
+        return Mono.defer(() -> fill(new ArrayList<>(count), count));
+    }
+    
+    private Mono<List<Long>> fill(List<Long> ids, int count) {
+        take(ids, count);
+        if (ids.size() == count) {
+            return Mono.just(ids);
+        }
+        return reserveBlock()
+                .doOnNext(this::addBlock)
+                .then(Mono.defer(() -> fill(ids, count)));
+    }
+    
+    private synchronized void take(List<Long> ids, int count) {
+        while (ids.size() < count && !blocks.isEmpty()) {
+            long[] block = blocks.peekFirst();
+            ids.add(block[0]++);
+            if (block[0] > block[1]) {
+                blocks.pollFirst();
+            }
+        }
+    }
+    
+    /**
+     * Concurrent callers may each reserve a block; every block is kept, so none is wasted.
+     */
+    private synchronized void addBlock(long[] block) {
+        blocks.addLast(block);
+    }
+    
+    /**
+     * Reads and advances {@code task_seq} under a row lock. Returns {@code [first, last]}.
+     */
+    private Mono<long[]> reserveBlock() {
+        Mono<long[]> reserve = databaseClient.sql("select next_val from task_seq for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("task_seq has no row")))
+                .flatMap(high -> databaseClient.sql("update task_seq set next_val = :next")
+                        .bind("next", high + BLOCK_SIZE)
+                        .then()
+                        .thenReturn(new long[] {Math.max(1, high - BLOCK_SIZE + 1), high}));
+        return reserve.as(ownTransaction::transactional);
+    }
+}
@@ -0,0 +1,78 @@
+package com.todo.reactive.service;
+
+import com.todo.reactive.repository.ReactiveTaskChangeVersionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tells running backends that tasks changed here, through their shared
+ * {@code task_change_version} row. Writes only note that they changed something, once
+ * they committed; every {@code todo.changes.poll-interval} a background flush increments
+ * the row once for all of them, so writes neither run the extra statement nor queue on
+ * the row lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReactiveTaskChangeVersion {
+    
+    private final ReactiveTaskChangeVersionRepository repository;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    
+    /**
+     * Notes a change once the surrounding transaction commits, or at once outside one.
+     */
+    public Mono<Void> markChanged() {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        changed.set(true);
+                        return;
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            changed.set(true);
+                            return Mono.empty();
+                        }
+                    });
+                })
+                .onErrorResume(NoTransactionException.class, ex -> {
+                    changed.set(true);
+                    return Mono.empty();
+                })
+                .then();
+    }
+    
+    /**
+     * Increments the row if anything changed since the last flush. Runs on the scheduler
+     * thread, which may block; a failed increment is retried by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${todo.changes.poll-interval:PT1S}",
+               initialDelayString = "${todo.changes.poll-interval:PT1S}")
+    public void flush() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        try {
+            repository.increment().block();
+        } catch (RuntimeException ex) {
+            changed.set(true);
+            log.warn("Could not increment task_change_version, retrying with the next flush", ex);
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,258 @@
+package com.todo.reactive.service;
+
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
+import com.todo.dto.OffsetPage;
+import com.todo.dto.TaskDTO;
+import com.todo.reactive.repository.ReactiveArchivedTaskRepository;
+import com.todo.reactive.repository.ReactiveTaskRepository;
+import com.todo.reactive.repository.TaskIdAllocator;
+import com.todo.service.InvalidPageException;
+import com.todo.service.TaskBatches;
+import com.todo.service.TaskCursor;
+import com.todo.service.TaskNotFoundException;
+import com.todo.service.TaskService;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The backend's {@link TaskService} behaviour on R2DBC: same paging sizes, cursors,
+ * batch rules and not-found handling, with every result a {@link Mono} or {@link Flux}.
+ * It has none of the backend's caches, counters or change events, so each read goes to
+ * the database. Every write that changes a task is noted by
+ * {@link ReactiveTaskChangeVersion}, which increments the backend's shared change version
+ * in the background; that is how running backends learn to drop what they cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+    
+    private static final Comparator<TaskDTO> NEWEST_FIRST =
+            Comparator.comparing(TaskDTO::getCreatedAt).reversed();
+    
+    private final ReactiveTaskRepository taskRepository;
+    private final ReactiveArchivedTaskRepository archivedTaskRepository;
+    private final TaskIdAllocator taskIdAllocator;
+    private final ReactiveTaskChangeVersion changeVersion;
+    private final Validator validator;
+    
+    @Transactional
+    public Mono<TaskDTO> createTask(CreateTaskRequest request) {
+        return taskIdAllocator.nextId()
+                .flatMap(id -> taskRepository.insert(id, request.getTitle(), request.getDescription(),
+                        LocalDateTime.now()))
+                .flatMap(created -> changeVersion.markChanged().thenReturn(created));
+    }
+    
+    /**
+     * Creates every valid request in one transaction, with ids from as few block
+     * reservations as the batch needs; invalid entries are reported, not thrown.
+     */
+    @Transactional
+    public Mono<List<BatchItemResult>> createTasks(List<CreateTaskRequest> requests) {
+        TaskBatches.checkSize(requests.size());
+        
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        List<CreateTaskRequest> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTaskRequest request = requests.get(i);
+            String violations = TaskBatches.describeViolations(validator, request);
+            if (violations != null) {
+                results.add(new BatchItemResult(i, null, BatchItemResult.Status.INVALID, violations, null));
+            } else {
+                results.add(new BatchItemResult(i, null, BatchItemResult.Status.CREATED, null, null));
+                valid.add(request);
+            }
+        }
+        if (valid.isEmpty()) {
+            return Mono.just(results);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        return taskIdAllocator.allocate(valid.size())
+                .flatMapMany(ids -> Flux.range(0, ids.size())
+                        .concatMap(i -> taskRepository.insert(ids.get(i), valid.get(i).getTitle(),
+                                valid.get(i).getDescription(), now)))
+                .collectList()
+                .flatMap(created -> changeVersion.markChanged().thenReturn(created))
+                .map(created -> {
+                    int saved = 0;
+                    for (BatchItemResult result : results) {
+                        if (result.getStatus() == BatchItemResult.Status.CREATED) {
+                            TaskDTO task = created.get(saved++);
+                            result.setId(task.getId());
+                            result.setTask(task);
+                        }
+                    }
+                    return results;
+                });
+    }
+    
+    public Flux<TaskDTO> getFirstPageIncompleteTasks() {
+        return taskRepository.findIncompletePage(0, TaskService.PAGE_SIZE);
+    }
+    
+    /**
+     * The page and its total come from two queries run side by side, each on its own
+     * pooled connection.
+     */
+    public Mono<OffsetPage<TaskDTO>> getIncompleteTasks(int page) {
+        if (page < 0) {
+            return Mono.error(new InvalidPageException(page));
+        }
+        PageRequest pageable = PageRequest.of(page, TaskService.PAGE_SIZE);
+        return Mono.zip(taskRepository.findIncompletePage(page, TaskService.PAGE_SIZE).collectList(),
+                        taskRepository.countIncomplete())
+                .map(pageAndTotal -> OffsetPage.of(
+                        new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2())));
+    }
+    
+    /**
+     * Keyset-paginated incomplete tasks, with the backend's cursor format, so a cursor
+     * from either application works against the other.
+     */
+    public Mono<CursorPage<TaskDTO>> getIncompleteTasksAfter(String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, TaskService.MAX_CURSOR_PAGE_SIZE));
+        
+        return Mono.defer(() -> {
+            Flux<TaskDTO> tasks;
+            if (cursor == null || cursor.isBlank()) {
+                tasks = taskRepository.findIncompleteFirst(size + 1);
+            } else {
+                TaskCursor after = TaskCursor.decode(cursor);
+                tasks = taskRepository.findIncompleteAfter(after.getCreatedAt(), after.getId(), size + 1);
+            }
+            return tasks.collectList().map(found -> {
+                boolean hasMore = found.size() > size;
+                List<TaskDTO> slice = hasMore ? found.subList(0, size) : found;
+                String nextCursor = hasMore ? TaskCursor.of(slice.get(size - 1)).encode() : null;
+                return new CursorPage<>(slice, nextCursor);
+            });
+        });
+    }
+    
+    /**
+     * Live and archived tasks together, newest first. The two tables are read at once on
+     * separate connections and merged as rows arrive; demand from the subscriber travels
+     * back to both database cursors, so a slow client holds rows in the driver rather
+     * than in memory. Not transactional: an archive run between the two reads can make a
+     * task appear twice or not at all.
+     */
+    public Flux<TaskDTO> getAllTasks() {
+        return Flux.mergeComparing(NEWEST_FIRST,
+                taskRepository.streamAllNewestFirst(),
+                archivedTaskRepository.streamAllNewestFirst());
+    }
+    
+    public Mono<Long> getIncompleteTaskCount() {
+        return taskRepository.countIncomplete();
+    }
+    
+    /**
+     * One conditional {@code UPDATE}. When it changes nothing the task is either already
+     * completed, archived or unknown, and is looked up to tell which.
+     */
+    @Transactional
+    public Mono<TaskDTO> markTaskAsCompleted(Long taskId) {
+        return taskRepository.complete(taskId, LocalDateTime.now())
+                .flatMap(this::markIfChanged)
+                .then(taskRepository.findById(taskId))
+                .switchIfEmpty(archivedTaskRepository.findById(taskId))
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException("Task not found with id: " + taskId)));
+    }
+    
+    @Transactional
+    public Mono<Void> deleteTask(Long taskId) {
+        return taskRepository.deleteById(taskId)
+                .flatMap(deleted -> deleted > 0 ? Mono.just(deleted) : archivedTaskRepository.deleteById(taskId))
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException("Task not found with id: " + taskId)))
+                .flatMap(this::markIfChanged);
+    }
+    
+    /**
+     * Completes the given tasks with one lookup and a single {@code UPDATE ... IN}. Tasks
+     * that are already completed, archived ones included, count as completed.
+     */
+    @Transactional
+    public Mono<List<BatchItemResult>> markTasksAsCompleted(List<Long> taskIds) {
+        TaskBatches.checkSize(taskIds.size());
+        if (taskIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return findLiveIds(taskIds).flatMap(live -> {
+            Mono<Void> completeLive = live.isEmpty()
+                    ? Mono.empty()
+                    : taskRepository.completeByIdIn(live, LocalDateTime.now()).flatMap(this::markIfChanged);
+            return completeLive.then(findArchivedIds(taskIds, live))
+                    .map(archived -> {
+                        Set<Long> found = new HashSet<>(live);
+                        found.addAll(archived);
+                        return TaskBatches.toResults(taskIds, found, BatchItemResult.Status.COMPLETED);
+                    });
+        });
+    }
+    
+    /**
+     * Deletes the given tasks with one lookup and a single {@code DELETE ... IN}, plus
+     * one more of each for ids that turn out to be archived.
+     */
+    @Transactional
+    public Mono<List<BatchItemResult>> deleteTasks(List<Long> taskIds) {
+        TaskBatches.checkSize(taskIds.size());
+        if (taskIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return findLiveIds(taskIds).flatMap(live -> {
+            Mono<Long> deleteLive = live.isEmpty() ? Mono.just(0L) : taskRepository.deleteByIdIn(live);
+            return deleteLive.flatMap(deletedLive -> findArchivedIds(taskIds, live)
+                    .flatMap(archived -> {
+                        Mono<Long> deleteArchived = archived.isEmpty()
+                                ? Mono.just(0L)
+                                : archivedTaskRepository.deleteByIdIn(archived);
+                        Set<Long> found = new HashSet<>(live);
+                        found.addAll(archived);
+                        return deleteArchived
+                                .flatMap(deletedArchived -> markIfChanged(deletedLive + deletedArchived))
+                                .thenReturn(TaskBatches.toResults(taskIds, found, BatchItemResult.Status.DELETED));
+                    }));
+        });
+    }
+    
+    private Mono<Void> markIfChanged(long changedRows) {
+        return changedRows > 0 ? changeVersion.markChanged() : Mono.empty();
+    }
+    
+    private Mono<Set<Long>> findLiveIds(List<Long> taskIds) {
+        return taskRepository.findByIdIn(new HashSet<>(taskIds))
+                .map(TaskDTO::getId)
+                .collect(HashSet::new, Set::add);
+    }
+    
+    /**
+     * The ids among {@code taskIds} that are not live but archived. Costs nothing when
+     * every id was found live.
+     */
+    private Mono<List<Long>> findArchivedIds(List<Long> taskIds, Set<Long> live) {
+        Set<Long> missing = new HashSet<>(taskIds);
+        missing.removeAll(live);
+        if (missing.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return archivedTaskRepository.findIdsByIdIn(missing).collectList();
+    }
+}
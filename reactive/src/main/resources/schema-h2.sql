@@ -0,0 +1,31 @@
+-- The tables of database/init.sql, for the h2 profile
+CREATE TABLE IF NOT EXISTS task (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+CREATE INDEX IF NOT EXISTS idx_completed_created ON task (completed, created_at DESC);
+
+CREATE TABLE IF NOT EXISTS task_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS task_seq (
+    next_val BIGINT
+);
+INSERT INTO task_seq (next_val) SELECT 50 WHERE NOT EXISTS (SELECT 1 FROM task_seq);
+
+CREATE TABLE IF NOT EXISTS task_change_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+INSERT INTO task_change_version (id, version) SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM task_change_version);
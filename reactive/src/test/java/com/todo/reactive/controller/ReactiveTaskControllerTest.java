@@ -0,0 +1,313 @@
+package com.todo.reactive.controller;
+
+import com.todo.dto.BatchItemResult;
+import com.todo.dto.CreateTaskRequest;
+import com.todo.dto.CursorPage;
+import com.todo.dto.TaskDTO;
+import com.todo.reactive.service.ReactiveTaskChangeVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The whole reactive stack on H2, driven over HTTP the way clients of the backend
+ * drive it.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactivetasks;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "todo.changes.poll-interval=PT1H"
+})
+class ReactiveTaskControllerTest {
+    
+    private static final ParameterizedTypeReference<List<BatchItemResult>> BATCH_RESULTS =
+            new ParameterizedTypeReference<>() { };
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    @Autowired
+    private ReactiveTaskChangeVersion taskChangeVersion;
+    
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from task").then().block();
+        databaseClient.sql("delete from task_archive").then().block();
+    }
+    
+    @Test
+    void createTask_ShouldReturnCreatedTask_AndCountIt() {
+        // Act
+        TaskDTO created = create("Buy books");
+        
+        // Assert
+        assertNotNull(created.getId());
+        assertFalse(created.getCompleted());
+        webTestClient.get().uri("/api/tasks/recent").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TaskDTO.class).hasSize(1);
+        webTestClient.get().uri("/api/tasks/count").exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class).isEqualTo(1L);
+    }
+    
+    @Test
+    void createTask_ShouldReturnBadRequest_WhenTitleIsBlank() {
+        // Act & Assert
+        webTestClient.post().uri("/api/tasks")
+                .bodyValue(new CreateTaskRequest("", "Description"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.title").isEqualTo("Title is required");
+    }
+    
+    @Test
+    void createTasks_ShouldGiveDistinctIds_AcrossSeveralIdBlocks() {
+        // Arrange
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(new CreateTaskRequest("Task " + i, "Description " + i));
+        }
+        requests.add(new CreateTaskRequest("", "No title"));
+        
+        // Act
+        List<BatchItemResult> results = webTestClient.post().uri("/api/tasks/batch")
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BATCH_RESULTS)
+                .returnResult().getResponseBody();
+        
+        // Assert
+        assertEquals(121, results.size());
+        assertEquals(BatchItemResult.Status.INVALID, results.get(120).getStatus());
+        Set<Long> ids = new HashSet<>();
+        results.subList(0, 120).forEach(result -> ids.add(result.getId()));
+        assertEquals(120, ids.size());
+    }
+    
+    @Test
+    void completeTask_ShouldCompleteOnce_AndReturnNotFoundForUnknownId() {
+        // Arrange
+        TaskDTO created = create("Clean home");
+        
+        // Act & Assert
+        for (int attempt = 0; attempt < 2; attempt++) {
+            webTestClient.put().uri("/api/tasks/{id}/complete", created.getId()).exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.completed").isEqualTo(true);
+        }
+        webTestClient.put().uri("/api/tasks/{id}/complete", 999_999).exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Task not found with id: 999999");
+    }
+    
+    @Test
+    void writes_ShouldIncrementTheSharedChangeVersionOncePerFlush_OnlyWhenTasksChange() {
+        // Arrange
+        taskChangeVersion.flush();
+        long before = changeVersion();
+        
+        // Act
+        TaskDTO created = create("Walk dog");
+        webTestClient.put().uri("/api/tasks/{id}/complete", created.getId()).exchange()
+                .expectStatus().isOk();
+        long unflushed = changeVersion();
+        taskChangeVersion.flush();
+        long afterCompleting = changeVersion();
+        webTestClient.put().uri("/api/tasks/{id}/complete", created.getId()).exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/tasks/{id}", 999_999L).exchange()
+                .expectStatus().isNotFound();
+        taskChangeVersion.flush();
+        long afterNoChange = changeVersion();
+        webTestClient.method(HttpMethod.DELETE).uri("/api/tasks/batch")
+                .bodyValue(List.of(created.getId(), 999_999L))
+                .exchange()
+                .expectStatus().isOk();
+        taskChangeVersion.flush();
+        
+        // Assert: the writes never touch the row, the flushes that follow changes do once
+        assertEquals(before, unflushed);
+        assertEquals(before + 1, afterCompleting);
+        assertEquals(before + 1, afterNoChange);
+        assertEquals(before + 2, changeVersion());
+    }
+    
+    @Test
+    void deleteTask_ShouldDeleteLiveAndArchivedTasks() {
+        // Arrange
+        TaskDTO created = create("Play cricket");
+        archive(900_001L, "Old task");
+        
+        // Act & Assert
+        webTestClient.delete().uri("/api/tasks/{id}", created.getId()).exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/tasks/{id}", 900_001L).exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/tasks/{id}", created.getId()).exchange()
+                .expectStatus().isNotFound();
+    }
+    
+    @Test
+    void batchComplete_ShouldReportArchivedAsCompleted_AndUnknownAsNotFound() {
+        // Arrange
+        TaskDTO created = create("Help Saman");
+        archive(900_002L, "Archived");
+        
+        // Act
+        List<BatchItemResult> results = webTestClient.put().uri("/api/tasks/batch/complete")
+                .bodyValue(List.of(created.getId(), 900_002L, 999_999L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BATCH_RESULTS)
+                .returnResult().getResponseBody();
+        
+        // Assert
+        assertEquals(BatchItemResult.Status.COMPLETED, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.COMPLETED, results.get(1).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(2).getStatus());
+        webTestClient.get().uri("/api/tasks/count").exchange()
+                .expectBody(Long.class).isEqualTo(0L);
+    }
+    
+    @Test
+    void batchDelete_ShouldDeleteLiveAndArchivedTasks() {
+        // Arrange
+        TaskDTO created = create("Takehome assignment");
+        archive(900_003L, "Archived");
+        
+        // Act
+        List<BatchItemResult> results = webTestClient.method(HttpMethod.DELETE).uri("/api/tasks/batch")
+                .bodyValue(List.of(created.getId(), 900_003L, 999_999L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BATCH_RESULTS)
+                .returnResult().getResponseBody();
+        
+        // Assert
+        assertEquals(BatchItemResult.Status.DELETED, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.DELETED, results.get(1).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(2).getStatus());
+        webTestClient.get().uri("/api/tasks").exchange()
+                .expectBodyList(TaskDTO.class).hasSize(0);
+    }
+    
+    @Test
+    void getIncompleteTasks_ShouldWalkEveryTaskOnce_FollowingCursors() {
+        // Arrange
+        for (int i = 0; i < 7; i++) {
+            create("Task " + i);
+        }
+        
+        // Act
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Optional<String> after = Optional.ofNullable(cursor);
+            CursorPage<TaskDTO> page = webTestClient.get()
+                    .uri(builder -> builder.path("/api/tasks/incomplete")
+                            .queryParam("limit", 3)
+                            .queryParamIfPresent("after", after)
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(new ParameterizedTypeReference<CursorPage<TaskDTO>>() { })
+                    .returnResult().getResponseBody();
+            page.getContent().forEach(task -> assertTrue(seen.add(task.getId())));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        // Assert
+        assertEquals(7, seen.size());
+        assertEquals(3, pages);
+    }
+    
+    @Test
+    void getTasksPage_ShouldReturnBadRequest_WhenPageIsNegative() {
+        // Act & Assert
+        webTestClient.get().uri("/api/tasks/page/-1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Page must not be negative: -1");
+    }
+    
+    @Test
+    void getAllTasks_ShouldStreamLiveAndArchivedTasksNewestFirst_AsNdjson() {
+        // Arrange
+        create("Live task");
+        archive(900_004L, "Archived task");
+        
+        // Act
+        List<TaskDTO> tasks = webTestClient.get().uri("/api/tasks")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        
+        // Assert
+        assertEquals(2, tasks.size());
+        assertEquals("Live task", tasks.get(0).getTitle());
+        assertTrue(tasks.get(1).getCompleted());
+    }
+    
+    private TaskDTO create(String title) {
+        return webTestClient.post().uri("/api/tasks")
+                .bodyValue(new CreateTaskRequest(title, "Description of " + title))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(TaskDTO.class)
+                .returnResult().getResponseBody();
+    }
+    
+    private long changeVersion() {
+        return databaseClient.sql("select version from task_change_version where id = 1")
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .block();
+    }
+    
+    private void archive(long id, String title) {
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(30);
+        databaseClient.sql("insert into task_archive (id, title, description, created_at, completed_at, archived_at) "
+                        + "values (:id, :title, :title, :createdAt, :createdAt, :createdAt)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("createdAt", createdAt)
+                .then()
+                .block();
+    }
+}